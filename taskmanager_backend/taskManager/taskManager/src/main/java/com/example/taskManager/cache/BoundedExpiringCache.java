@@ -0,0 +1,155 @@
+package com.example.taskManager.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Small in-process cache where every entry carries its own expiry time.
+ * Expired entries are dropped on read. When the size bound is reached, one
+ * writer sweeps out expired entries first and then arbitrary ones until about
+ * 10% of the capacity is free again, so the bound holds approximately under
+ * concurrent writes.
+ */
+public class BoundedExpiringCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+    }
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock sweepLock = new ReentrantLock();
+    private final int maxSize;
+    private final Clock clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedExpiringCache(int maxSize, Clock clock) {
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached value, or null if absent or expired.
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMillis() <= clock.millis()) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    public void put(K key, V value, long expiresAtMillis) {
+        if (maxSize <= 0 || expiresAtMillis <= clock.millis()) {
+            return;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            makeRoom();
+        }
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+    }
+
+    public void put(K key, V value, Duration ttl) {
+        put(key, value, clock.millis() + ttl.toMillis());
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes every entry whose value matches the predicate.
+     */
+    public void invalidateIf(Predicate<V> predicate) {
+        entries.values().removeIf(entry -> predicate.test(entry.value()));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Publishes size, hit/miss and eviction counters using Micrometer's cache naming.
+     */
+    public void bindTo(MeterRegistry registry, String cacheName) {
+        FunctionCounter.builder("cache.gets", this, BoundedExpiringCache::hitCount)
+                .tag("cache", cacheName).tag("result", "hit")
+                .description("Number of cache lookups that returned a value")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, BoundedExpiringCache::missCount)
+                .tag("cache", cacheName).tag("result", "miss")
+                .description("Number of cache lookups that found nothing or an expired entry")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", this, BoundedExpiringCache::evictionCount)
+                .tag("cache", cacheName)
+                .description("Number of entries removed because they expired or the cache was full")
+                .register(registry);
+        Gauge.builder("cache.size", this, BoundedExpiringCache::size)
+                .tag("cache", cacheName)
+                .description("Number of entries currently held")
+                .register(registry);
+    }
+
+    private void makeRoom() {
+        if (!sweepLock.tryLock()) {
+            return; // another writer is already sweeping
+        }
+        try {
+            long now = clock.millis();
+            int target = maxSize - Math.max(1, maxSize / 10);
+
+            Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                if (it.next().getValue().expiresAtMillis() <= now) {
+                    it.remove();
+                    evictions.increment();
+                }
+            }
+
+            it = entries.entrySet().iterator();
+            while (entries.size() > target && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+}
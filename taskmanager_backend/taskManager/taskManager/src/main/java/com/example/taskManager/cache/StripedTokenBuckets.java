@@ -0,0 +1,115 @@
+package com.example.taskManager.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets keyed by string, split over lock stripes so unrelated keys do not
+ * contend. Each stripe is an access-ordered map capped at its share of
+ * {@code maxEntries}; the least recently used bucket is dropped when a stripe is
+ * full, which at worst hands that key a fresh, full bucket.
+ */
+public class StripedTokenBuckets {
+
+    private static final class Bucket {
+        double tokens;
+        long updatedAtMillis;
+
+        Bucket(double tokens, long updatedAtMillis) {
+            this.tokens = tokens;
+            this.updatedAtMillis = updatedAtMillis;
+        }
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<String, Bucket> buckets;
+
+        Stripe(int maxEntries) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+    }
+
+    private static final int MAX_STRIPES = 1 << 16;
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final int capacity;
+    private final double tokensPerMilli;
+    private final Clock clock;
+
+    /**
+     * @param capacity     burst size; a new key starts with a full bucket
+     * @param refillPeriod time to refill an empty bucket completely
+     * @param stripeCount  rounded up to a power of two; 1 keeps a single stripe
+     */
+    public StripedTokenBuckets(int capacity, Duration refillPeriod, int maxEntries, int stripeCount, Clock clock) {
+        if (stripeCount < 1 || stripeCount > MAX_STRIPES) {
+            throw new IllegalArgumentException("stripeCount must be between 1 and " + MAX_STRIPES);
+        }
+        int count = stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new Stripe[count];
+        int perStripe = Math.max(1, maxEntries / count);
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        this.mask = count - 1;
+        this.capacity = Math.max(1, capacity);
+        this.tokensPerMilli = (double) this.capacity / Math.max(1, refillPeriod.toMillis());
+        this.clock = clock;
+    }
+
+    /**
+     * Takes one token for the key.
+     *
+     * @return 0 if a token was taken, otherwise the milliseconds until one is available
+     */
+    public long tryAcquire(String key) {
+        Stripe stripe = stripes[spread(key.hashCode()) & mask];
+        long now = clock.millis();
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            } else if (now > bucket.updatedAtMillis) {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedAtMillis) * tokensPerMilli);
+                bucket.updatedAtMillis = now;
+            }
+
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - bucket.tokens) / tokensPerMilli));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.taskManager.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Hashed timing wheel for expiring keys at coarse granularity. Each key is
+ * placed in the slot of the first tick at or after its deadline; advancing the wheel only visits the
+ * slots whose ticks have passed, so expiry costs are proportional to the number
+ * of elapsed ticks and due keys rather than to the total number of keys.
+ * Deadlines more than one revolution away stay in their slot until a later pass.
+ * Not thread-safe; callers serialize access.
+ */
+public class TimingWheel<K> {
+
+    private record Timeout<K>(K key, long deadlineMillis) {
+    }
+
+    private final long tickMillis;
+    private final List<Timeout<K>>[] slots;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int slotCount, long startMillis) {
+        if (tickMillis <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException("tickMillis and slotCount must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = new List[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ArrayList<>();
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public void schedule(K key, long deadlineMillis) {
+        // Round up so a slot is only visited once every deadline in it has passed
+        long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        slots[(int) (tick % slots.length)].add(new Timeout<>(key, deadlineMillis));
+        size++;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis} and hands every key whose deadline has
+     * passed to {@code onExpired} together with the deadline it was scheduled with.
+     */
+    public void advance(long nowMillis, BiConsumer<K, Long> onExpired) {
+        long targetTick = nowMillis / tickMillis;
+        long ticks = Math.min(targetTick - currentTick, slots.length);
+        for (long t = 1; t <= ticks; t++) {
+            Iterator<Timeout<K>> it = slots[(int) ((currentTick + t) % slots.length)].iterator();
+            while (it.hasNext()) {
+                Timeout<K> timeout = it.next();
+                if (timeout.deadlineMillis() <= nowMillis) {
+                    it.remove();
+                    size--;
+                    onExpired.accept(timeout.key(), timeout.deadlineMillis());
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.taskManager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the per-request access log written to the {@code access} logger.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "access-log")
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Fraction of successful, fast requests that are logged; failed and slow requests always are.
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Requests taking at least this long are always logged.
+     */
+    private Duration slowThreshold = Duration.ofSeconds(1);
+
+    /**
+     * Fast 401 responses logged per minute; the rest are only counted, so a
+     * scanner replaying bad tokens cannot turn each rejection into a log line.
+     */
+    private int unauthorizedPerMinute = 10;
+}
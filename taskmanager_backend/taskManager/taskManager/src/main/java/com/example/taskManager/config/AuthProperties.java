@@ -0,0 +1,88 @@
+package com.example.taskManager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "auth")
+public class AuthProperties {
+
+    private final PrincipalCache principalCache = new PrincipalCache();
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+    private final SessionState sessionState = new SessionState();
+    private final Throttle throttle = new Throttle();
+    private final UsernameFilter usernameFilter = new UsernameFilter();
+
+    /**
+     * Settings for the cache of loaded user principals used by the JWT filter.
+     */
+    @Getter
+    @Setter
+    public static class PrincipalCache {
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofMinutes(5);
+        private int maxSize = 10_000;
+    }
+
+    /**
+     * Sizing of the dedicated password hashing pool used by login and register.
+     */
+    @Getter
+    @Setter
+    public static class PasswordHashing {
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 64;
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        /**
+         * Fixed BCrypt cost; when unset the cost is calibrated at startup against targetHashTime.
+         */
+        private Integer bcryptStrength;
+        private Duration targetHashTime = Duration.ofMillis(100);
+        private int minStrength = 10;
+    }
+
+    /**
+     * Write-behind flushing of the users.is_logged_in column.
+     */
+    @Getter
+    @Setter
+    public static class SessionState {
+        private Duration flushInterval = Duration.ofSeconds(5);
+        private int batchSize = 500;
+    }
+
+    /**
+     * Token buckets and in-flight cap applied to login and register before any hashing.
+     * A bucket holds {@code capacity} attempts and refills completely over its refill period.
+     */
+    @Getter
+    @Setter
+    public static class Throttle {
+        private boolean enabled = true;
+        private int usernameCapacity = 5;
+        private Duration usernameRefillPeriod = Duration.ofMinutes(1);
+        private int ipCapacity = 20;
+        private Duration ipRefillPeriod = Duration.ofMinutes(1);
+        private int maxEntries = 100_000;
+        private int stripes = 64;
+        private int maxInFlight = 64;
+    }
+
+    /**
+     * Bloom filter that lets registration skip the existence query for new names.
+     */
+    @Getter
+    @Setter
+    public static class UsernameFilter {
+        private boolean enabled = true;
+        private int expectedUsernames = 1_000_000;
+        private double falsePositiveRate = 0.01;
+    }
+}
@@ -5,6 +5,8 @@ import org.springframework.context.annotation.Configuration;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Duration;
+
 @Getter
 @Setter
 @Configuration
@@ -15,6 +17,17 @@ public class JwtProperties {
     private Long expirationMs;
     private String issuer;
 
+    /**
+     * Up to this much is randomly taken off each token's lifetime so tokens issued
+     * together do not all expire together.
+     */
+    private Duration expirationJitter = Duration.ZERO;
+    private final Cache cache = new Cache();
+    private final Revocation revocation = new Revocation();
+    private final Refresh refresh = new Refresh();
+    private final Renewal renewal = new Renewal();
+    private final Rejection rejection = new Rejection();
+
     @Override
     public String toString() {
         return "JwtProperties{" +
@@ -23,4 +36,60 @@ public class JwtProperties {
                 ", issuer='" + issuer + '\'' +
                 '}';
     }
+
+    /**
+     * Settings for the in-process cache of verified tokens.
+     */
+    @Getter
+    @Setter
+    public static class Cache {
+        private boolean enabled = true;
+        private int maxSize = 10_000;
+    }
+
+    /**
+     * Sizing of the in-memory token revocation list.
+     */
+    @Getter
+    @Setter
+    public static class Revocation {
+        private int expectedEntries = 100_000;
+        private double falsePositiveRate = 0.01;
+        private Duration tick = Duration.ofSeconds(1);
+    }
+
+    /**
+     * Lifetime of rotating refresh tokens and how often expired ones are purged.
+     */
+    @Getter
+    @Setter
+    public static class Refresh {
+        private Duration ttl = Duration.ofDays(14);
+        private Duration cleanupInterval = Duration.ofHours(1);
+    }
+
+    /**
+     * Sliding renewal: past this fraction of its lifetime, a valid token is answered
+     * with a fresh one in the X-Renewed-Token response header.
+     */
+    @Getter
+    @Setter
+    public static class Renewal {
+        private boolean enabled = true;
+        private double threshold = 0.75;
+    }
+
+    /**
+     * Negative cache of token digests that failed verification, and per-client rejection tracking.
+     * A cache-ttl of zero turns the negative cache off.
+     */
+    @Getter
+    @Setter
+    public static class Rejection {
+        private int cacheSize = 10_000;
+        private Duration cacheTtl = Duration.ofMinutes(10);
+        private int maxClients = 10_000;
+        private Duration clientWindow = Duration.ofMinutes(1);
+        private int clientThreshold = 20;
+    }
 }
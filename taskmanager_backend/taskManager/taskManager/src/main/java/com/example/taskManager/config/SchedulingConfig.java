@@ -0,0 +1,12 @@
+package com.example.taskManager.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as the login state flush.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
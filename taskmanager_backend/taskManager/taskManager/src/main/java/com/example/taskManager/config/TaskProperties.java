@@ -0,0 +1,47 @@
+package com.example.taskManager.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "tasks")
+public class TaskProperties {
+
+    private final Pagination pagination = new Pagination();
+    private final Search search = new Search();
+    private final Batch batch = new Batch();
+
+    /**
+     * Page sizes for GET /api/tasks. Requests without a limit get default-limit;
+     * larger limits are clamped to max-limit.
+     */
+    @Getter
+    @Setter
+    public static class Pagination {
+        private int defaultLimit = 100;
+        private int maxLimit = 1000;
+    }
+
+    /**
+     * In-memory word index behind GET /api/tasks/search. When disabled, searches
+     * scan the user's tasks in the database instead.
+     */
+    @Getter
+    @Setter
+    public static class Search {
+        private boolean enabled = true;
+    }
+
+    /**
+     * POST /api/tasks/batch inserts at most max-size tasks in one transaction.
+     */
+    @Getter
+    @Setter
+    public static class Batch {
+        private int maxSize = 1000;
+    }
+}
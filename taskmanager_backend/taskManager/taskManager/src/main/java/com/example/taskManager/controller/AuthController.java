@@ -2,11 +2,19 @@ package com.example.taskManager.controller;
 
 import com.example.taskManager.dto.LoginRequest;
 import com.example.taskManager.dto.LoginResponse;
+import com.example.taskManager.dto.RefreshRequest;
 import com.example.taskManager.dto.RegisterRequest;
+import com.example.taskManager.exception.ServiceBusyException;
+import com.example.taskManager.exception.TooManyRequestsException;
 import com.example.taskManager.model.User;
+import com.example.taskManager.security.AuthenticatedUser;
+import com.example.taskManager.security.CurrentUser;
+import com.example.taskManager.security.LoginThrottle;
 import com.example.taskManager.services.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +27,7 @@ import java.util.Map;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginThrottle loginThrottle;
 
     private static final String ERROR_KEY = "error";
     private static final String SUCCESS_MESSAGE = "message";
@@ -28,11 +37,16 @@ public class AuthController {
      * Register a new user.
      */
     @PostMapping("/register")
-    public ResponseEntity<Map<String, Object>> register(@RequestBody @Valid RegisterRequest request) {
-        try {
+    public ResponseEntity<Map<String, Object>> register(@RequestBody @Valid RegisterRequest request,
+                                                        HttpServletRequest httpRequest) {
+        try (LoginThrottle.Permit permit = loginThrottle.acquireRegister(httpRequest.getRemoteAddr())) {
             User newUser = authService.register(request.getUsername(), request.getPassword());
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(Map.of(SUCCESS_MESSAGE, "User registered successfully", "username", newUser.getUsername()));
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e).body(Map.of(ERROR_KEY, e.getMessage()));
+        } catch (ServiceBusyException e) {
+            return serviceBusy(e).body(Map.of(ERROR_KEY, e.getMessage()));
         } catch (RuntimeException e) {
             // Handle known bad request issues
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(ERROR_KEY, e.getMessage()));
@@ -47,10 +61,29 @@ public class AuthController {
      * Log in user and return JWT.
      */
     @PostMapping("/login")
-    public ResponseEntity<Object> login(@RequestBody @Valid LoginRequest request) {
+    public ResponseEntity<Object> login(@RequestBody @Valid LoginRequest request, HttpServletRequest httpRequest) {
+        try (LoginThrottle.Permit permit =
+                     loginThrottle.acquireLogin(request.getUsername(), httpRequest.getRemoteAddr())) {
+            LoginResponse tokens = authService.login(request.getUsername(), request.getPassword());
+            return ResponseEntity.ok(tokens);
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e).body(Map.of(ERROR_KEY, e.getMessage()));
+        } catch (ServiceBusyException e) {
+            return serviceBusy(e).body(Map.of(ERROR_KEY, e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(ERROR_KEY, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(ERROR_KEY, INTERNAL_ERROR_MESSAGE));
+        }
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and refresh token.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<Object> refresh(@RequestBody @Valid RefreshRequest request) {
         try {
-            String token = authService.login(request.getUsername(), request.getPassword());
-            return ResponseEntity.ok(new LoginResponse(token));
+            return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(ERROR_KEY, e.getMessage()));
         } catch (Exception e) {
@@ -59,18 +92,12 @@ public class AuthController {
     }
 
     /**
-     * Logout user.
+     * Logout the caller: the user is taken from the bearer token, never from the request.
      */
     @PostMapping("/logout")
-    public ResponseEntity<Map<String, Object>> logout(@RequestBody Map<String, String> body) {
+    public ResponseEntity<Map<String, Object>> logout(@CurrentUser AuthenticatedUser user) {
         try {
-            String username = body.get("username");
-            if (username == null || username.isBlank()) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(Map.of(ERROR_KEY, "Username is required"));
-            }
-
-            authService.logout(username);
+            authService.logout(user.username());
             return ResponseEntity.ok(Map.of(SUCCESS_MESSAGE, "User logged out successfully"));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(ERROR_KEY, e.getMessage()));
@@ -79,4 +106,20 @@ public class AuthController {
                     .body(Map.of(ERROR_KEY, INTERNAL_ERROR_MESSAGE));
         }
     }
+
+    /**
+     * 503 with Retry-After when the password hashing pool is saturated.
+     */
+    private ResponseEntity.BodyBuilder serviceBusy(ServiceBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+    }
+
+    /**
+     * 429 with Retry-After when the login throttle rejects the attempt.
+     */
+    private ResponseEntity.BodyBuilder tooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+    }
 }
@@ -0,0 +1,60 @@
+package com.example.taskManager.controller;
+
+import com.example.taskManager.exception.TaskVersionMismatchException;
+
+/**
+ * Strong entity tags built from version numbers ({@code "7"}), and the
+ * comparisons RFC 9110 asks for: weak comparison for If-None-Match, strong
+ * comparison for If-Match.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Whether an If-None-Match header matches the current tag, i.e. whether the
+     * client's copy is current. A null header never matches.
+     */
+    public static boolean noneMatchHits(String ifNoneMatch, String current) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals("*") || weak(trimmed).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The version an If-Match header requires, or null when the header is absent
+     * or {@code *}, which any existing task satisfies. A weak, malformed or
+     * multi-valued tag cannot be matched against a single version and fails the
+     * precondition.
+     */
+    public static Long ifMatchVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.charAt(0) == '"' && tag.charAt(tag.length() - 1) == '"') {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // falls through to the mismatch below
+            }
+        }
+        throw new TaskVersionMismatchException("If-Match must name one current version: " + ifMatch);
+    }
+
+    private static String weak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -1,76 +1,219 @@
 package com.example.taskManager.controller;
 
-import com.example.taskManager.exception.UserNotFoundException;
+import com.example.taskManager.dto.TaskBatchResult;
+import com.example.taskManager.dto.TaskBulkUpdate;
+import com.example.taskManager.dto.TaskBulkUpdateResult;
+import com.example.taskManager.dto.TaskPage;
+import com.example.taskManager.dto.TaskPatch;
+import com.example.taskManager.dto.TaskQuery;
 import com.example.taskManager.model.Task;
-import com.example.taskManager.model.User;
-import com.example.taskManager.repository.UserRepository;
+import com.example.taskManager.security.AuthenticatedUser;
+import com.example.taskManager.security.CurrentUser;
+import com.example.taskManager.services.TaskExporter;
 import com.example.taskManager.services.TaskService;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/tasks")
 @RequiredArgsConstructor
 public class TaskController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    public static final String PREFERENCE_APPLIED_HEADER = "Preference-Applied";
+    private static final String RETURN_MINIMAL = "return=minimal";
+
     private final TaskService taskService;
-    private final UserRepository userRepository;
+    private final TaskExporter taskExporter;
 
     /**
      * Create a new task and automatically link it to the logged-in user.
      */
     @PostMapping
-    public ResponseEntity<Task> createTask(@RequestBody Task task) {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-
-        Task savedTask = taskService.createTaskForUser(task, user);
+    public ResponseEntity<Task> createTask(@CurrentUser AuthenticatedUser user, @RequestBody Task task) {
+        Task savedTask = taskService.createTaskForUser(task, user.id());
         return ResponseEntity.status(HttpStatus.CREATED).body(savedTask);
     }
 
     /**
-     * Get all tasks for the logged-in user.
+     * Create many tasks for the logged-in user in one request and one transaction.
+     * The response lists, per submitted task, the created task or its validation
+     * errors. Returns 201 if at least one task was created, otherwise 400.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<TaskBatchResult> createTasks(@CurrentUser AuthenticatedUser user,
+                                                       @RequestBody List<Task> tasks) {
+        TaskBatchResult result = taskService.createTasksForUser(tasks, user.id());
+        HttpStatus status = result.created() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(result);
+    }
+
+    /**
+     * Mark many of the logged-in user's tasks completed or not in one statement,
+     * selected by id or by filter. Returns the number of tasks updated, and the
+     * tasks themselves with returnTasks=true.
+     */
+    @PostMapping("/bulk-update")
+    public ResponseEntity<TaskBulkUpdateResult> updateTasks(@CurrentUser AuthenticatedUser user,
+                                                            @RequestBody TaskBulkUpdate request,
+                                                            @RequestParam(defaultValue = "false") boolean returnTasks) {
+        return ResponseEntity.ok(taskService.updateTasksForUser(request, user.id(), returnTasks));
+    }
+
+    /**
+     * Get one page of the logged-in user's tasks, optionally only completed or
+     * open ones, sorted by id (default) or title, ascending (default) or descending.
+     * When more tasks exist, the cursor for the next page is returned in the
+     * X-Next-Cursor header and as a rel="next" Link.
+     * Every page carries the ETag of the whole list; If-None-Match with it is
+     * answered with 304 from memory, without a query.
      */
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasksForUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        List<Task> tasks = taskService.getTasksForUser(username);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<Task>> getAllTasksForUser(@CurrentUser AuthenticatedUser user,
+                                                         @RequestParam(required = false) Boolean completed,
+                                                         @RequestParam(required = false) String sort,
+                                                         @RequestParam(required = false) String direction,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @RequestParam(required = false) String after,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                                 required = false) String ifNoneMatch) {
+        TaskQuery query = TaskQuery.of(completed, sort, direction);
+        // Read before the rows, so the tag is never newer than the page it is sent with
+        String listTag = taskService.getTaskListTag(user.id());
+        if (listTag != null && EntityTags.noneMatchHits(ifNoneMatch, listTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(listTag).build();
+        }
+
+        TaskPage page = taskService.getTasksForUser(user.id(), query, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (listTag != null) {
+            response.eTag(listTag);
+        }
+        if (page.nextCursor() == null) {
+            return response.body(page.tasks());
+        }
+
+        String next = UriComponentsBuilder.fromPath("/api/tasks")
+                .queryParamIfPresent("completed", Optional.ofNullable(completed))
+                .queryParamIfPresent("sort", Optional.ofNullable(sort))
+                .queryParamIfPresent("direction", Optional.ofNullable(direction))
+                .queryParamIfPresent("limit", Optional.ofNullable(limit))
+                .queryParam("after", page.nextCursor())
+                .toUriString();
+        return response
+                .header(NEXT_CURSOR_HEADER, page.nextCursor())
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(page.tasks());
     }
 
     /**
-     * Get a specific task belonging to the logged-in user.
+     * Search the logged-in user's task titles and descriptions. All words must
+     * match; end a word with '*' to match it as a prefix. Newest tasks first.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Task>> searchTasks(@CurrentUser AuthenticatedUser user,
+                                                  @RequestParam String q,
+                                                  @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(taskService.searchTasksForUser(user.id(), q, limit));
+    }
+
+    /**
+     * Stream the logged-in user's full task list, oldest first, as NDJSON
+     * (default) or as one JSON array. The response is written chunk by chunk
+     * while rows are read, so its size is not bounded by a page.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@CurrentUser AuthenticatedUser user,
+                                                             @RequestParam(defaultValue = "ndjson") String format) {
+        TaskExporter.Format exportFormat = TaskExporter.Format.fromParameter(format);
+        Long userId = user.id();
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .body(out -> taskExporter.export(userId, exportFormat, out));
+    }
+
+    /**
+     * Get a specific task belonging to the logged-in user, with its version as a
+     * strong ETag. When If-None-Match names the current version only the version
+     * is read, and 304 is returned without a body.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTaskById(@PathVariable Long id) {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        Task task = taskService.getTaskByIdForUser(id, username);
-        return ResponseEntity.ok(task);
+    public ResponseEntity<Task> getTaskById(@CurrentUser AuthenticatedUser user, @PathVariable Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                            String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String current = EntityTags.of(taskService.getTaskVersionForUser(id, user.id()));
+            if (EntityTags.noneMatchHits(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
+        Task task = taskService.getTaskByIdForUser(id, user.id());
+        return ResponseEntity.ok().eTag(EntityTags.of(task.getVersion())).body(task);
     }
 
     /**
-     * Update a specific task belonging to the logged-in user.
+     * Update a specific task belonging to the logged-in user. With If-Match the
+     * update only happens if the task is still at that version; otherwise 412.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Task> updateTask(@PathVariable Long id, @RequestBody Task updatedTask) {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        Task task = taskService.updateTaskForUser(id, updatedTask, username);
-        return ResponseEntity.ok(task);
+    public ResponseEntity<Task> updateTask(@CurrentUser AuthenticatedUser user,
+                                           @PathVariable Long id,
+                                           @RequestBody Task updatedTask,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                           String ifMatch) {
+        Task task = taskService.updateTaskForUser(id, updatedTask, user.id(), EntityTags.ifMatchVersion(ifMatch));
+        return ResponseEntity.ok().eTag(EntityTags.of(task.getVersion())).body(task);
+    }
+
+    /**
+     * Change some fields of a specific task belonging to the logged-in user, with
+     * JSON Merge Patch semantics: fields left out are unchanged, a null
+     * description clears it. Returns the updated task, or 204 with no body when
+     * the client sends Prefer: return=minimal. Honors If-Match like PUT.
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Task> patchTask(@CurrentUser AuthenticatedUser user,
+                                          @PathVariable Long id,
+                                          @RequestBody JsonNode patch,
+                                          @RequestHeader(value = "Prefer", required = false) String prefer,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                          String ifMatch) {
+        boolean minimal = prefer != null && prefer.contains(RETURN_MINIMAL);
+        Long expectedVersion = EntityTags.ifMatchVersion(ifMatch);
+        TaskPatch changes = TaskPatch.from(patch);
+        Task task = taskService.patchTaskForUser(id, changes, user.id(), expectedVersion, !minimal);
+        if (!minimal) {
+            return ResponseEntity.ok().eTag(EntityTags.of(task.getVersion())).body(task);
+        }
+        ResponseEntity.HeadersBuilder<?> response = ResponseEntity.noContent()
+                .header(PREFERENCE_APPLIED_HEADER, RETURN_MINIMAL);
+        if (expectedVersion != null) {
+            // A conditional write moved the task exactly one version on (an empty patch moves it none)
+            response.eTag(EntityTags.of(changes.isEmpty() ? expectedVersion : expectedVersion + 1));
+        }
+        return response.build();
     }
 
     /**
-     * Delete a specific task belonging to the logged-in user.
+     * Delete a specific task belonging to the logged-in user. With If-Match the
+     * task is only deleted if it is still at that version; otherwise 412.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        taskService.deleteTaskForUser(id, username);
+    public ResponseEntity<Void> deleteTask(@CurrentUser AuthenticatedUser user, @PathVariable Long id,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                           String ifMatch) {
+        taskService.deleteTaskForUser(id, user.id(), EntityTags.ifMatchVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
 }
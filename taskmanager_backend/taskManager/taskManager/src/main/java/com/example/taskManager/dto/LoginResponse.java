@@ -1,5 +1,6 @@
 package com.example.taskManager.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -7,6 +8,16 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class LoginResponse {
     private String token;
+
+    /**
+     * Opaque token for /api/auth/refresh; single use, a new one is returned on every refresh.
+     */
+    private String refreshToken;
+
+    public LoginResponse(String token) {
+        this.token = token;
+    }
 }
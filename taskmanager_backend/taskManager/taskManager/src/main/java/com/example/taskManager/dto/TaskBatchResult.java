@@ -0,0 +1,26 @@
+package com.example.taskManager.dto;
+
+import com.example.taskManager.model.Task;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch create: how many tasks were created and rejected, and one
+ * item per submitted task in submission order, holding either the created task
+ * or the reasons it was rejected.
+ */
+public record TaskBatchResult(int created, int rejected, List<Item> items) {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Item(int index, Task task, List<String> errors) {
+
+        public static Item created(int index, Task task) {
+            return new Item(index, task, null);
+        }
+
+        public static Item rejected(int index, List<String> errors) {
+            return new Item(index, null, errors);
+        }
+    }
+}
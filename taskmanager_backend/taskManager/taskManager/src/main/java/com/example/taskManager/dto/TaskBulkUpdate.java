@@ -0,0 +1,16 @@
+package com.example.taskManager.dto;
+
+import java.util.List;
+
+/**
+ * Body of a bulk update: the completed value to set, and the tasks to set it
+ * on, either listed by id or selected by a filter. Exactly one of the two.
+ */
+public record TaskBulkUpdate(List<Long> ids, Filter filter, Boolean completed) {
+
+    /**
+     * Selects tasks by their current state; a null completed selects all of the user's tasks.
+     */
+    public record Filter(Boolean completed) {
+    }
+}
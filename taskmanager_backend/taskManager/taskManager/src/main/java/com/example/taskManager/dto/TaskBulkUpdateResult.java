@@ -0,0 +1,14 @@
+package com.example.taskManager.dto;
+
+import com.example.taskManager.model.Task;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk update: the number of rows the UPDATE changed and, when
+ * asked for, the updated tasks themselves.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskBulkUpdateResult(int updated, List<Task> tasks) {
+}
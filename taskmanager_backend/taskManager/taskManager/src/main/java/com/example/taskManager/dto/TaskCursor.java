@@ -0,0 +1,60 @@
+package com.example.taskManager.dto;
+
+import com.example.taskManager.exception.ErrorCode;
+import com.example.taskManager.exception.InvalidRequestException;
+import com.example.taskManager.model.Task;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for task pages. It holds the sort key of the last task
+ * on the previous page (its id, plus its title when sorting by title) and the
+ * fingerprint of the query that produced it, so a cursor cannot be replayed
+ * against a different filter or order. Clients only pass it back and must not
+ * rely on its format.
+ */
+public record TaskCursor(long lastId, String lastTitle) {
+
+    private static final String VERSION = "t2";
+    private static final char SEPARATOR = '|';
+
+    public static String encode(TaskQuery query, Task last) {
+        String title = query.sortField() == TaskQuery.SortField.TITLE ? last.getTitle() : "";
+        String raw = VERSION + SEPARATOR + query.fingerprint() + SEPARATOR + last.getId() + SEPARATOR + title;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode} for the same query.
+     *
+     * @throws InvalidRequestException if the cursor is damaged or was made for another query
+     */
+    public static TaskCursor decode(String cursor, TaskQuery query) {
+        String[] parts;
+        long lastId;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // The title comes last and may itself contain the separator
+            parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw invalid("Malformed cursor");
+            }
+            lastId = Long.parseLong(parts[2]);
+        } catch (IllegalArgumentException e) {
+            // Covers bad Base64 and NumberFormatException
+            throw invalid("Malformed cursor");
+        }
+        if (lastId < 0) {
+            throw invalid("Negative cursor position");
+        }
+        if (!query.fingerprint().equals(parts[1])) {
+            throw invalid("Cursor belongs to a different filter or sort");
+        }
+        return new TaskCursor(lastId, parts[3]);
+    }
+
+    private static InvalidRequestException invalid(String message) {
+        return new InvalidRequestException(ErrorCode.INVALID_CURSOR, message);
+    }
+}
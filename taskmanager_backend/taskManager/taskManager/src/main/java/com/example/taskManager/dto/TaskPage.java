@@ -0,0 +1,12 @@
+package com.example.taskManager.dto;
+
+import com.example.taskManager.model.Task;
+
+import java.util.List;
+
+/**
+ * One page of a user's tasks in id order, plus the cursor for the next page
+ * (null on the last page).
+ */
+public record TaskPage(List<Task> tasks, String nextCursor) {
+}
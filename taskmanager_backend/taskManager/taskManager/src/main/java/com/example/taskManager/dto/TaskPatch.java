@@ -0,0 +1,67 @@
+package com.example.taskManager.dto;
+
+import com.example.taskManager.exception.ErrorCode;
+import com.example.taskManager.exception.InvalidRequestException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A JSON Merge Patch (RFC 7396) of a task: the fields the client sent, mapped
+ * to their new values. Absent fields stay as they are; a null description
+ * clears it. Only title, description and completed can be patched.
+ */
+public record TaskPatch(Map<String, Object> changes) {
+
+    public static final String TITLE = "title";
+    public static final String DESCRIPTION = "description";
+    public static final String COMPLETED = "completed";
+
+    public TaskPatch {
+        changes = Collections.unmodifiableMap(new LinkedHashMap<>(changes));
+    }
+
+    /**
+     * Reads a merge patch document. Unknown fields, and values of the wrong
+     * type, are rejected rather than ignored.
+     */
+    public static TaskPatch from(JsonNode document) {
+        if (document == null || !document.isObject()) {
+            throw invalid("Patch must be a JSON object");
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonNode> field : document.properties()) {
+            JsonNode value = field.getValue();
+            switch (field.getKey()) {
+                case TITLE, DESCRIPTION -> {
+                    if (!value.isTextual() && !value.isNull()) {
+                        throw invalid(field.getKey() + " must be a string or null");
+                    }
+                    changes.put(field.getKey(), value.isNull() ? null : value.textValue());
+                }
+                case COMPLETED -> {
+                    if (!value.isBoolean()) {
+                        throw invalid("completed must be true or false");
+                    }
+                    changes.put(COMPLETED, value.booleanValue());
+                }
+                default -> throw invalid("Field cannot be patched: " + field.getKey());
+            }
+        }
+        return new TaskPatch(changes);
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public boolean touches(String field) {
+        return changes.containsKey(field);
+    }
+
+    private static InvalidRequestException invalid(String message) {
+        return new InvalidRequestException(ErrorCode.INVALID_PATCH, message);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.taskManager.dto;
+
+import com.example.taskManager.exception.ErrorCode;
+import com.example.taskManager.exception.InvalidRequestException;
+
+/**
+ * Filter and ordering for a task listing: an optional completed flag and a sort
+ * on id or title (ties broken by id), ascending or descending.
+ */
+public record TaskQuery(Boolean completed, SortField sortField, boolean descending) {
+
+    public static final TaskQuery DEFAULT = new TaskQuery(null, SortField.ID, false);
+
+    public enum SortField {
+        ID, TITLE
+    }
+
+    /**
+     * Builds a query from request parameters; null sort and direction mean id, ascending.
+     */
+    public static TaskQuery of(Boolean completed, String sort, String direction) {
+        SortField sortField = sort == null ? SortField.ID : parseSort(sort);
+        boolean descending = direction != null && parseDescending(direction);
+        return new TaskQuery(completed, sortField, descending);
+    }
+
+    /**
+     * Short code identifying filter and ordering, used to tie cursors to the query that made them.
+     */
+    public String fingerprint() {
+        char completedCode = completed == null ? '*' : (completed ? 'y' : 'n');
+        return "" + (sortField == SortField.ID ? 'i' : 't') + (descending ? 'd' : 'a') + completedCode;
+    }
+
+    private static SortField parseSort(String sort) {
+        for (SortField field : SortField.values()) {
+            if (field.name().equalsIgnoreCase(sort)) {
+                return field;
+            }
+        }
+        throw new InvalidRequestException(ErrorCode.INVALID_SORT, "Unknown sort field: " + sort);
+    }
+
+    private static boolean parseDescending(String direction) {
+        if ("asc".equalsIgnoreCase(direction)) {
+            return false;
+        }
+        if ("desc".equalsIgnoreCase(direction)) {
+            return true;
+        }
+        throw new InvalidRequestException(ErrorCode.INVALID_SORT, "Unknown sort direction: " + direction);
+    }
+}
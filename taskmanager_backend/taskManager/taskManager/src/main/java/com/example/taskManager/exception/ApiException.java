@@ -0,0 +1,29 @@
+package com.example.taskManager.exception;
+
+/**
+ * Base class for exceptions that end a request with a catalogued error.
+ * They are expected control flow (missing task, wrong password, throttled
+ * client), so by default they skip stack-trace capture and suppression,
+ * which is most of the cost of throwing.
+ */
+public abstract class ApiException extends RuntimeException {
+
+    private final ErrorCode errorCode;
+
+    protected ApiException(ErrorCode errorCode, String message) {
+        this(errorCode, message, false);
+    }
+
+    protected ApiException(ErrorCode errorCode, String message, boolean writableStackTrace) {
+        this(errorCode, message, null, writableStackTrace);
+    }
+
+    protected ApiException(ErrorCode errorCode, String message, Throwable cause, boolean writableStackTrace) {
+        super(message, cause, false, writableStackTrace);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.taskManager.exception;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Catalog of every error the API returns. Each entry has a fixed status, code and
+ * message, and its JSON body is encoded once when the class loads, so an error
+ * response is a status line plus a shared byte array:
+ * {@code {"status":404,"code":"TASK_NOT_FOUND","message":"Task not found or access denied"}}.
+ */
+public enum ErrorCode {
+
+    TOKEN_MISSING(HttpStatus.UNAUTHORIZED, "Missing or invalid Authorization header"),
+    TOKEN_INVALID(HttpStatus.UNAUTHORIZED, "Invalid or malformed JWT"),
+    TOKEN_REVOKED(HttpStatus.UNAUTHORIZED, "Token has been revoked"),
+    TOKEN_EXPIRED(HttpStatus.UNAUTHORIZED, "Expired or invalid token"),
+    AUTHENTICATION_FAILED(HttpStatus.UNAUTHORIZED, "User authentication failed"),
+    AUTHENTICATION_REQUIRED(HttpStatus.UNAUTHORIZED, "Full authentication is required to access this resource"),
+    INVALID_CREDENTIALS(HttpStatus.UNAUTHORIZED, "Invalid username or password"),
+    USER_NOT_FOUND(HttpStatus.NOT_FOUND, "User not found"),
+    USER_ALREADY_EXISTS(HttpStatus.BAD_REQUEST, "Username already exists"),
+    TASK_NOT_FOUND(HttpStatus.NOT_FOUND, "Task not found or access denied"),
+    TASK_VERSION_MISMATCH(HttpStatus.PRECONDITION_FAILED, "Task was changed since the given version"),
+    TASK_OPERATION_FAILED(HttpStatus.BAD_REQUEST, "Task operation failed"),
+    MALFORMED_REQUEST(HttpStatus.BAD_REQUEST, "Malformed request"),
+    VALIDATION_FAILED(HttpStatus.BAD_REQUEST, "Request validation failed"),
+    INVALID_BATCH(HttpStatus.BAD_REQUEST, "Batch size is outside the allowed range"),
+    INVALID_BULK_UPDATE(HttpStatus.BAD_REQUEST, "Bulk update needs a completed value and either ids or a filter"),
+    INVALID_CURSOR(HttpStatus.BAD_REQUEST, "Invalid pagination cursor"),
+    INVALID_LIMIT(HttpStatus.BAD_REQUEST, "Limit must be at least 1"),
+    INVALID_PATCH(HttpStatus.BAD_REQUEST, "Patch may only set title, description and completed"),
+    INVALID_SEARCH(HttpStatus.BAD_REQUEST, "Search query must contain at least one word"),
+    INVALID_SORT(HttpStatus.BAD_REQUEST, "Sort must be id or title, direction asc or desc"),
+    INVALID_EXPORT_FORMAT(HttpStatus.BAD_REQUEST, "Export format must be ndjson or json"),
+    TOO_MANY_REQUESTS(HttpStatus.TOO_MANY_REQUESTS, "Too many attempts, try again later"),
+    SERVICE_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "Too many authentication requests, please retry later"),
+    INTERNAL_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error");
+
+    private final HttpStatus status;
+    private final String message;
+    private final byte[] body;
+
+    ErrorCode(HttpStatus status, String message) {
+        this.status = status;
+        this.message = message;
+        this.body = encode(status, name(), message);
+    }
+
+    public HttpStatus status() {
+        return status;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    /**
+     * The pre-encoded JSON body. Shared between responses; callers must not modify it.
+     */
+    public byte[] body() {
+        return body;
+    }
+
+    /**
+     * Writes this error straight to a servlet response, for code that runs outside Spring MVC.
+     */
+    public void writeTo(HttpServletResponse response) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Encodes an error body in the catalog's format, for statuses that have no entry.
+     */
+    public static byte[] encode(HttpStatus status, String code, String message) {
+        return encode(status, code, message, Map.of());
+    }
+
+    /**
+     * Encodes an error body with a {@code "fields"} object naming each rejected
+     * field and why, e.g. {@code "fields":{"title":"Title is required"}}. Left out when empty.
+     */
+    public static byte[] encode(HttpStatus status, String code, String message, Map<String, String> fields) {
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        StringBuilder json = new StringBuilder()
+                .append("{\"status\":").append(status.value())
+                .append(",\"code\":\"").append(encoder.quoteAsString(code))
+                .append("\",\"message\":\"").append(encoder.quoteAsString(message)).append('"');
+        if (!fields.isEmpty()) {
+            json.append(",\"fields\":{");
+            String separator = "";
+            for (Map.Entry<String, String> field : fields.entrySet()) {
+                json.append(separator)
+                        .append('"').append(encoder.quoteAsString(field.getKey())).append("\":\"")
+                        .append(encoder.quoteAsString(field.getValue())).append('"');
+                separator = ",";
+            }
+            json.append('}');
+        }
+        return json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * This entry's status and code with a message specific to one request.
+     */
+    public byte[] body(String message) {
+        return encode(status, name(), message);
+    }
+}
@@ -1,68 +1,127 @@
 package com.example.taskManager.exception;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * Maps exceptions to catalogued error bodies by type. API exceptions carry
+ * their {@link ErrorCode}; the hot control-flow ones answer with the code's
+ * pre-encoded bytes. Rejected input is rarer and answers with the detail the
+ * client needs to fix it: the message of an {@link InvalidRequestException},
+ * or the offending fields of a failed validation.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
-    private ResponseEntity<Map<String, Object>> buildError(String message, HttpStatus status) {
-        Map<String, Object> error = new HashMap<>();
-        error.put("message", message);
-        error.put("timestamp", LocalDateTime.now());
-        error.put("status", status.value());
-        return new ResponseEntity<>(error, status);
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private static ResponseEntity.BodyBuilder status(HttpStatus status) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON);
+    }
+
+    private static ResponseEntity<byte[]> buildError(ErrorCode code) {
+        return status(code.status()).body(code.body());
+    }
+
+    private static ResponseEntity<byte[]> buildError(ErrorCode code, Map<String, String> fields) {
+        return status(code.status()).body(ErrorCode.encode(code.status(), code.name(), code.message(), fields));
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<byte[]> handleServiceBusy(ServiceBusyException ex) {
+        return status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ErrorCode.SERVICE_BUSY.body());
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<byte[]> handleTooManyRequests(TooManyRequestsException ex) {
+        return status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ErrorCode.TOO_MANY_REQUESTS.body());
+    }
+
+    @ExceptionHandler(TaskOperationException.class)
+    public ResponseEntity<byte[]> handleTaskOperation(TaskOperationException ex) {
+        log.warn("Task operation failed: {}", ex.getMessage(), ex);
+        return buildError(ex.getErrorCode());
     }
 
-    @ExceptionHandler(UserAlreadyExistsException.class)
-    public ResponseEntity<Map<String, Object>> handleUserAlreadyExists(UserAlreadyExistsException ex) {
-        return buildError(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<byte[]> handleInvalidRequest(InvalidRequestException ex) {
+        ErrorCode code = ex.getErrorCode();
+        return status(code.status()).body(code.body(ex.getMessage()));
     }
 
-    @ExceptionHandler(InvalidCredentialsException.class)
-    public ResponseEntity<Map<String, Object>> handleInvalidCredentials(InvalidCredentialsException ex) {
-        return buildError(ex.getMessage(), HttpStatus.UNAUTHORIZED);
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<byte[]> handleApiException(ApiException ex) {
+        return buildError(ex.getErrorCode());
     }
 
-    @ExceptionHandler(UserNotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleUserNotFound(UserNotFoundException ex) {
-        return buildError(ex.getMessage(), HttpStatus.NOT_FOUND);
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<byte[]> handleInvalidArgument(MethodArgumentNotValidException ex) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (FieldError error : ex.getBindingResult().getFieldErrors()) {
+            fields.putIfAbsent(error.getField(), String.valueOf(error.getDefaultMessage()));
+        }
+        for (ObjectError error : ex.getBindingResult().getGlobalErrors()) {
+            fields.putIfAbsent(error.getObjectName(), String.valueOf(error.getDefaultMessage()));
+        }
+        return buildError(ErrorCode.VALIDATION_FAILED, fields);
     }
 
-    @ExceptionHandler(RuntimeException.class)
-    public ResponseEntity<Map<String, Object>> handleRuntimeException(RuntimeException ex) {
-        String msg = ex.getMessage() != null ? ex.getMessage().toLowerCase() : "";
-
-        if (msg.contains("not found")) {
-            return buildError(ex.getMessage(), HttpStatus.NOT_FOUND);
-        } else if (msg.contains("invalid") || msg.contains("unauthorized")) {
-            // Login failure
-            return buildError(ex.getMessage(), HttpStatus.UNAUTHORIZED);
-        } else if (
-                msg.contains("exists") ||
-                msg.contains("failed") ||
-                msg.contains("db down") ||
-                msg.contains("db failure") ||
-                msg.contains("internal server error") ||
-                msg.contains("logout failed") ||
-                msg.contains("username already exists")
-        ) {
-            // Map all DB or process errors to 400
-            return buildError(ex.getMessage(), HttpStatus.BAD_REQUEST);
-        } else {
-            // Anything else becomes 500
-            return buildError("Internal server error", HttpStatus.INTERNAL_SERVER_ERROR);
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<byte[]> handleConstraintViolation(ConstraintViolationException ex) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        if (ex.getConstraintViolations() != null) {
+            for (ConstraintViolation<?> violation : ex.getConstraintViolations()) {
+                fields.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+            }
         }
+        return buildError(ErrorCode.VALIDATION_FAILED, fields);
+    }
+
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<byte[]> handleMissingParameter(MissingServletRequestParameterException ex) {
+        return buildError(ErrorCode.MALFORMED_REQUEST, Map.of(ex.getParameterName(), "is required"));
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<byte[]> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return buildError(ErrorCode.MALFORMED_REQUEST, Map.of(ex.getName(), "has an invalid value"));
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<byte[]> handleUnreadableBody(HttpMessageNotReadableException ex) {
+        return buildError(ErrorCode.MALFORMED_REQUEST);
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
-        return buildError("Unexpected error occurred", HttpStatus.INTERNAL_SERVER_ERROR);
+    public ResponseEntity<byte[]> handleGenericException(Exception ex) {
+        // Spring MVC's own exceptions (unknown route, wrong method, ...) carry their status
+        if (ex instanceof ErrorResponse errorResponse) {
+            HttpStatus status = HttpStatus.valueOf(errorResponse.getStatusCode().value());
+            return status(status).body(ErrorCode.encode(status, status.name(), status.getReasonPhrase()));
+        }
+        log.error("Unhandled exception", ex);
+        return buildError(ErrorCode.INTERNAL_ERROR);
     }
 }
@@ -1,7 +1,7 @@
 package com.example.taskManager.exception;
 
-public class InvalidCredentialsException extends RuntimeException {
+public class InvalidCredentialsException extends ApiException {
     public InvalidCredentialsException(String message) {
-        super(message);
+        super(ErrorCode.INVALID_CREDENTIALS, message);
     }
 }
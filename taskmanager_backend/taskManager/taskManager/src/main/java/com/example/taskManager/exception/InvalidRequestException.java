@@ -0,0 +1,11 @@
+package com.example.taskManager.exception;
+
+/**
+ * Thrown for a request parameter the client got wrong, such as a pagination
+ * cursor, a page limit or an export format.
+ */
+public class InvalidRequestException extends ApiException {
+    public InvalidRequestException(ErrorCode errorCode, String message) {
+        super(errorCode, message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.taskManager.exception;
+
+/**
+ * Thrown when a bounded resource is saturated and the client should retry later.
+ */
+public class ServiceBusyException extends ApiException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(ErrorCode.SERVICE_BUSY, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.taskManager.exception;
 
-public class TaskNotFoundException extends RuntimeException {
+public class TaskNotFoundException extends ApiException {
     public TaskNotFoundException(String message) {
-        super(message);
+        super(ErrorCode.TASK_NOT_FOUND, message);
     }
 }
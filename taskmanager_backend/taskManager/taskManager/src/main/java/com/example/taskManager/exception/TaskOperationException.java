@@ -1,7 +1,16 @@
 package com.example.taskManager.exception;
 
-public class TaskOperationException extends RuntimeException {
+/**
+ * Wraps a persistence failure. Unlike the other API exceptions this one keeps
+ * its stack trace and the underlying cause, since it signals a real fault
+ * rather than a client mistake.
+ */
+public class TaskOperationException extends ApiException {
     public TaskOperationException(String message) {
-        super(message);
+        super(ErrorCode.TASK_OPERATION_FAILED, message, true);
+    }
+
+    public TaskOperationException(String message, Throwable cause) {
+        super(ErrorCode.TASK_OPERATION_FAILED, message, cause, true);
     }
 }
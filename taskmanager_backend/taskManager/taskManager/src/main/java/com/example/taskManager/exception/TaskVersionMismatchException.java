@@ -0,0 +1,10 @@
+package com.example.taskManager.exception;
+
+/**
+ * Thrown when a conditional write names a task version that is no longer current.
+ */
+public class TaskVersionMismatchException extends ApiException {
+    public TaskVersionMismatchException(String message) {
+        super(ErrorCode.TASK_VERSION_MISMATCH, message);
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.taskManager.exception;
 
-public class UserNotFoundException extends RuntimeException {
+public class UserNotFoundException extends ApiException {
     public UserNotFoundException(String message) {
-        super(message);
+        super(ErrorCode.USER_NOT_FOUND, message);
     }
 }
@@ -0,0 +1,98 @@
+package com.example.taskManager.logging;
+
+import com.example.taskManager.config.AccessLogProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes one parameterized line per request to the {@code access} logger:
+ * method, path, status and elapsed milliseconds. Server errors, other failed
+ * requests and slow requests are always logged, except fast 401s, which are
+ * rate-limited by a {@link LogSampler} and report how many were left out.
+ * Other requests are logged with probability {@code access-log.sample-rate}.
+ * Nothing is formatted when the logger is off.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("access");
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final LogSampler unauthorizedSampler;
+
+    @Autowired
+    public AccessLogFilter(AccessLogProperties properties) {
+        this(properties.isEnabled(), properties.getSampleRate(), properties.getSlowThreshold(),
+                new LogSampler(properties.getUnauthorizedPerMinute(), Duration.ofMinutes(1)));
+    }
+
+    public AccessLogFilter(boolean enabled, double sampleRate, Duration slowThreshold,
+                           LogSampler unauthorizedSampler) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.unauthorizedSampler = unauthorizedSampler;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !accessLog.isInfoEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            int status = response.getStatus();
+            boolean slow = elapsed >= slowThresholdNanos;
+            if (status == HttpServletResponse.SC_UNAUTHORIZED && !slow) {
+                logUnauthorized(request, elapsed);
+            } else if (status >= 400 || slow || sampled()) {
+                accessLog.info("{} {} {} {}ms", request.getMethod(), request.getRequestURI(), status,
+                        TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        }
+    }
+
+    private void logUnauthorized(HttpServletRequest request, long elapsed) {
+        if (!unauthorizedSampler.tryAcquire()) {
+            return;
+        }
+        long suppressed = unauthorizedSampler.takeSuppressed();
+        if (suppressed == 0) {
+            accessLog.info("{} {} {} {}ms", request.getMethod(), request.getRequestURI(),
+                    HttpServletResponse.SC_UNAUTHORIZED, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } else {
+            accessLog.info("{} {} {} {}ms ({} similar 401s not logged)", request.getMethod(),
+                    request.getRequestURI(), HttpServletResponse.SC_UNAUTHORIZED,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), suppressed);
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
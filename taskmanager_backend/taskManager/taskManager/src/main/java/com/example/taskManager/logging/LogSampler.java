@@ -0,0 +1,56 @@
+package com.example.taskManager.logging;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets through at most {@code permitsPerWindow} log lines per fixed window and
+ * counts the rest, so a message an attacker can trigger at request rate cannot
+ * flood the log. Callers include {@link #takeSuppressed()} in the next line they
+ * are allowed to write.
+ */
+public class LogSampler {
+
+    private final int permitsPerWindow;
+    private final long windowMillis;
+    private final Clock clock;
+
+    private final AtomicLong windowStart;
+    private final AtomicLong used = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogSampler(int permitsPerWindow, Duration window) {
+        this(permitsPerWindow, window, Clock.systemUTC());
+    }
+
+    public LogSampler(int permitsPerWindow, Duration window, Clock clock) {
+        this.permitsPerWindow = permitsPerWindow;
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+        this.windowStart = new AtomicLong(clock.millis());
+    }
+
+    /**
+     * Returns true if the caller may log now; otherwise records one suppressed line.
+     */
+    public boolean tryAcquire() {
+        long now = clock.millis();
+        long start = windowStart.get();
+        if (now - start >= windowMillis && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() <= permitsPerWindow) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Returns how many lines were suppressed since the last call and resets the count.
+     */
+    public long takeSuppressed() {
+        return suppressed.getAndSet(0);
+    }
+}
@@ -1,29 +1,52 @@
 package com.example.taskManager.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_task_user_id_id", columnList = "user_id, id"),
+        @Index(name = "idx_task_user_completed_id", columnList = "user_id, completed, id"),
+        @Index(name = "idx_task_user_title_id", columnList = "user_id, title, id")
+})
 @Getter
 @Setter
 @ToString
 public class Task {
 
+    /**
+     * Drawn from a sequence in blocks of 50, so inserts can be batched:
+     * IDENTITY would need a round trip per row to learn each generated key.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;  // Follow naming convention (lowercase 'i')
 
     @NotBlank(message = "Title is required")
     private String title;
 
+    @Column(length = 65_535)
+    @Size(max = 65_535, message = "Description is too long")
     private String description;
 
     private boolean completed = false;
 
+    /**
+     * Incremented by every write, including the query-based ones, which bump it
+     * explicitly. Sent to clients as the task's ETag; a version in the request
+     * body is ignored.
+     */
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
     /**
      * Each task belongs to a single user.
      * This prevents users from accessing others' tasks.
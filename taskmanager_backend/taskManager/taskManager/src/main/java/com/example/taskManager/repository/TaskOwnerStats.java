@@ -0,0 +1,7 @@
+package com.example.taskManager.repository;
+
+/**
+ * How many tasks one user has, and the sums of their ids and versions.
+ */
+public record TaskOwnerStats(Long userId, long count, long idSum, long versionSum) {
+}
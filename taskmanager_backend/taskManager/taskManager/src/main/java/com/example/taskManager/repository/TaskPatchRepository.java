@@ -0,0 +1,17 @@
+package com.example.taskManager.repository;
+
+import com.example.taskManager.dto.TaskPatch;
+
+/**
+ * Partial updates whose SET clause depends on the request, so they cannot be a
+ * fixed {@code @Query}. Implemented by {@link TaskPatchRepositoryImpl}.
+ */
+public interface TaskPatchRepository {
+
+    /**
+     * Writes only the patched columns of a task, and bumps its version, if it
+     * belongs to the user and, when {@code version} is not null, is still at that
+     * version, in one UPDATE. Returns 1 if it was updated, 0 otherwise.
+     */
+    int patchByIdAndUserId(Long id, Long userId, Long version, TaskPatch patch);
+}
@@ -0,0 +1,53 @@
+package com.example.taskManager.repository;
+
+import com.example.taskManager.dto.TaskPatch;
+import com.example.taskManager.model.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class TaskPatchRepositoryImpl implements TaskPatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Builds the SET clause from the patch, so {@code {"completed":true}} becomes
+     * {@code update task set completed=?,version=version+1 where id=? and user_id=?}
+     * and a large description is neither sent back to the database nor rewritten.
+     */
+    @Override
+    @Transactional
+    public int patchByIdAndUserId(Long id, Long userId, Long version, TaskPatch patch) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> task = update.from(Task.class);
+        for (Map.Entry<String, Object> change : patch.changes().entrySet()) {
+            update.set(task.get(change.getKey()), change.getValue());
+        }
+        Path<Long> currentVersion = task.get("version");
+        update.set(currentVersion, cb.sum(currentVersion, 1L));
+
+        List<Predicate> where = new ArrayList<>(3);
+        where.add(cb.equal(task.get("id"), id));
+        where.add(cb.equal(task.get("user").get("id"), userId));
+        if (version != null) {
+            where.add(cb.equal(currentVersion, version));
+        }
+        update.where(where.toArray(Predicate[]::new));
+
+        int updated = entityManager.createQuery(update).executeUpdate();
+        // Same as clearAutomatically on the @Modifying queries: drop entities the UPDATE made stale
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -1,23 +1,131 @@
 package com.example.taskManager.repository;
 
 import com.example.taskManager.model.Task;
+import com.example.taskManager.search.TaskText;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Task listings are keyset-paginated through {@link TaskSpecifications} and the
+ * {@link JpaSpecificationExecutor} fluent query API. Partial updates come from
+ * the {@link TaskPatchRepository} fragment.
+ */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>,
+        TaskPatchRepository {
+
+    /**
+     * All of the user's tasks in id order as a lazily fetched stream, for exports.
+     * Rows arrive from the driver in batches of the fetch size and are loaded
+     * read-only (no dirty-checking snapshots). Must be consumed and closed
+     * inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Task t where t.user.id = :userId order by t.id")
+    Stream<Task> streamByUserId(@Param("userId") Long userId);
 
     /**
-     * Fetch all tasks belonging to a specific user.
+     * Id, owner and text of every task, without loading entities, for building
+     * the search index. Must be consumed and closed inside a transaction.
      */
-    List<Task> findByUserUsername(String username);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.taskManager.search.TaskText(t.id, t.user.id, t.title, t.description) from Task t")
+    Stream<TaskText> streamTaskText();
+
+    /**
+     * Per-user task count and id and version sums, in one grouped scan, for
+     * seeding the task list versions.
+     */
+    @Query("select new com.example.taskManager.repository.TaskOwnerStats("
+            + "t.user.id, count(t), sum(t.id), sum(t.version)) from Task t group by t.user.id")
+    List<TaskOwnerStats> findOwnerStats();
+
+    /**
+     * The user's tasks among the given ids, for loading search hits.
+     */
+    List<Task> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    /**
+     * Overwrites a task's fields if it exists, belongs to the user and, when
+     * {@code version} is not null, is still at that version, in one UPDATE that
+     * also bumps the version. Returns 1 if it was updated, 0 otherwise.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.title = :title, t.description = :description, t.completed = :completed, "
+            + "t.version = t.version + 1 "
+            + "where t.id = :id and t.user.id = :userId and (:version is null or t.version = :version)")
+    int updateByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId, @Param("version") Long version,
+                            @Param("title") String title, @Param("description") String description,
+                            @Param("completed") boolean completed);
+
+    /**
+     * Deletes a task if it belongs to the user and, when {@code version} is not
+     * null, is still at that version, in one DELETE. Returns the number of rows removed.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Task t "
+            + "where t.id = :id and t.user.id = :userId and (:version is null or t.version = :version)")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId, @Param("version") Long version);
+
+    /**
+     * Sets the completed flag on the listed tasks the user owns, in one UPDATE.
+     * Ids of other users' tasks are ignored; the result counts rows changed.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.completed = :completed, t.version = t.version + 1 "
+            + "where t.user.id = :userId and t.id in :ids")
+    int updateCompletedByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+                             @Param("completed") boolean completed);
+
+    /**
+     * Sets the completed flag on all of the user's tasks whose flag is currently
+     * {@code current} (all of them when null), in one UPDATE.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.completed = :completed, t.version = t.version + 1 "
+            + "where t.user.id = :userId and (:current is null or t.completed = :current)")
+    int updateCompletedWhere(@Param("userId") Long userId, @Param("current") Boolean current,
+                             @Param("completed") boolean completed);
+
+    /**
+     * Ids of the user's tasks whose completed flag is {@code completed} (all when null).
+     */
+    @Query("select t.id from Task t where t.user.id = :userId and (:completed is null or t.completed = :completed)")
+    List<Long> findIdsWhere(@Param("userId") Long userId, @Param("completed") Boolean completed);
+
+    /**
+     * The current version of a task the user owns, without loading the task.
+     */
+    @Query("select t.version from Task t where t.id = :id and t.user.id = :userId")
+    Optional<Long> findVersionByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
 
     /**
-     * Fetch a single task by its ID and the username of the owner.
+     * Fetch a single task by its ID and the ID of the owner.
      * Prevents users from accessing others' tasks by ID.
      */
-    Optional<Task> findByIdAndUserUsername(Long id, String username);
+    Optional<Task> findByIdAndUserId(Long id, Long userId);
 }
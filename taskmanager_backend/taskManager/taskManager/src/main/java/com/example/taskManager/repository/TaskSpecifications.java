@@ -0,0 +1,90 @@
+package com.example.taskManager.repository;
+
+import com.example.taskManager.dto.TaskCursor;
+import com.example.taskManager.dto.TaskQuery;
+import com.example.taskManager.model.Task;
+import com.example.taskManager.search.SearchQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Criteria for keyset-paginated task listings. Each combination of filter and
+ * order is answered from one of the composite indexes on task:
+ * (user_id, id), (user_id, completed, id) and (user_id, title, id).
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    /**
+     * The user's tasks matching the query's filter that sort after the cursor (all of them
+     * when the cursor is null).
+     */
+    public static Specification<Task> page(Long userId, TaskQuery query, TaskCursor after) {
+        return (root, criteriaQuery, cb) -> {
+            List<Predicate> predicates = new ArrayList<>(3);
+            // user.id is the foreign key column, so no join with users is needed
+            predicates.add(cb.equal(root.get("user").get("id"), userId));
+            if (query.completed() != null) {
+                predicates.add(cb.equal(root.get("completed"), query.completed()));
+            }
+            if (after != null) {
+                predicates.add(after(cb, root.get("id"), root.get("title"), query, after));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Ordering matching {@link #page}: the sort field, then id as a tie-breaker, same direction.
+     */
+    public static Sort order(TaskQuery query) {
+        Sort.Direction direction = query.descending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort byId = Sort.by(direction, "id");
+        return query.sortField() == TaskQuery.SortField.TITLE
+                ? Sort.by(direction, "title").and(byId)
+                : byId;
+    }
+
+    /**
+     * The user's tasks whose title or description contains every word of the
+     * query as a substring. Used only while the search index is being built; it
+     * scans the user's rows and can match inside words, so callers re-check hits.
+     */
+    public static Specification<Task> containing(Long userId, SearchQuery query) {
+        return (root, criteriaQuery, cb) -> {
+            Expression<String> title = cb.lower(root.get("title"));
+            Expression<String> description = cb.lower(root.get("description"));
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("user").get("id"), userId));
+            // Tokens are letters and digits only, so they never contain LIKE wildcards
+            Stream.concat(query.terms().stream(), query.prefixes().stream()).forEach(word ->
+                    predicates.add(cb.or(cb.like(title, "%" + word + "%"), cb.like(description, "%" + word + "%"))));
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static Predicate after(CriteriaBuilder cb, Path<Long> id, Path<String> title,
+                                   TaskQuery query, TaskCursor cursor) {
+        Predicate idAfter = query.descending()
+                ? cb.lessThan(id, cursor.lastId())
+                : cb.greaterThan(id, cursor.lastId());
+        if (query.sortField() == TaskQuery.SortField.ID) {
+            return idAfter;
+        }
+        // (title, id) > (lastTitle, lastId), or < when descending
+        Predicate titleAfter = query.descending()
+                ? cb.lessThan(title, cursor.lastTitle())
+                : cb.greaterThan(title, cursor.lastTitle());
+        return cb.or(titleAfter, cb.and(cb.equal(title, cursor.lastTitle()), idAfter));
+    }
+}
@@ -1,10 +1,21 @@
 package com.example.taskManager.repository;
 
 import com.example.taskManager.model.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -19,4 +30,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Used during registration to prevent duplicates.
      */
     boolean existsByUsername(String username);
+
+    /**
+     * Streams every username without loading User entities.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.username from User u")
+    Stream<String> streamAllUsernames();
+
+    /**
+     * Usernames currently flagged as logged in.
+     * Read once at startup to seed the in-memory login state.
+     */
+    @Query("select u.username from User u where u.loggedIn = true")
+    List<String> findLoggedInUsernames();
+
+    /**
+     * Sets the logged-in flag for a batch of users in a single UPDATE.
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.loggedIn = :loggedIn where u.username in :usernames")
+    int updateLoggedIn(@Param("usernames") Collection<String> usernames, @Param("loggedIn") boolean loggedIn);
 }
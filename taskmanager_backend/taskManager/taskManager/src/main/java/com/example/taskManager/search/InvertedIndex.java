@@ -0,0 +1,333 @@
+package com.example.taskManager.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory inverted index from tokens to document ids, partitioned by owner.
+ * Each token's postings are a sorted {@code long[]}, so term lookups are one map
+ * probe, prefix lookups are a range of the sorted token map, and conjunctions are
+ * answered by walking the most selective condition from its highest id and
+ * checking the others until enough matches are found.
+ *
+ * Each partition also keeps every document's own token list. That lets a
+ * candidate be checked against a broad prefix by looking at its handful of
+ * tokens instead of thousands of posting lists, and lets a document be
+ * re-indexed or removed without knowing its previous text.
+ *
+ * Every partition has its own lock; owners never contend with each other.
+ */
+public class InvertedIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final ConcurrentHashMap<Long, Partition> partitions = new ConcurrentHashMap<>();
+    private final LongAdder postings = new LongAdder();
+
+    /**
+     * Indexes a document under the given tokens, replacing whatever it was indexed under before.
+     */
+    public void put(Long ownerId, long docId, Collection<String> tokens) {
+        Partition partition = partitions.computeIfAbsent(ownerId, id -> new Partition());
+        postings.add(partition.put(docId, tokens, true));
+    }
+
+    /**
+     * Indexes a document only if it is not indexed yet, so a bulk load never
+     * overwrites a newer write that got there first.
+     */
+    public void putIfAbsent(Long ownerId, long docId, Collection<String> tokens) {
+        Partition partition = partitions.computeIfAbsent(ownerId, id -> new Partition());
+        postings.add(partition.put(docId, tokens, false));
+    }
+
+    public void remove(Long ownerId, long docId) {
+        Partition partition = partitions.get(ownerId);
+        if (partition != null) {
+            postings.add(-partition.remove(docId));
+        }
+    }
+
+    /**
+     * Ids of the owner's documents that match the query, highest id first, at most {@code limit}.
+     */
+    public long[] search(Long ownerId, SearchQuery query, int limit) {
+        Partition partition = partitions.get(ownerId);
+        if (partition == null || query.isEmpty() || limit <= 0) {
+            return EMPTY;
+        }
+        return partition.search(query, limit);
+    }
+
+    public void clear() {
+        partitions.clear();
+        postings.reset();
+    }
+
+    public int ownerCount() {
+        return partitions.size();
+    }
+
+    public long postingCount() {
+        return postings.sum();
+    }
+
+    /**
+     * Sorted, duplicate-free ids of one token, grown in place. Ids usually
+     * arrive in ascending order, so inserts are almost always appends.
+     */
+    private static final class Postings {
+
+        // Shared by every document's token list, so each token string is held once
+        private final String token;
+        private long[] ids = new long[4];
+        private int size;
+
+        Postings(String token) {
+            this.token = token;
+        }
+
+        void add(long id) {
+            int at = size > 0 && ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                at = -at - 1;
+            } else if (at < size) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+                size--;
+            }
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+
+    /**
+     * One query word: a single token's postings, or for a prefix the postings of
+     * every token that starts with it.
+     */
+    private record Condition(String prefix, Postings[] lists, long size) {
+
+        static Condition of(String prefix, Postings[] lists) {
+            long size = 0;
+            for (Postings list : lists) {
+                size += list.size;
+            }
+            return new Condition(prefix, lists, size);
+        }
+
+        boolean matches(long id, String[] docTokens) {
+            if (prefix == null) {
+                return lists[0].contains(id);
+            }
+            for (String token : docTokens) {
+                if (token.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Partition {
+
+        private final TreeMap<String, Postings> tokens = new TreeMap<>();
+        private final HashMap<Long, String[]> documents = new HashMap<>();
+
+        /**
+         * Returns the change in the number of postings.
+         */
+        synchronized int put(long docId, Collection<String> docTokens, boolean replace) {
+            if (!replace && documents.containsKey(docId)) {
+                return 0;
+            }
+            int removed = remove(docId);
+            if (docTokens.isEmpty()) {
+                return -removed;
+            }
+            String[] stored = new String[docTokens.size()];
+            int n = 0;
+            for (String token : docTokens) {
+                Postings list = tokens.computeIfAbsent(token, Postings::new);
+                list.add(docId);
+                stored[n++] = list.token;
+            }
+            documents.put(docId, stored);
+            return n - removed;
+        }
+
+        /**
+         * Returns the number of postings removed.
+         */
+        synchronized int remove(long docId) {
+            String[] docTokens = documents.remove(docId);
+            if (docTokens == null) {
+                return 0;
+            }
+            for (String token : docTokens) {
+                Postings list = tokens.get(token);
+                if (list != null) {
+                    list.remove(docId);
+                    if (list.size == 0) {
+                        tokens.remove(token);
+                    }
+                }
+            }
+            return docTokens.length;
+        }
+
+        synchronized long[] search(SearchQuery query, int limit) {
+            List<Condition> conditions = new ArrayList<>(query.terms().size() + query.prefixes().size());
+            for (String term : query.terms()) {
+                Postings list = tokens.get(term);
+                if (list == null) {
+                    return EMPTY;
+                }
+                conditions.add(Condition.of(null, new Postings[]{list}));
+            }
+            for (String prefix : query.prefixes()) {
+                Postings[] lists = startingWith(prefix);
+                if (lists.length == 0) {
+                    return EMPTY;
+                }
+                conditions.add(Condition.of(prefix, lists));
+            }
+
+            Condition driver = conditions.get(0);
+            for (Condition condition : conditions) {
+                if (condition.size() < driver.size()) {
+                    driver = condition;
+                }
+            }
+
+            long[] result = new long[(int) Math.min(limit, driver.size())];
+            int found = 0;
+            DescendingIds candidates = new DescendingIds(driver.lists());
+            for (long id = candidates.next(); id >= 0 && found < result.length; id = candidates.next()) {
+                if (matchesAll(conditions, driver, id)) {
+                    result[found++] = id;
+                }
+            }
+            return found == result.length ? result : Arrays.copyOf(result, found);
+        }
+
+        private Postings[] startingWith(String prefix) {
+            List<Postings> lists = new ArrayList<>();
+            for (Map.Entry<String, Postings> entry : tokens.tailMap(prefix, true).entrySet()) {
+                if (!entry.getKey().startsWith(prefix)) {
+                    break;
+                }
+                lists.add(entry.getValue());
+            }
+            return lists.toArray(Postings[]::new);
+        }
+
+        private boolean matchesAll(List<Condition> conditions, Condition skip, long id) {
+            if (conditions.size() == 1) {
+                return true;
+            }
+            String[] docTokens = documents.get(id);
+            for (Condition condition : conditions) {
+                if (condition != skip && !condition.matches(id, docTokens)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Distinct ids of several sorted lists, highest first, produced lazily by a
+     * k-way merge from the lists' ends. A broad prefix can match thousands of
+     * tokens; merging only as far as the first {@code limit} hits avoids building
+     * their full union.
+     */
+    private static final class DescendingIds {
+
+        private final Postings[] lists;
+        private final int[] positions;
+        // Max-heap of list indexes, keyed by each list's current id
+        private final int[] heap;
+        private int heapSize;
+        private long last = -1;
+
+        DescendingIds(Postings[] lists) {
+            this.lists = lists;
+            this.positions = new int[lists.length];
+            this.heap = new int[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                positions[i] = lists[i].size - 1;
+                if (positions[i] >= 0) {
+                    heap[heapSize++] = i;
+                }
+            }
+            for (int i = heapSize / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        /**
+         * The next lower id, or -1 when all lists are exhausted.
+         */
+        long next() {
+            while (heapSize > 0) {
+                int top = heap[0];
+                long id = current(top);
+                if (--positions[top] < 0) {
+                    heap[0] = heap[--heapSize];
+                }
+                siftDown(0);
+                if (id != last) {
+                    last = id;
+                    return id;
+                }
+            }
+            return -1;
+        }
+
+        private long current(int list) {
+            return lists[list].ids[positions[list]];
+        }
+
+        private void siftDown(int at) {
+            while (true) {
+                int largest = at;
+                int left = 2 * at + 1;
+                int right = left + 1;
+                if (left < heapSize && current(heap[left]) > current(heap[largest])) {
+                    largest = left;
+                }
+                if (right < heapSize && current(heap[right]) > current(heap[largest])) {
+                    largest = right;
+                }
+                if (largest == at) {
+                    return;
+                }
+                int swap = heap[at];
+                heap[at] = heap[largest];
+                heap[largest] = swap;
+                at = largest;
+            }
+        }
+    }
+}
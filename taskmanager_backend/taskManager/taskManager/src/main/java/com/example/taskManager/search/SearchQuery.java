@@ -0,0 +1,77 @@
+package com.example.taskManager.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A parsed search string. Every word must appear as a whole token in the task's
+ * title or description; a word ending in {@code *} only needs to start a token.
+ * Text is split into tokens the same way for indexing and for queries: lower-cased,
+ * breaking on anything that is not a letter or digit.
+ */
+public record SearchQuery(Set<String> terms, Set<String> prefixes) {
+
+    public static SearchQuery parse(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        Set<String> prefixes = new LinkedHashSet<>();
+        if (query != null) {
+            for (String word : query.trim().split("\\s+")) {
+                Set<String> tokens = tokenize(word);
+                if (word.endsWith("*") && !tokens.isEmpty()) {
+                    String last = null;
+                    for (String token : tokens) {
+                        last = token;
+                    }
+                    tokens.remove(last);
+                    prefixes.add(last);
+                }
+                terms.addAll(tokens);
+            }
+        }
+        return new SearchQuery(Set.copyOf(terms), Set.copyOf(prefixes));
+    }
+
+    public boolean isEmpty() {
+        return terms.isEmpty() && prefixes.isEmpty();
+    }
+
+    /**
+     * True if the texts, taken together, contain every term and some token for every prefix.
+     */
+    public boolean matches(String... texts) {
+        Set<String> tokens = tokenize(texts);
+        if (!tokens.containsAll(terms)) {
+            return false;
+        }
+        for (String prefix : prefixes) {
+            if (tokens.stream().noneMatch(token -> token.startsWith(prefix))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Distinct lower-case tokens of the given texts; null texts are skipped.
+     */
+    public static Set<String> tokenize(String... texts) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            int start = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+                if (wordChar && start < 0) {
+                    start = i;
+                } else if (!wordChar && start >= 0) {
+                    tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                    start = -1;
+                }
+            }
+        }
+        return tokens;
+    }
+}
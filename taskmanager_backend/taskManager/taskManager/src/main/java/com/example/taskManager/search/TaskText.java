@@ -0,0 +1,7 @@
+package com.example.taskManager.search;
+
+/**
+ * The searchable columns of one task, read by the startup scan that fills the search index.
+ */
+public record TaskText(Long id, Long userId, String title, String description) {
+}
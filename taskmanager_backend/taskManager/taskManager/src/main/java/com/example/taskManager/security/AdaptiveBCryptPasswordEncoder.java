@@ -0,0 +1,77 @@
+package com.example.taskManager.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder that treats any stored hash whose cost differs from the
+ * configured strength as needing re-encoding, in either direction, so
+ * existing hashes converge on the current target after the next login.
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abyx]?\\$(\\d\\d)\\$");
+    private static final int MIN_STRENGTH = 4;
+    private static final int MAX_STRENGTH = 16;
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private final int strength;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return !matcher.find() || Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    /**
+     * Picks the highest BCrypt cost whose hash time stays within the target on this
+     * machine. Each cost step doubles the work, so the search stops at the first
+     * cost that is too slow. The result never drops below {@code floor}.
+     */
+    public static int calibrate(Duration targetHashTime, int floor) {
+        int lower = Math.max(MIN_STRENGTH, floor);
+        new BCryptPasswordEncoder(MIN_STRENGTH).encode(CALIBRATION_PASSWORD); // warm up
+
+        int chosen = lower;
+        for (int cost = lower; cost <= MAX_STRENGTH; cost++) {
+            long nanos = timeHash(cost);
+            if (nanos > targetHashTime.toNanos()) {
+                break;
+            }
+            chosen = cost;
+        }
+
+        log.info("Calibrated BCrypt strength {} for a target of {} ms per hash", chosen, targetHashTime.toMillis());
+        return chosen;
+    }
+
+    private static long timeHash(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
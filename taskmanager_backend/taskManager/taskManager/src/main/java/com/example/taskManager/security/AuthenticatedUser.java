@@ -0,0 +1,8 @@
+package com.example.taskManager.security;
+
+/**
+ * Id and username of the user behind the current request, taken from the
+ * principal the JWT filter already loaded.
+ */
+public record AuthenticatedUser(Long id, String username) {
+}
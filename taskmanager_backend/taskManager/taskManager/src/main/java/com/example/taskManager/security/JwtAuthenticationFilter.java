@@ -1,5 +1,6 @@
 package com.example.taskManager.security;
 
+import com.example.taskManager.exception.ErrorCode;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +10,8 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -17,12 +20,32 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /**
+     * The one auth endpoint that acts on the caller, so it needs the caller's token.
+     */
+    public static final String LOGOUT_PATH = "/api/auth/logout";
+
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
-
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final TokenRenewer tokenRenewer;
+    private final TokenRejectionTracker rejectionTracker;
+    // Keeps the authentication on the request, so async dispatches of a streamed response stay authorized
+    private final SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil,
+                                   UserDetailsService userDetailsService,
+                                   VerifiedTokenCache verifiedTokenCache,
+                                   TokenRevocationList tokenRevocationList,
+                                   TokenRenewer tokenRenewer,
+                                   TokenRejectionTracker rejectionTracker) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationList = tokenRevocationList;
+        this.tokenRenewer = tokenRenewer;
+        this.rejectionTracker = rejectionTracker;
     }
 
     @Override
@@ -40,7 +63,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         // Skip public endpoints
-        if (path.startsWith("/api/auth")
+        if ((path.startsWith("/api/auth") && !path.equals(LOGOUT_PATH))
                 || path.startsWith("/h2-console")
                 || path.startsWith("/actuator")     // <-- Important for health checks & metrics
                 || path.equals("/error")) {
@@ -52,44 +75,58 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Check Authorization header for protected endpoints
         final String header = request.getHeader("Authorization");
         if (header == null || !header.startsWith("Bearer ")) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.getWriter().write("{\"error\":\"Missing or invalid Authorization header\"}");
+            ErrorCode.TOKEN_MISSING.writeTo(response);
             return;
         }
 
         final String token = header.substring(7);
-        final String username;
+        final VerifiedToken verified;
 
+        // Parse and verify the token once (or reuse a cached result, good or bad); expiry is checked by the parser
         try {
-            username = jwtUtil.extractUsername(token);
+            verified = verifiedTokenCache.verify(token, jwtUtil::verify);
         } catch (Exception e) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.getWriter().write("{\"error\":\"Invalid or malformed JWT\"}");
+            // The forwarded client address when behind the proxy (server.forward-headers-strategy)
+            rejectionTracker.record(request.getRemoteAddr());
+            ErrorCode.TOKEN_INVALID.writeTo(response);
+            return;
+        }
+
+        // Tokens issued before the user's last logout
+        if (tokenRevocationList.isRevoked(verified)) {
+            ErrorCode.TOKEN_REVOKED.writeTo(response);
             return;
         }
 
-        // Validate token and load user
+        final String username = verified.subject();
+
+        // Load user for the already verified subject
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
-                if (jwtUtil.validateToken(token, userDetails.getUsername())) {
+                if (username.equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails, null, userDetails.getAuthorities());
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    securityContextRepository.saveContext(SecurityContextHolder.getContext(), request, response);
                 } else {
-                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                    response.getWriter().write("{\"error\":\"Expired or invalid token\"}");
+                    ErrorCode.TOKEN_EXPIRED.writeTo(response);
                     return;
                 }
             } catch (Exception e) {
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                response.getWriter().write("{\"error\":\"User authentication failed\"}");
+                ErrorCode.AUTHENTICATION_FAILED.writeTo(response);
                 return;
             }
         }
 
+        // Hand out a fresh token before this one gets close to expiry
+        String renewed = tokenRenewer.renewIfDue(verified);
+        if (renewed != null) {
+            response.setHeader(TokenRenewer.RENEWED_TOKEN_HEADER, renewed);
+        }
+
         filterChain.doFilter(request, response);
     }
 
@@ -1,38 +1,97 @@
 package com.example.taskManager.security;
 
+import com.example.taskManager.config.JwtProperties;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
-
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
-    private static final long EXPIRATION_TIME_MS = 1000L * 60 * 60; // 1 hour
+    private static final Duration DEFAULT_TOKEN_LIFETIME = Duration.ofHours(1);
+
+    /**
+     * Key and parser are built once; the jjwt parser is immutable and thread-safe.
+     */
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Duration tokenLifetime;
+    private final long jitterMillis;
+
+    @Autowired
+    public JwtUtil(JwtProperties jwtProperties) {
+        this(jwtProperties.getSecret(),
+                jwtProperties.getExpirationMs() != null
+                        ? Duration.ofMillis(jwtProperties.getExpirationMs())
+                        : DEFAULT_TOKEN_LIFETIME,
+                jwtProperties.getExpirationJitter());
+    }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+    public JwtUtil(String secretKey) {
+        this(secretKey, DEFAULT_TOKEN_LIFETIME, Duration.ZERO);
+    }
 
+    /**
+     * Jitter is capped at half the lifetime so no token is issued nearly expired.
+     */
+    public JwtUtil(String secretKey, Duration tokenLifetime, Duration expirationJitter) {
+        this.tokenLifetime = tokenLifetime;
+        this.jitterMillis = Math.min(Math.max(0, expirationJitter.toMillis()), tokenLifetime.toMillis() / 2);
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     // ----------------------------------------------------------------------
     // Token Generation
     // ----------------------------------------------------------------------
     public String generateToken(String username) {
+        return generateToken(username, Instant.now());
+    }
+
+    /**
+     * Issues a token with an explicit issued-at time, e.g. one pushed past a revocation watermark.
+     */
+    public String generateToken(String username, Instant issuedAt) {
         return Jwts.builder()
                 .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME_MS))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(Date.from(issuedAt))
+                .setExpiration(Date.from(issuedAt.plus(tokenLifetime).minusMillis(nextJitterMillis())))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    public Duration getTokenLifetime() {
+        return tokenLifetime;
+    }
+
+    // ----------------------------------------------------------------------
+    // Token Verification
+    // ----------------------------------------------------------------------
+
+    /**
+     * Parses and verifies the token exactly once.
+     * Throws {@link JwtException} if the signature, format or expiry is invalid.
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        if (claims.getExpiration() == null) {
+            throw new JwtException("Invalid or malformed token: missing expiration");
+        }
+        return new VerifiedToken(
+                claims.getSubject(),
+                toInstant(claims.getIssuedAt()),
+                claims.getExpiration().toInstant());
+    }
+
     // ----------------------------------------------------------------------
     // Token Extraction
     // ----------------------------------------------------------------------
@@ -41,15 +100,8 @@ public class JwtUtil {
     }
 
     public Claims extractAllClaims(String token) {
-        try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-        } catch (JwtException e) {
-            throw new JwtException("Invalid or malformed token: " + e.getMessage());
-        }
+        // Parser exceptions propagate as-is; re-wrapping would capture a second stack trace
+        return parser.parseClaimsJws(token).getBody();
     }
 
     // ----------------------------------------------------------------------
@@ -57,8 +109,7 @@ public class JwtUtil {
     // ----------------------------------------------------------------------
     public boolean validateToken(String token) {
         try {
-            Claims claims = extractAllClaims(token);
-            return claims.getExpiration().after(new Date());
+            return !verify(token).isExpired(Instant.now());
         } catch (Exception e) {
             return false;
         }
@@ -66,11 +117,18 @@ public class JwtUtil {
 
     public boolean validateToken(String token, String username) {
         try {
-            String extractedUsername = extractUsername(token);
-            Claims claims = extractAllClaims(token);
-            return extractedUsername.equals(username) && claims.getExpiration().after(new Date());
+            VerifiedToken verified = verify(token);
+            return verified.subject().equals(username) && !verified.isExpired(Instant.now());
         } catch (Exception e) {
             return false;
         }
     }
+
+    private long nextJitterMillis() {
+        return jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0;
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
 }
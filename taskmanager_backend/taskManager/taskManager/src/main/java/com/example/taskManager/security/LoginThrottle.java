@@ -0,0 +1,141 @@
+package com.example.taskManager.security;
+
+import com.example.taskManager.cache.StripedTokenBuckets;
+import com.example.taskManager.config.AuthProperties;
+import com.example.taskManager.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for the password-checking endpoints, applied before any
+ * hashing runs. Requests are charged against a per-client-IP bucket and, for
+ * login, a per-username bucket; admitted requests also hold one of a fixed
+ * number of in-flight permits until they finish.
+ */
+@Component
+public class LoginThrottle implements MeterBinder {
+
+    private static final String THROTTLED_MESSAGE = "Too many attempts, try again later";
+
+    private final boolean enabled;
+    private final StripedTokenBuckets usernameBuckets;
+    private final StripedTokenBuckets ipBuckets;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+
+    private final LongAdder rejectedByUsername = new LongAdder();
+    private final LongAdder rejectedByIp = new LongAdder();
+    private final LongAdder rejectedByConcurrency = new LongAdder();
+
+    @Autowired
+    public LoginThrottle(AuthProperties authProperties) {
+        this(authProperties.getThrottle(), Clock.systemUTC());
+    }
+
+    public LoginThrottle(AuthProperties.Throttle settings, Clock clock) {
+        this.enabled = settings.isEnabled();
+        this.usernameBuckets = new StripedTokenBuckets(settings.getUsernameCapacity(),
+                settings.getUsernameRefillPeriod(), settings.getMaxEntries(), settings.getStripes(), clock);
+        this.ipBuckets = new StripedTokenBuckets(settings.getIpCapacity(),
+                settings.getIpRefillPeriod(), settings.getMaxEntries(), settings.getStripes(), clock);
+        this.maxInFlight = settings.getMaxInFlight();
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Admits a login attempt or throws {@link TooManyRequestsException}.
+     * The returned permit must be closed when the attempt finishes.
+     */
+    public Permit acquireLogin(String username, String clientIp) {
+        if (!enabled) {
+            return Permit.NONE;
+        }
+        charge(ipBuckets, clientIp, rejectedByIp);
+        charge(usernameBuckets, username != null ? username.toLowerCase(Locale.ROOT) : null, rejectedByUsername);
+        return acquireInFlight();
+    }
+
+    /**
+     * Admits a registration, which is only limited per client IP.
+     */
+    public Permit acquireRegister(String clientIp) {
+        if (!enabled) {
+            return Permit.NONE;
+        }
+        charge(ipBuckets, clientIp, rejectedByIp);
+        return acquireInFlight();
+    }
+
+    public int inFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        rejectedCounter(registry, "username", rejectedByUsername);
+        rejectedCounter(registry, "ip", rejectedByIp);
+        rejectedCounter(registry, "concurrency", rejectedByConcurrency);
+        Gauge.builder("auth.throttle.in-flight", this, LoginThrottle::inFlight)
+                .description("Login and register requests currently admitted")
+                .register(registry);
+        Gauge.builder("auth.throttle.buckets", this, t -> t.usernameBuckets.size() + t.ipBuckets.size())
+                .description("Token buckets held for usernames and client IPs")
+                .register(registry);
+    }
+
+    private void charge(StripedTokenBuckets buckets, String key, LongAdder rejections) {
+        long waitMillis = buckets.tryAcquire(key == null ? "" : key);
+        if (waitMillis > 0) {
+            rejections.increment();
+            throw new TooManyRequestsException(THROTTLED_MESSAGE, Math.max(1, (waitMillis + 999) / 1000));
+        }
+    }
+
+    private Permit acquireInFlight() {
+        if (!inFlight.tryAcquire()) {
+            rejectedByConcurrency.increment();
+            throw new TooManyRequestsException(THROTTLED_MESSAGE, 1);
+        }
+        return new Permit(inFlight);
+    }
+
+    private static void rejectedCounter(MeterRegistry registry, String reason, LongAdder count) {
+        FunctionCounter.builder("auth.throttle.rejected", count, LongAdder::sum)
+                .tag("reason", reason)
+                .description("Login and register requests rejected with 429")
+                .register(registry);
+    }
+
+    /**
+     * In-flight slot held for the duration of one request; closing it twice is harmless.
+     */
+    public static final class Permit implements AutoCloseable {
+
+        static final Permit NONE = new Permit(null);
+
+        private final Semaphore semaphore;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public void close() {
+            if (semaphore != null && released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.taskManager.security;
+
+import com.example.taskManager.cache.BoundedExpiringCache;
+import com.example.taskManager.config.AuthProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Caches loaded {@link CustomUserDetails} by username so authenticated requests
+ * do not hit the users table every time. Entries live for a fixed TTL and must
+ * be evicted whenever a user's login state or password changes.
+ */
+@Component
+public class PrincipalCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final BoundedExpiringCache<String, CustomUserDetails> cache;
+
+    @Autowired
+    public PrincipalCache(AuthProperties authProperties) {
+        this(authProperties.getPrincipalCache().isEnabled(),
+                authProperties.getPrincipalCache().getTtl(),
+                authProperties.getPrincipalCache().getMaxSize(),
+                Clock.systemUTC());
+    }
+
+    public PrincipalCache(boolean enabled, Duration ttl, int maxSize, Clock clock) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.cache = new BoundedExpiringCache<>(maxSize, clock);
+    }
+
+    public CustomUserDetails get(String username) {
+        return enabled ? cache.get(username) : null;
+    }
+
+    public void put(CustomUserDetails userDetails) {
+        if (enabled) {
+            cache.put(userDetails.getUsername(), userDetails, ttl);
+        }
+    }
+
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        cache.bindTo(registry, "auth.principals");
+    }
+}
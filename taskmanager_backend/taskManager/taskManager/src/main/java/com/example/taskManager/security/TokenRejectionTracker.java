@@ -0,0 +1,93 @@
+package com.example.taskManager.security;
+
+import com.example.taskManager.cache.BoundedExpiringCache;
+import com.example.taskManager.config.JwtProperties;
+import com.example.taskManager.logging.LogSampler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts rejected bearer tokens per client address over a sliding window. The
+ * table is bounded, so a flood of spoofed addresses only evicts older entries.
+ * Addresses are never used as metric tags: a client that reaches the threshold
+ * within its window increments {@code auth.tokens.rejected.flagged-clients}
+ * once and gets a rate-limited warning with its address.
+ */
+@Component
+public class TokenRejectionTracker implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRejectionTracker.class);
+
+    private final BoundedExpiringCache<String, AtomicInteger> clients;
+    private final Duration window;
+    private final int threshold;
+    private final LogSampler flaggedSampler = new LogSampler(10, Duration.ofMinutes(1));
+
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder flagged = new LongAdder();
+
+    @Autowired
+    public TokenRejectionTracker(JwtProperties jwtProperties) {
+        this(jwtProperties.getRejection().getMaxClients(), jwtProperties.getRejection().getClientWindow(),
+                jwtProperties.getRejection().getClientThreshold(), Clock.systemUTC());
+    }
+
+    public TokenRejectionTracker(int maxClients, Duration window, int threshold, Clock clock) {
+        this.clients = new BoundedExpiringCache<>(maxClients, clock);
+        this.window = window;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Records one rejected token from the given client address.
+     */
+    public void record(String clientAddress) {
+        rejections.increment();
+        if (clientAddress == null) {
+            return;
+        }
+
+        AtomicInteger count = clients.get(clientAddress);
+        if (count == null) {
+            // Racing first rejections may each start a count; losing one is fine for a metric
+            count = new AtomicInteger();
+            clients.put(clientAddress, count, window);
+        }
+        if (count.incrementAndGet() == threshold) {
+            flagged.increment();
+            if (flaggedSampler.tryAcquire()) {
+                log.warn("Client {} sent {} rejected tokens within {} ({} similar messages suppressed)",
+                        clientAddress, threshold, window, flaggedSampler.takeSuppressed());
+            }
+        }
+    }
+
+    public int trackedClients() {
+        return clients.size();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("auth.tokens.rejected", rejections, LongAdder::sum)
+                .description("Bearer tokens rejected as invalid, expired or tampered")
+                .register(registry);
+        FunctionCounter.builder("auth.tokens.rejected.flagged-clients", flagged, LongAdder::sum)
+                .description("Times a client reached the rejection threshold within its window")
+                .register(registry);
+        Gauge.builder("auth.tokens.rejected.clients", this, TokenRejectionTracker::trackedClients)
+                .description("Client addresses with recent token rejections")
+                .register(registry);
+    }
+}
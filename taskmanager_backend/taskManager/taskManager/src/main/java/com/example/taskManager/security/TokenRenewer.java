@@ -0,0 +1,60 @@
+package com.example.taskManager.security;
+
+import com.example.taskManager.config.JwtProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+
+/**
+ * Sliding renewal of access tokens. Once a valid token is past the configured
+ * fraction of its lifetime, a replacement is issued for the client to pick up,
+ * so active clients never hit expiry and never go back through login.
+ */
+@Component
+public class TokenRenewer {
+
+    public static final String RENEWED_TOKEN_HEADER = "X-Renewed-Token";
+
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationList tokenRevocationList;
+    private final boolean enabled;
+    private final double threshold;
+    private final Clock clock;
+    private final Counter renewals;
+
+    @Autowired
+    public TokenRenewer(JwtUtil jwtUtil, TokenRevocationList tokenRevocationList,
+                        JwtProperties jwtProperties, MeterRegistry registry) {
+        this(jwtUtil, tokenRevocationList,
+                jwtProperties.getRenewal().isEnabled(),
+                jwtProperties.getRenewal().getThreshold(),
+                Clock.systemUTC(), registry);
+    }
+
+    public TokenRenewer(JwtUtil jwtUtil, TokenRevocationList tokenRevocationList, boolean enabled,
+                        double threshold, Clock clock, MeterRegistry registry) {
+        this.jwtUtil = jwtUtil;
+        this.tokenRevocationList = tokenRevocationList;
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.clock = clock;
+        this.renewals = Counter.builder("auth.tokens.issued")
+                .tag("source", "renewal")
+                .description("Access tokens issued")
+                .register(registry);
+    }
+
+    /**
+     * Returns a replacement for a verified, non-revoked token that is due for renewal, or null.
+     */
+    public String renewIfDue(VerifiedToken token) {
+        if (!enabled || !token.isPastFraction(threshold, clock.instant())) {
+            return null;
+        }
+        renewals.increment();
+        return jwtUtil.generateToken(token.subject(), tokenRevocationList.earliestIssueTime(token.subject()));
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.taskManager.security;
+
+import com.example.taskManager.cache.BloomFilter;
+import com.example.taskManager.cache.TimingWheel;
+import com.example.taskManager.config.JwtProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory revocation of issued JWTs by user and issued-at watermark: after a
+ * logout, every token of that user issued before the watermark is rejected.
+ * A Bloom filter of revoked usernames answers the common "not revoked" case
+ * without touching the map. Watermarks are kept only until the last token they
+ * can affect has expired, and a timing wheel drops them after that.
+ */
+@Component
+public class TokenRevocationList implements MeterBinder {
+
+    /**
+     * Rough heap cost of one watermark: map node, key string, record and wheel timeout.
+     */
+    static final int ESTIMATED_ENTRY_BYTES = 160;
+
+    private static final int WHEEL_SLOTS = 512;
+
+    private record Watermark(long notBeforeEpochSecond, long retainUntilMillis) {
+    }
+
+    private final ConcurrentHashMap<String, Watermark> watermarks = new ConcurrentHashMap<>();
+    private final TimingWheel<String> wheel;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final Clock clock;
+
+    private volatile BloomFilter bloom;
+    private int bloomCapacity;
+
+    private final LongAdder fastPathChecks = new LongAdder();
+    private final LongAdder lookupChecks = new LongAdder();
+    private final LongAdder revokedChecks = new LongAdder();
+
+    @Autowired
+    public TokenRevocationList(JwtProperties jwtProperties) {
+        this(jwtProperties.getRevocation().getExpectedEntries(),
+                jwtProperties.getRevocation().getFalsePositiveRate(),
+                jwtProperties.getRevocation().getTick(),
+                Clock.systemUTC());
+    }
+
+    public TokenRevocationList(int expectedEntries, double falsePositiveRate, Duration tick, Clock clock) {
+        this.expectedEntries = Math.max(1, expectedEntries);
+        this.falsePositiveRate = falsePositiveRate;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(tick.toMillis(), WHEEL_SLOTS, clock.millis());
+        this.bloomCapacity = this.expectedEntries;
+        this.bloom = new BloomFilter(bloomCapacity, falsePositiveRate);
+    }
+
+    /**
+     * Revokes every token of the user issued up to now. Issued-at claims have
+     * second precision, so the watermark is rounded up to the next full second;
+     * {@link #earliestIssueTime} keeps a new login from landing below it.
+     */
+    public synchronized void revokeUser(String username, Duration tokenLifetime) {
+        long now = clock.millis();
+        long notBefore = Math.floorDiv(now + 999, 1000);
+        long retainUntil = now + tokenLifetime.toMillis() + 1000;
+
+        Watermark merged = watermarks.merge(username, new Watermark(notBefore, retainUntil),
+                (old, next) -> new Watermark(
+                        Math.max(old.notBeforeEpochSecond(), next.notBeforeEpochSecond()),
+                        Math.max(old.retainUntilMillis(), next.retainUntilMillis())));
+        wheel.schedule(username, merged.retainUntilMillis());
+
+        if (watermarks.size() > bloomCapacity) {
+            rebuildBloom();
+        } else {
+            bloom.put(username);
+        }
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        Watermark watermark = lookup(token.subject());
+        if (watermark == null) {
+            return false;
+        }
+        Instant issuedAt = token.issuedAt();
+        boolean revoked = issuedAt == null || issuedAt.getEpochSecond() < watermark.notBeforeEpochSecond();
+        if (revoked) {
+            revokedChecks.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * Issue time for a new token that will not fall under the user's current watermark.
+     */
+    public Instant earliestIssueTime(String username) {
+        Instant now = clock.instant();
+        Watermark watermark = lookup(username);
+        if (watermark == null || now.getEpochSecond() >= watermark.notBeforeEpochSecond()) {
+            return now;
+        }
+        return Instant.ofEpochSecond(watermark.notBeforeEpochSecond());
+    }
+
+    /**
+     * Drops watermarks whose tokens have all expired and rebuilds the Bloom
+     * filter without them, since Bloom filters cannot remove entries.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.tick:1s}")
+    public synchronized void expire() {
+        int before = watermarks.size();
+        wheel.advance(clock.millis(), (username, deadline) ->
+                watermarks.computeIfPresent(username,
+                        (key, watermark) -> watermark.retainUntilMillis() == deadline ? null : watermark));
+        if (watermarks.size() < before) {
+            rebuildBloom();
+        }
+    }
+
+    public int size() {
+        return watermarks.size();
+    }
+
+    public long estimatedMemoryBytes() {
+        return bloom.byteSize() + (long) watermarks.size() * ESTIMATED_ENTRY_BYTES;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("auth.revocations.entries", this, TokenRevocationList::size)
+                .description("Users with a live revocation watermark")
+                .register(registry);
+        Gauge.builder("auth.revocations.memory", this, TokenRevocationList::estimatedMemoryBytes)
+                .baseUnit("bytes")
+                .description("Estimated heap used by the revocation list including its Bloom filter")
+                .register(registry);
+        Gauge.builder("auth.revocations.bloom.size", this, list -> list.bloom.byteSize())
+                .baseUnit("bytes")
+                .description("Size of the revocation Bloom filter")
+                .register(registry);
+        FunctionCounter.builder("auth.revocations.checks", fastPathChecks, LongAdder::sum)
+                .tag("path", "bloom")
+                .description("Revocation checks answered by the Bloom filter alone")
+                .register(registry);
+        FunctionCounter.builder("auth.revocations.checks", lookupChecks, LongAdder::sum)
+                .tag("path", "lookup")
+                .description("Revocation checks that needed a map lookup")
+                .register(registry);
+        FunctionCounter.builder("auth.revocations.rejected", revokedChecks, LongAdder::sum)
+                .description("Tokens rejected because they were revoked")
+                .register(registry);
+    }
+
+    private Watermark lookup(String username) {
+        if (username == null || !bloom.mightContain(username)) {
+            fastPathChecks.increment();
+            return null;
+        }
+        lookupChecks.increment();
+        return watermarks.get(username);
+    }
+
+    private void rebuildBloom() {
+        bloomCapacity = Math.max(expectedEntries, watermarks.size() * 2);
+        BloomFilter rebuilt = new BloomFilter(bloomCapacity, falsePositiveRate);
+        watermarks.keySet().forEach(rebuilt::put);
+        bloom = rebuilt;
+    }
+}
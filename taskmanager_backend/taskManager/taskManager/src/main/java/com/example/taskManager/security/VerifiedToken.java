@@ -0,0 +1,26 @@
+package com.example.taskManager.security;
+
+import java.time.Instant;
+
+/**
+ * Immutable result of a successful JWT verification.
+ * The signature and expiry have already been checked when an instance exists.
+ */
+public record VerifiedToken(String subject, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    /**
+     * True once at least {@code fraction} of the issued-at to expiry span has passed.
+     * Tokens without an issued-at claim never qualify.
+     */
+    public boolean isPastFraction(double fraction, Instant now) {
+        if (issuedAt == null) {
+            return false;
+        }
+        long lifetime = expiresAt.toEpochMilli() - issuedAt.toEpochMilli();
+        return now.toEpochMilli() - issuedAt.toEpochMilli() >= lifetime * fraction;
+    }
+}
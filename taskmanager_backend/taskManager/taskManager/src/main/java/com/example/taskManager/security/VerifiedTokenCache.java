@@ -0,0 +1,119 @@
+package com.example.taskManager.security;
+
+import com.example.taskManager.cache.BoundedExpiringCache;
+import com.example.taskManager.config.JwtProperties;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Caches successfully verified tokens by SHA-256 digest so repeated requests
+ * with the same bearer token skip the Base64 decode, JSON parse and HMAC check.
+ * Each entry expires at its token's own {@code exp}.
+ *
+ * Tokens that fail verification are remembered as well, for a fixed time, so a
+ * client replaying an expired or tampered token in a loop is turned away after
+ * one digest and one map lookup. A token that failed once can never pass later,
+ * so the time limit only bounds how long the entry occupies memory.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    /**
+     * Thrown for tokens already known to be bad. Shared and without a stack trace.
+     */
+    public static final class RejectedTokenException extends JwtException {
+
+        private static final RejectedTokenException INSTANCE = new RejectedTokenException();
+
+        private RejectedTokenException() {
+            super("Token was rejected earlier");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    private final boolean enabled;
+    private final BoundedExpiringCache<String, VerifiedToken> cache;
+    private final BoundedExpiringCache<String, Boolean> rejected;
+    private final Duration rejectedTtl;
+
+    @Autowired
+    public VerifiedTokenCache(JwtProperties jwtProperties) {
+        this(jwtProperties.getCache().isEnabled(), jwtProperties.getCache().getMaxSize(),
+                jwtProperties.getRejection().getCacheSize(), jwtProperties.getRejection().getCacheTtl(),
+                Clock.systemUTC());
+    }
+
+    public VerifiedTokenCache(boolean enabled, int maxSize, Clock clock) {
+        this(enabled, maxSize, 0, Duration.ZERO, clock);
+    }
+
+    public VerifiedTokenCache(boolean enabled, int maxSize, int rejectedMaxSize, Duration rejectedTtl, Clock clock) {
+        this.enabled = enabled;
+        this.cache = new BoundedExpiringCache<>(enabled ? maxSize : 0, clock);
+        this.rejected = new BoundedExpiringCache<>(rejectedMaxSize, clock);
+        this.rejectedTtl = rejectedTtl;
+    }
+
+    /**
+     * Returns the cached verification result, or runs the verifier and caches its result.
+     * Verifier exceptions propagate and the token is remembered as rejected; later calls
+     * with it throw {@link RejectedTokenException} without running the verifier.
+     */
+    public VerifiedToken verify(String token, Function<String, VerifiedToken> verifier) {
+        boolean rememberRejections = !rejectedTtl.isZero();
+        if (!enabled && !rememberRejections) {
+            return verifier.apply(token);
+        }
+
+        String key = TokenDigests.sha256(token);
+        VerifiedToken cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (rememberRejections && rejected.get(key) != null) {
+            throw RejectedTokenException.INSTANCE;
+        }
+
+        VerifiedToken verified;
+        try {
+            verified = verifier.apply(token);
+        } catch (RuntimeException e) {
+            if (rememberRejections) {
+                rejected.put(key, Boolean.TRUE, rejectedTtl);
+            }
+            throw e;
+        }
+        cache.put(key, verified, verified.expiresAt().toEpochMilli());
+        return verified;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int rejectedSize() {
+        return rejected.size();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        cache.bindTo(registry, "jwt.verified-tokens");
+        rejected.bindTo(registry, "jwt.rejected-tokens");
+    }
+}
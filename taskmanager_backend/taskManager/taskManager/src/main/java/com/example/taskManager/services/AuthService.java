@@ -1,12 +1,19 @@
 package com.example.taskManager.services;
 
+import com.example.taskManager.dto.LoginResponse;
 import com.example.taskManager.exception.InvalidCredentialsException;
 import com.example.taskManager.exception.UserAlreadyExistsException;
 import com.example.taskManager.exception.UserNotFoundException;
 import com.example.taskManager.model.User;
 import com.example.taskManager.repository.UserRepository;
 import com.example.taskManager.security.JwtUtil;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.example.taskManager.security.PasswordHasher;
+import com.example.taskManager.security.PrincipalCache;
+import com.example.taskManager.security.TokenRevocationList;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -14,12 +21,36 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
-    private final PasswordEncoder passwordEncoder;
-
-    public AuthService(UserRepository userRepository, JwtUtil jwtUtil, PasswordEncoder passwordEncoder) {
+    private final PasswordHasher passwordHasher;
+    private final PrincipalCache principalCache;
+    private final LoginStateRegistry loginStateRegistry;
+    private final TokenRevocationList tokenRevocationList;
+    private final RefreshTokenService refreshTokenService;
+    private final UsernameFilter usernameFilter;
+
+    private final Timer loginSuccess;
+    private final Timer loginFailure;
+    private final Counter loginTokens;
+    private final Counter refreshTokens;
+
+    public AuthService(UserRepository userRepository, JwtUtil jwtUtil, PasswordHasher passwordHasher,
+                       PrincipalCache principalCache, LoginStateRegistry loginStateRegistry,
+                       TokenRevocationList tokenRevocationList, RefreshTokenService refreshTokenService,
+                       UsernameFilter usernameFilter, MeterRegistry registry) {
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.principalCache = principalCache;
+        this.loginStateRegistry = loginStateRegistry;
+        this.tokenRevocationList = tokenRevocationList;
+        this.refreshTokenService = refreshTokenService;
+        this.usernameFilter = usernameFilter;
+
+        // Histogram buckets let the login rate and its spikes be charted per bucket
+        this.loginSuccess = loginTimer(registry, "success");
+        this.loginFailure = loginTimer(registry, "failure");
+        this.loginTokens = tokensIssued(registry, "login");
+        this.refreshTokens = tokensIssued(registry, "refresh");
     }
 
     /**
@@ -27,47 +58,112 @@ public class AuthService {
      */
     public User register(String username, String password) {
 
-        if (userRepository.existsByUsername(username)) {
+        // Only query when the filter cannot rule the name out; avoids hashing for known duplicates
+        if (!usernameFilter.isDefinitelyFree(username) && userRepository.existsByUsername(username)) {
             throw new UserAlreadyExistsException("Username already exists");
         }
 
         // Hash password first
-        String hashedPassword = passwordEncoder.encode(password);
+        String hashedPassword = passwordHasher.encode(password);
 
         // Create user using the constructor we added (generic-ready)
         User newUser = new User(username, hashedPassword);
         newUser.setLoggedIn(false);
 
-        return userRepository.save(newUser);
+        User saved;
+        try {
+            saved = userRepository.save(newUser);
+        } catch (DataIntegrityViolationException e) {
+            // The unique index on username is the authority when two registrations race
+            throw new UserAlreadyExistsException("Username already exists");
+        }
+        usernameFilter.add(username);
+        return saved;
     }
 
     /**
-     * Authenticates a user and generates a JWT if successful.
+     * Authenticates a user and issues an access token plus a new refresh token family.
      */
-    public String login(String username, String password) {
+    public LoginResponse login(String username, String password) {
+
+        Timer.Sample sample = Timer.start();
+        try {
+            LoginResponse response = authenticate(username, password);
+            sample.stop(loginSuccess);
+            return response;
+        } catch (RuntimeException e) {
+            sample.stop(loginFailure);
+            throw e;
+        }
+    }
+
+    private LoginResponse authenticate(String username, String password) {
 
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new InvalidCredentialsException("Invalid username or password"));
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordHasher.matches(password, user.getPassword())) {
             throw new InvalidCredentialsException("Invalid username or password");
         }
 
-        user.setLoggedIn(true);
-        userRepository.save(user);
+        // Move the stored hash to the current cost while the raw password is at hand
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHasher.encode(password));
+            userRepository.save(user);
+            principalCache.evict(username);
+        }
+
+        // is_logged_in is written behind by the registry's periodic flush
+        loginStateRegistry.markLoggedIn(username);
+
+        loginTokens.increment();
+        return new LoginResponse(issueAccessToken(username), refreshTokenService.issue(user));
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a rotated refresh token.
+     * No password check is involved.
+     */
+    public LoginResponse refresh(String refreshToken) {
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
 
-        return jwtUtil.generateToken(username);
+        refreshTokens.increment();
+        return new LoginResponse(issueAccessToken(rotation.username()), rotation.refreshToken());
     }
 
     /**
-     * Logs out a user (optional, JWT remains valid until expiration).
+     * Logs out a user and revokes every token issued to them so far.
      */
     public void logout(String username) {
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        // Only hit the table when the registry cannot vouch for the user
+        if (!loginStateRegistry.isOnline(username) && !userRepository.existsByUsername(username)) {
+            throw new UserNotFoundException("User not found");
+        }
+
+        loginStateRegistry.markLoggedOut(username);
+        tokenRevocationList.revokeUser(username, jwtUtil.getTokenLifetime());
+        refreshTokenService.revokeAll(username);
+        principalCache.evict(username);
+    }
+
+    private String issueAccessToken(String username) {
+        return jwtUtil.generateToken(username, tokenRevocationList.earliestIssueTime(username));
+    }
+
+    private static Timer loginTimer(MeterRegistry registry, String result) {
+        return Timer.builder("auth.logins")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .description("Password logins, including the BCrypt check")
+                .register(registry);
+    }
 
-        user.setLoggedIn(false);
-        userRepository.save(user);
+    private static Counter tokensIssued(MeterRegistry registry, String source) {
+        return Counter.builder("auth.tokens.issued")
+                .tag("source", source)
+                .description("Access tokens issued")
+                .register(registry);
     }
 }
@@ -1,8 +1,10 @@
 package com.example.taskManager.services;
 
+import com.example.taskManager.logging.LogSampler;
 import com.example.taskManager.model.User;
 import com.example.taskManager.repository.UserRepository;
 import com.example.taskManager.security.CustomUserDetails;
+import com.example.taskManager.security.PrincipalCache;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -10,6 +12,8 @@ import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+
 /**
  * Custom implementation of Spring Security's UserDetailsService.
  * Responsible for loading user-specific data during authentication.
@@ -19,23 +23,37 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     private static final Logger log = LoggerFactory.getLogger(CustomUserDetailsService.class);
 
+    // Unknown usernames arrive at request rate from stale or forged tokens
+    private static final LogSampler notFoundSampler = new LogSampler(10, Duration.ofMinutes(1));
+
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        log.info("Attempting to load user by username: {}", username);
+        CustomUserDetails cached = principalCache.get(username);
+        if (cached != null) {
+            return cached;
+        }
+
+        log.debug("Loading user {}", username);
 
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> {
-                    log.warn("User not found: {}", username);
+                    if (notFoundSampler.tryAcquire()) {
+                        log.warn("User not found: {} ({} similar messages suppressed)",
+                                username, notFoundSampler.takeSuppressed());
+                    }
                     return new UsernameNotFoundException("User not found: " + username);
                 });
 
-        log.info("User loaded successfully: {}", username);
-        return new CustomUserDetails(user);
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+        principalCache.put(userDetails);
+        return userDetails;
     }
 }
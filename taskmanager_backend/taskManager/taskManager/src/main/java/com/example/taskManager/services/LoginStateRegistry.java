@@ -0,0 +1,156 @@
+package com.example.taskManager.services;
+
+import com.example.taskManager.config.AuthProperties;
+import com.example.taskManager.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps each user's logged-in flag in memory and writes changes to
+ * {@code users.is_logged_in} in batched UPDATEs, off the login/logout path.
+ * Only the latest state per user is kept until the next flush, so a user who
+ * logs in and out between flushes costs at most one row update.
+ */
+@Component
+public class LoginStateRegistry implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginStateRegistry.class);
+
+    private final UserRepository userRepository;
+    private final int batchSize;
+
+    private final Set<String> online = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, Boolean> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final LongAdder flushedRows = new LongAdder();
+
+    @Autowired
+    public LoginStateRegistry(UserRepository userRepository, AuthProperties authProperties) {
+        this(userRepository, authProperties.getSessionState().getBatchSize());
+    }
+
+    public LoginStateRegistry(UserRepository userRepository, int batchSize) {
+        this.userRepository = userRepository;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Seeds the online set from the table so the count survives restarts.
+     */
+    @PostConstruct
+    public void load() {
+        online.addAll(userRepository.findLoggedInUsernames());
+    }
+
+    public void markLoggedIn(String username) {
+        online.add(username);
+        pending.put(username, Boolean.TRUE);
+    }
+
+    public void markLoggedOut(String username) {
+        online.remove(username);
+        pending.put(username, Boolean.FALSE);
+    }
+
+    public boolean isOnline(String username) {
+        return online.contains(username);
+    }
+
+    public int onlineCount() {
+        return online.size();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Writes all pending state changes. Entries that changed again while the
+     * flush was running stay pending; entries from a failed batch are requeued
+     * unless a newer state has arrived in the meantime.
+     */
+    @Scheduled(fixedDelayString = "${auth.session-state.flush-interval:5s}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return; // a flush is already running
+        }
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes whatever is still pending before the repository goes away,
+     * waiting for a scheduled flush that is still running.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("auth.sessions.online", this, LoginStateRegistry::onlineCount)
+                .description("Users currently logged in")
+                .register(registry);
+        Gauge.builder("auth.sessions.pending", this, LoginStateRegistry::pendingCount)
+                .description("Login state changes not yet written to the users table")
+                .register(registry);
+        FunctionCounter.builder("auth.sessions.flushed", flushedRows, LongAdder::sum)
+                .description("Rows written by login state flushes since startup")
+                .register(registry);
+    }
+
+    private void flushPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Boolean, List<String>> byState = new HashMap<>();
+        for (Map.Entry<String, Boolean> entry : pending.entrySet()) {
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                byState.computeIfAbsent(entry.getValue(), k -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+
+        byState.forEach(this::write);
+    }
+
+    private void write(boolean loggedIn, List<String> usernames) {
+        for (int from = 0; from < usernames.size(); from += batchSize) {
+            List<String> batch = usernames.subList(from, Math.min(from + batchSize, usernames.size()));
+            try {
+                flushedRows.add(userRepository.updateLoggedIn(batch, loggedIn));
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush login state for {} users, will retry", batch.size(), e);
+                batch.forEach(username -> pending.putIfAbsent(username, loggedIn));
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.taskManager.services;
+
+import com.example.taskManager.config.JwtProperties;
+import com.example.taskManager.exception.InvalidCredentialsException;
+import com.example.taskManager.model.RefreshToken;
+import com.example.taskManager.model.User;
+import com.example.taskManager.repository.RefreshTokenRepository;
+import com.example.taskManager.security.TokenDigests;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Issues and rotates opaque refresh tokens. Every exchange marks the presented
+ * token used and hands out a new one in the same family; presenting a used token
+ * again means it was copied, so the whole family is deleted.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+    private static final int FAMILY_BYTES = 16;
+    private static final String INVALID_TOKEN = "Invalid or expired refresh token";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration ttl;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Result of a rotation: the owner of the old token and the replacement token.
+     */
+    public record Rotation(String username, String refreshToken) {
+    }
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, JwtProperties jwtProperties) {
+        this(refreshTokenRepository, jwtProperties.getRefresh().getTtl(), Clock.systemUTC());
+    }
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, Duration ttl, Clock clock) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts a new token family for a fresh login.
+     */
+    public String issue(User user) {
+        return issue(user, randomToken(FAMILY_BYTES));
+    }
+
+    /**
+     * Exchanges a token for a new one in its family. Marking the old token used
+     * and saving the new one commit together, so a failed exchange leaves the
+     * old token valid; revocations on the rejection paths still commit.
+     */
+    @Transactional(noRollbackFor = InvalidCredentialsException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(TokenDigests.sha256(rawToken))
+                .orElseThrow(() -> new InvalidCredentialsException(INVALID_TOKEN));
+
+        if (!current.getExpiresAt().isAfter(clock.instant())) {
+            refreshTokenRepository.delete(current);
+            throw new InvalidCredentialsException(INVALID_TOKEN);
+        }
+
+        // The conditional update also catches two requests racing with the same token
+        if (current.isUsed() || refreshTokenRepository.markUsed(current.getId()) == 0) {
+            int revoked = refreshTokenRepository.deleteByFamilyId(current.getFamilyId());
+            log.warn("Refresh token reuse for user {}, revoked {} tokens in its family",
+                    current.getUser().getUsername(), revoked);
+            throw new InvalidCredentialsException(INVALID_TOKEN);
+        }
+
+        User user = current.getUser();
+        return new Rotation(user.getUsername(), issue(user, current.getFamilyId()));
+    }
+
+    /**
+     * Drops every refresh token of the user, e.g. on logout.
+     */
+    public void revokeAll(String username) {
+        refreshTokenRepository.deleteByUsername(username);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.cleanup-interval:1h}")
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(clock.instant());
+    }
+
+    private String issue(User user, String familyId) {
+        String rawToken = randomToken(TOKEN_BYTES);
+        Instant expiresAt = clock.instant().plus(ttl);
+        refreshTokenRepository.save(new RefreshToken(TokenDigests.sha256(rawToken), familyId, user, expiresAt));
+        return rawToken;
+    }
+
+    private String randomToken(int bytes) {
+        byte[] buffer = new byte[bytes];
+        random.nextBytes(buffer);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer);
+    }
+}
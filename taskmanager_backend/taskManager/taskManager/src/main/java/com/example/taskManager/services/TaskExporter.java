@@ -0,0 +1,96 @@
+package com.example.taskManager.services;
+
+import com.example.taskManager.exception.ErrorCode;
+import com.example.taskManager.exception.InvalidRequestException;
+import com.example.taskManager.model.Task;
+import com.example.taskManager.repository.TaskRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's full task list straight from a database cursor to an output
+ * stream. Rows are fetched in batches, serialized one at a time and detached
+ * from the persistence context as soon as they are written, so memory use does
+ * not grow with the number of tasks.
+ */
+@Service
+public class TaskExporter {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    /**
+     * Output formats: one JSON object per line, or a single JSON array.
+     */
+    public enum Format {
+        NDJSON(TaskExporter.NDJSON),
+        JSON(MediaType.APPLICATION_JSON);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        /**
+         * Parses the {@code format} request parameter, ignoring case.
+         */
+        public static Format fromParameter(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new InvalidRequestException(ErrorCode.INVALID_EXPORT_FORMAT, "Unknown export format: " + value);
+        }
+    }
+
+    private final TaskRepository taskRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter taskWriter;
+
+    public TaskExporter(TaskRepository taskRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.taskRepository = taskRepository;
+        this.entityManager = entityManager;
+        // The response stream belongs to the servlet container
+        this.taskWriter = objectMapper.writerFor(Task.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Streams every task of the user, in id order, to {@code out}. The stream is
+     * flushed but not closed.
+     */
+    @Transactional(readOnly = true)
+    public void export(Long userId, Format format, OutputStream out) throws IOException {
+        SequenceWriter writer = format == Format.NDJSON
+                ? taskWriter.withRootValueSeparator("\n").writeValues(out)
+                : taskWriter.writeValuesAsArray(out);
+
+        try (writer; Stream<Task> tasks = taskRepository.streamByUserId(userId)) {
+            Iterator<Task> it = tasks.iterator();
+            while (it.hasNext()) {
+                Task task = it.next();
+                writer.write(task);
+                entityManager.detach(task);
+            }
+        }
+        if (format == Format.NDJSON) {
+            out.write('\n');
+        }
+        out.flush();
+    }
+}
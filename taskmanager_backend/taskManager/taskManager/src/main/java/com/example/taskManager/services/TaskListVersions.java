@@ -0,0 +1,149 @@
+package com.example.taskManager.services;
+
+import com.example.taskManager.repository.TaskOwnerStats;
+import com.example.taskManager.repository.TaskRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Version of each user's task list, kept in memory and bumped by
+ * {@link TaskService} after every write, so an unchanged list can be answered
+ * with 304 from an ETag comparison alone. Reads and bumps are lock-free.
+ *
+ * A tag is {@code "<base>-<version>"}. Users who had tasks at startup begin
+ * at version 0 of a fingerprint of those tasks (count, id sum and version sum,
+ * read in one grouped scan), so their tags survive a restart when nothing
+ * changed. Every other tag uses a base unique to this run: users seen for the
+ * first time after the scan, and every user after their first write. The
+ * in-memory database is recreated on each start and reuses user and task ids,
+ * so a version reached by writes in one run must never match a tag from
+ * another run.
+ *
+ * Bumps inside a transaction wait for its commit. List requests read the tag
+ * before the rows, so a tag is never paired with rows older than it.
+ */
+@Component
+public class TaskListVersions implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskListVersions.class);
+
+    private final TaskRepository taskRepository;
+    private final TransactionOperations readOnlyTransaction;
+    private final String runBase;
+    private final Map<Long, AtomicReference<Stamp>> versions = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @Autowired
+    public TaskListVersions(TaskRepository taskRepository, PlatformTransactionManager transactionManager) {
+        this(taskRepository, readOnly(transactionManager), ThreadLocalRandom.current().nextLong() >>> 1);
+    }
+
+    public TaskListVersions(TaskRepository taskRepository, TransactionOperations readOnlyTransaction, long runId) {
+        this.taskRepository = taskRepository;
+        this.readOnlyTransaction = readOnlyTransaction;
+        this.runBase = "r" + Long.toString(runId, 36);
+    }
+
+    /**
+     * Seeds a version for every user with tasks from one grouped scan of the task table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        long started = System.nanoTime();
+        List<TaskOwnerStats> owners = readOnlyTransaction.execute(status -> taskRepository.findOwnerStats());
+        for (TaskOwnerStats owner : owners) {
+            // A user written to during the scan already has a run-scoped version; the scan may have missed the write
+            versions.putIfAbsent(owner.userId(), new AtomicReference<>(
+                    Stamp.of(fingerprint(owner.count(), owner.idSum(), owner.versionSum()), 0)));
+        }
+        ready = true;
+        log.info("Task list versions seeded for {} users in {} ms",
+                owners.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * The user's current list tag, quoted, or null until the versions are seeded.
+     */
+    public String etag(Long userId) {
+        if (!ready) {
+            return null;
+        }
+        AtomicReference<Stamp> stamp = versions.get(userId);
+        if (stamp == null) {
+            // Had no tasks when seeded and no writes since
+            stamp = versions.computeIfAbsent(userId, id -> new AtomicReference<>(Stamp.of(runBase, 0)));
+        }
+        return stamp.get().etag();
+    }
+
+    /**
+     * Records that some of the user's tasks were created, updated or deleted.
+     */
+    public void changed(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(userId);
+            }
+        });
+    }
+
+    public int size() {
+        return versions.size();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("tasks.list.versions", this, TaskListVersions::size)
+                .description("Users with a task list version held in memory")
+                .register(registry);
+    }
+
+    private void apply(Long userId) {
+        versions.computeIfAbsent(userId, id -> new AtomicReference<>(Stamp.of(runBase, 0)))
+                .updateAndGet(stamp -> Stamp.of(runBase, stamp.version() + 1));
+    }
+
+    private static String fingerprint(long count, long idSum, long versionSum) {
+        return Long.toString(count, 36) + "." + Long.toString(idSum, 36) + "." + Long.toString(versionSum, 36);
+    }
+
+    private static TransactionOperations readOnly(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    /**
+     * Immutable, so a bump is one compare-and-set and the tag is built once per bump, not per request.
+     */
+    private record Stamp(long version, String etag) {
+
+        static Stamp of(String base, long version) {
+            return new Stamp(version, "\"" + base + "-" + version + "\"");
+        }
+    }
+}
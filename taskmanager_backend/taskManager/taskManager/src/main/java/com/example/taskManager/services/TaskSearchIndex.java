@@ -0,0 +1,158 @@
+package com.example.taskManager.services;
+
+import com.example.taskManager.config.TaskProperties;
+import com.example.taskManager.model.Task;
+import com.example.taskManager.repository.TaskRepository;
+import com.example.taskManager.search.InvertedIndex;
+import com.example.taskManager.search.SearchQuery;
+import com.example.taskManager.search.TaskText;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Word index over task titles and descriptions, kept per user in memory and
+ * updated by {@link TaskService} after each successful write. It is filled by a
+ * streaming scan of the task table at startup; until that finishes
+ * {@link #search} returns null and callers fall back to the database.
+ *
+ * Updates made inside a transaction wait for its commit, so a rolled-back
+ * write never drops or replaces entries for rows that are still there. The
+ * index can still hold entries the database no longer has, such as a task
+ * deleted while the startup scan was reading it. Callers load hits from the
+ * database and re-check them against the loaded text.
+ */
+@Component
+public class TaskSearchIndex implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskSearchIndex.class);
+
+    private final TaskRepository taskRepository;
+    private final TransactionOperations readOnlyTransaction;
+    private final boolean enabled;
+    private final InvertedIndex index = new InvertedIndex();
+
+    private final LongAdder indexedSearches = new LongAdder();
+    private final LongAdder fallbackSearches = new LongAdder();
+    private volatile boolean ready;
+
+    @Autowired
+    public TaskSearchIndex(TaskRepository taskRepository, PlatformTransactionManager transactionManager,
+                           TaskProperties taskProperties) {
+        this(taskRepository, readOnly(transactionManager), taskProperties.getSearch().isEnabled());
+    }
+
+    public TaskSearchIndex(TaskRepository taskRepository, TransactionOperations readOnlyTransaction,
+                           boolean enabled) {
+        this.taskRepository = taskRepository;
+        this.readOnlyTransaction = readOnlyTransaction;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Indexes every existing task with a streaming scan. Tasks written while the
+     * scan runs are indexed by the write hooks as usual, so none are missed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<TaskText> rows = taskRepository.streamTaskText()) {
+                // Rows the write hooks indexed meanwhile are newer than the scan's copy
+                rows.forEach(row -> index.putIfAbsent(row.userId(), row.id(),
+                        SearchQuery.tokenize(row.title(), row.description())));
+            }
+        });
+        ready = true;
+        log.info("Task search index built with {} postings for {} users in {} ms",
+                index.postingCount(), index.ownerCount(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Indexes a new task, or re-indexes one whose title or description may have changed.
+     */
+    public void index(Long userId, Task task) {
+        if (enabled) {
+            long taskId = task.getId();
+            Set<String> tokens = SearchQuery.tokenize(task.getTitle(), task.getDescription());
+            afterCommit(() -> index.put(userId, taskId, tokens));
+        }
+    }
+
+    public void remove(Long userId, Long taskId) {
+        if (enabled) {
+            afterCommit(() -> index.remove(userId, taskId));
+        }
+    }
+
+    /**
+     * Ids of the user's newest matching tasks, highest first, or null if the
+     * index is not ready and the caller must search the database instead.
+     */
+    public long[] search(Long userId, SearchQuery query, int limit) {
+        if (!ready) {
+            fallbackSearches.increment();
+            return null;
+        }
+        indexedSearches.increment();
+        return index.search(userId, query, limit);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("tasks.search.index.postings", index, InvertedIndex::postingCount)
+                .description("Token-to-task entries held by the task search index")
+                .register(registry);
+        FunctionCounter.builder("tasks.search.queries", indexedSearches, LongAdder::sum)
+                .tag("source", "index")
+                .description("Task searches answered from the in-memory index")
+                .register(registry);
+        FunctionCounter.builder("tasks.search.queries", fallbackSearches, LongAdder::sum)
+                .tag("source", "database")
+                .description("Task searches that fell back to the database")
+                .register(registry);
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private static TransactionOperations readOnly(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+}
@@ -1,80 +1,390 @@
 package com.example.taskManager.services;
 
+import com.example.taskManager.config.TaskProperties;
+import com.example.taskManager.dto.TaskBatchResult;
+import com.example.taskManager.dto.TaskBulkUpdate;
+import com.example.taskManager.dto.TaskBulkUpdateResult;
+import com.example.taskManager.dto.TaskCursor;
+import com.example.taskManager.dto.TaskPage;
+import com.example.taskManager.dto.TaskPatch;
+import com.example.taskManager.dto.TaskQuery;
+import com.example.taskManager.exception.ErrorCode;
+import com.example.taskManager.exception.InvalidRequestException;
 import com.example.taskManager.exception.TaskNotFoundException;
 import com.example.taskManager.exception.TaskOperationException;
+import com.example.taskManager.exception.TaskVersionMismatchException;
 import com.example.taskManager.model.Task;
 import com.example.taskManager.model.User;
 import com.example.taskManager.repository.TaskRepository;
+import com.example.taskManager.repository.TaskSpecifications;
+import com.example.taskManager.repository.UserRepository;
+import com.example.taskManager.search.SearchQuery;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class TaskService {
 
     private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TaskProperties.Pagination pagination;
+    private final TaskProperties.Batch batch;
+    private final TaskSearchIndex searchIndex;
+    private final TaskListVersions listVersions;
+    private final Validator validator;
 
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, UserRepository userRepository, TaskProperties taskProperties,
+                       TaskSearchIndex searchIndex, TaskListVersions listVersions, Validator validator) {
         this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.pagination = taskProperties.getPagination();
+        this.batch = taskProperties.getBatch();
+        this.searchIndex = searchIndex;
+        this.listVersions = listVersions;
+        this.validator = validator;
     }
 
     /**
      * Create a task for a specific user.
+     * The owner is linked through a reference proxy, so no user SELECT is issued.
      */
-    public Task createTaskForUser(Task task, User user) {
+    public Task createTaskForUser(Task task, Long userId) {
         try {
-            task.setUser(user);
-            return taskRepository.save(task);
+            // Ids are always generated; a client-supplied one would turn the insert into a merge
+            task.setId(null);
+            task.setUser(userRepository.getReferenceById(userId));
+            Task saved = taskRepository.save(task);
+            searchIndex.index(userId, saved);
+            listVersions.changed(userId);
+            return saved;
         } catch (DataAccessException e) {
-            throw new TaskOperationException("Failed to create task");
+            throw new TaskOperationException("Failed to create task", e);
         }
     }
 
     /**
-     * Get all tasks for a specific user.
+     * Create many tasks for a user in one transaction. Each task is validated on
+     * its own; invalid ones are reported back by position and the valid ones are
+     * inserted with batched statements. Fails as a whole only if the insert does.
      */
-    public List<Task> getTasksForUser(String username) {
+    @Transactional
+    public TaskBatchResult createTasksForUser(List<Task> tasks, Long userId) {
+        if (tasks == null || tasks.isEmpty() || tasks.size() > batch.getMaxSize()) {
+            throw new InvalidRequestException(ErrorCode.INVALID_BATCH,
+                    "Batch must contain between 1 and " + batch.getMaxSize() + " tasks");
+        }
+
+        User owner = userRepository.getReferenceById(userId);
+        List<Task> valid = new ArrayList<>(tasks.size());
+        TaskBatchResult.Item[] items = new TaskBatchResult.Item[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            List<String> errors = validate(tasks.get(i));
+            if (!errors.isEmpty()) {
+                items[i] = TaskBatchResult.Item.rejected(i, errors);
+                continue;
+            }
+            Task task = tasks.get(i);
+            task.setId(null);
+            task.setUser(owner);
+            valid.add(task);
+        }
+
+        try {
+            // Flushed here so a failed insert is reported as a task error, not at commit
+            taskRepository.saveAllAndFlush(valid);
+        } catch (DataAccessException e) {
+            throw new TaskOperationException("Failed to create tasks", e);
+        }
+
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] == null) {
+                Task saved = tasks.get(i);
+                searchIndex.index(userId, saved);
+                items[i] = TaskBatchResult.Item.created(i, saved);
+            }
+        }
+        if (!valid.isEmpty()) {
+            listVersions.changed(userId);
+        }
+        return new TaskBatchResult(valid.size(), tasks.size() - valid.size(), Arrays.asList(items));
+    }
+
+    /**
+     * Set the completed flag on many of a user's tasks with a single owner-scoped
+     * UPDATE, selected either by id or by a filter. With returnTasks the updated
+     * tasks are loaded and returned as well; a filter is then first resolved to
+     * ids so exactly the updated rows come back.
+     */
+    @Transactional
+    public TaskBulkUpdateResult updateTasksForUser(TaskBulkUpdate request, Long userId, boolean returnTasks) {
+        boolean byIds = request != null && request.ids() != null && !request.ids().isEmpty();
+        boolean byFilter = request != null && request.filter() != null;
+        if (request == null || request.completed() == null || byIds == byFilter) {
+            throw new InvalidRequestException(ErrorCode.INVALID_BULK_UPDATE,
+                    "Bulk update needs a completed value and either ids or a filter");
+        }
+        if (byIds && request.ids().size() > batch.getMaxSize()) {
+            throw new InvalidRequestException(ErrorCode.INVALID_BULK_UPDATE,
+                    "Bulk update accepts at most " + batch.getMaxSize() + " ids");
+        }
+        boolean completed = request.completed();
+
         try {
-            return taskRepository.findByUserUsername(username);
+            List<Long> ids = byIds ? request.ids() : null;
+            if (byFilter && returnTasks) {
+                ids = taskRepository.findIdsWhere(userId, request.filter().completed());
+                if (ids.isEmpty()) {
+                    return new TaskBulkUpdateResult(0, List.of());
+                }
+            }
+            int updated = ids != null
+                    ? taskRepository.updateCompletedByIds(userId, ids, completed)
+                    : taskRepository.updateCompletedWhere(userId, request.filter().completed(), completed);
+            if (updated > 0) {
+                listVersions.changed(userId);
+            }
+            if (!returnTasks) {
+                return new TaskBulkUpdateResult(updated, null);
+            }
+            List<Task> tasks = taskRepository.findByUserIdAndIdIn(userId, ids).stream()
+                    .sorted(Comparator.comparing(Task::getId))
+                    .toList();
+            return new TaskBulkUpdateResult(updated, tasks);
         } catch (DataAccessException e) {
-            throw new TaskOperationException("Failed to fetch tasks");
+            throw new TaskOperationException("Failed to update tasks", e);
         }
     }
 
+    /**
+     * Get one page of a user's tasks matching the query, starting after the given
+     * cursor (null for the first page). A null limit means the configured default;
+     * limits above the configured maximum are clamped.
+     */
+    public TaskPage getTasksForUser(Long userId, TaskQuery query, String after, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        TaskCursor cursor = after == null ? null : TaskCursor.decode(after, query);
+
+        List<Task> rows;
+        try {
+            // One extra row tells us whether another page exists
+            rows = taskRepository.findBy(TaskSpecifications.page(userId, query, cursor),
+                    q -> q.sortBy(TaskSpecifications.order(query)).limit(pageSize + 1).all());
+        } catch (DataAccessException e) {
+            throw new TaskOperationException("Failed to fetch tasks", e);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new TaskPage(rows, null);
+        }
+        List<Task> page = rows.subList(0, pageSize);
+        return new TaskPage(page, TaskCursor.encode(query, page.get(pageSize - 1)));
+    }
+
+    /**
+     * Get the ETag of a user's whole task list, from memory. It changes with
+     * every write to the user's tasks; null while it is not known yet.
+     */
+    public String getTaskListTag(Long userId) {
+        return listVersions.etag(userId);
+    }
+
+    /**
+     * Search a user's task titles and descriptions. Every word must match a whole
+     * word of the task; a word ending in '*' matches as a prefix. Returns at most
+     * limit tasks, newest first.
+     */
+    public List<Task> searchTasksForUser(Long userId, String q, Integer limit) {
+        SearchQuery query = SearchQuery.parse(q);
+        if (query.isEmpty()) {
+            throw new InvalidRequestException(ErrorCode.INVALID_SEARCH, "Search query must contain at least one word");
+        }
+        int size = resolvePageSize(limit);
+
+        List<Task> candidates;
+        try {
+            long[] ids = searchIndex.search(userId, query, size);
+            if (ids == null) {
+                candidates = taskRepository.findBy(TaskSpecifications.containing(userId, query),
+                        rows -> rows.sortBy(Sort.by(Sort.Direction.DESC, "id")).limit(size).all());
+            } else if (ids.length == 0) {
+                return List.of();
+            } else {
+                candidates = taskRepository.findByUserIdAndIdIn(userId, Arrays.stream(ids).boxed().toList());
+            }
+        } catch (DataAccessException e) {
+            throw new TaskOperationException("Failed to search tasks", e);
+        }
+
+        return candidates.stream()
+                .filter(task -> query.matches(task.getTitle(), task.getDescription()))
+                .sorted(Comparator.comparing(Task::getId, Comparator.reverseOrder()))
+                .toList();
+    }
+
     /**
      * Get a single task by ID for a specific user.
      */
-    public Task getTaskByIdForUser(Long id, String username) {
-        return taskRepository.findByIdAndUserUsername(id, username)
+    public Task getTaskByIdForUser(Long id, Long userId) {
+        return taskRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new TaskNotFoundException("Task not found or access denied"));
+    }
+
+    /**
+     * Get the current version of a user's task without loading the task, so a
+     * conditional GET can be answered without reading or serializing its text.
+     */
+    public long getTaskVersionForUser(Long id, Long userId) {
+        return taskRepository.findVersionByIdAndUserId(id, userId)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found or access denied"));
     }
 
     /**
      * Update a task for a specific user.
+     * Runs a single owner-scoped UPDATE without loading the task first; a task
+     * that does not exist or belongs to someone else updates no row. A non-null
+     * expectedVersion makes the update conditional on the task still being at
+     * that version.
      */
-    public Task updateTaskForUser(Long id, Task updatedTask, String username) {
-        Task existing = getTaskByIdForUser(id, username); // ensures ownership
+    @Transactional
+    public Task updateTaskForUser(Long id, Task updatedTask, Long userId, Long expectedVersion) {
+        // A query-based update skips the entity lifecycle, so validate as a flush would have
+        Set<ConstraintViolation<Task>> violations = validator.validate(updatedTask);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+
+        int updated;
+        try {
+            updated = taskRepository.updateByIdAndUserId(id, userId, expectedVersion, updatedTask.getTitle(),
+                    updatedTask.getDescription(), updatedTask.isCompleted());
+        } catch (DataAccessException e) {
+            throw new TaskOperationException("Failed to update task", e);
+        }
+        if (updated == 0) {
+            throw notUpdated(id, userId, expectedVersion);
+        }
+
+        // Every column was just written, so only an unconditional update needs to read back its version
+        Task saved = new Task();
+        saved.setId(id);
+        saved.setTitle(updatedTask.getTitle());
+        saved.setDescription(updatedTask.getDescription());
+        saved.setCompleted(updatedTask.isCompleted());
+        saved.setVersion(expectedVersion != null ? expectedVersion + 1 : getTaskVersionForUser(id, userId));
+        saved.setUser(userRepository.getReferenceById(userId));
+        searchIndex.index(userId, saved);
+        listVersions.changed(userId);
+        return saved;
+    }
+
+    /**
+     * Apply a merge patch to a task for a specific user.
+     * Only the patched columns are written, in one owner-scoped UPDATE. The task
+     * is read back afterwards only when the caller wants it returned or its text
+     * changed and the search index needs it; otherwise null is returned. A
+     * non-null expectedVersion makes the patch conditional on the task still
+     * being at that version.
+     */
+    @Transactional
+    public Task patchTaskForUser(Long id, TaskPatch patch, Long userId, Long expectedVersion, boolean returnTask) {
+        if (patch.isEmpty()) {
+            Task current = getTaskByIdForUser(id, userId);
+            if (expectedVersion != null && expectedVersion != current.getVersion()) {
+                throw new TaskVersionMismatchException("Task was changed since version " + expectedVersion);
+            }
+            return returnTask ? current : null;
+        }
+        Set<ConstraintViolation<Task>> violations = new HashSet<>();
+        for (Map.Entry<String, Object> change : patch.changes().entrySet()) {
+            violations.addAll(validator.validateValue(Task.class, change.getKey(), change.getValue()));
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
 
+        int updated;
         try {
-            existing.setTitle(updatedTask.getTitle());
-            existing.setDescription(updatedTask.getDescription());
-            existing.setCompleted(updatedTask.isCompleted());
-            return taskRepository.save(existing);
+            updated = taskRepository.patchByIdAndUserId(id, userId, expectedVersion, patch);
         } catch (DataAccessException e) {
-            throw new TaskOperationException("Failed to update task");
+            throw new TaskOperationException("Failed to update task", e);
+        }
+        if (updated == 0) {
+            throw notUpdated(id, userId, expectedVersion);
+        }
+        listVersions.changed(userId);
+
+        boolean textChanged = patch.touches(TaskPatch.TITLE) || patch.touches(TaskPatch.DESCRIPTION);
+        if (!returnTask && !textChanged) {
+            return null;
         }
+        Task saved = getTaskByIdForUser(id, userId);
+        if (textChanged) {
+            searchIndex.index(userId, saved);
+        }
+        return returnTask ? saved : null;
     }
 
     /**
      * Delete a task for a specific user.
+     * Runs a single owner-scoped DELETE; no row removed means not found or not
+     * owned, or, with a non-null expectedVersion, changed since that version.
      */
-    public void deleteTaskForUser(Long id, String username) {
-        Task existing = getTaskByIdForUser(id, username); // ensures ownership
+    @Transactional
+    public void deleteTaskForUser(Long id, Long userId, Long expectedVersion) {
+        int deleted;
         try {
-            taskRepository.delete(existing);
+            deleted = taskRepository.deleteByIdAndUserId(id, userId, expectedVersion);
         } catch (DataAccessException e) {
-            throw new TaskOperationException("Failed to delete task");
+            throw new TaskOperationException("Failed to delete task", e);
+        }
+        if (deleted == 0) {
+            throw notUpdated(id, userId, expectedVersion);
+        }
+        searchIndex.remove(userId, id);
+        listVersions.changed(userId);
+    }
+
+    /**
+     * Explains a conditional write that matched no row. Only then is the task
+     * looked up, to tell a stale version from a missing task.
+     */
+    private RuntimeException notUpdated(Long id, Long userId, Long expectedVersion) {
+        if (expectedVersion != null && taskRepository.existsByIdAndUserId(id, userId)) {
+            return new TaskVersionMismatchException("Task was changed since version " + expectedVersion);
+        }
+        return new TaskNotFoundException("Task not found or access denied");
+    }
+
+    private List<String> validate(Task task) {
+        if (task == null) {
+            return List.of("Task must not be null");
+        }
+        return validator.validate(task).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return pagination.getDefaultLimit();
+        }
+        if (limit < 1) {
+            throw new InvalidRequestException(ErrorCode.INVALID_LIMIT, "Limit must be at least 1");
         }
+        return Math.min(limit, pagination.getMaxLimit());
     }
 }
@@ -0,0 +1,129 @@
+package com.example.taskManager.services;
+
+import com.example.taskManager.cache.BloomFilter;
+import com.example.taskManager.config.AuthProperties;
+import com.example.taskManager.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of every registered username, so registration can skip the
+ * existence query for names that have certainly never been taken. Until the
+ * startup scan of the users table has finished, every name is reported as
+ * possibly taken and callers fall back to the query.
+ */
+@Component
+public class UsernameFilter implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameFilter.class);
+
+    private final UserRepository userRepository;
+    private final TransactionOperations readOnlyTransaction;
+    private final boolean enabled;
+    private final int expectedUsernames;
+    private final BloomFilter bloom;
+
+    private final AtomicLong insertions = new AtomicLong();
+    private final LongAdder definitelyFree = new LongAdder();
+    private final LongAdder maybeTaken = new LongAdder();
+    private volatile boolean ready;
+
+    @Autowired
+    public UsernameFilter(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                          AuthProperties authProperties) {
+        this(userRepository, readOnly(transactionManager),
+                authProperties.getUsernameFilter().isEnabled(),
+                authProperties.getUsernameFilter().getExpectedUsernames(),
+                authProperties.getUsernameFilter().getFalsePositiveRate());
+    }
+
+    public UsernameFilter(UserRepository userRepository, TransactionOperations readOnlyTransaction,
+                          boolean enabled, int expectedUsernames, double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = readOnlyTransaction;
+        this.enabled = enabled;
+        this.expectedUsernames = expectedUsernames;
+        this.bloom = new BloomFilter(expectedUsernames, falsePositiveRate);
+    }
+
+    /**
+     * Loads all existing usernames with a streaming scan. Names registered while
+     * the scan runs are added by {@link #add} as usual, so none are missed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+                usernames.forEach(this::add);
+            }
+        });
+        ready = true;
+        log.info("Username filter warmed with {} names in {} ms",
+                insertions.get(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * True only if the username has certainly never been registered.
+     */
+    public boolean isDefinitelyFree(String username) {
+        if (ready && !bloom.mightContain(username)) {
+            definitelyFree.increment();
+            return true;
+        }
+        maybeTaken.increment();
+        return false;
+    }
+
+    public void add(String username) {
+        bloom.put(username);
+        if (insertions.incrementAndGet() == expectedUsernames + 1L) {
+            log.warn("Username filter holds more than {} names; its false-positive rate will rise. "
+                    + "Raise auth.username-filter.expected-usernames", expectedUsernames);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("auth.username-filter.size", insertions, AtomicLong::get)
+                .description("Usernames added to the registration Bloom filter")
+                .register(registry);
+        FunctionCounter.builder("auth.username-filter.checks", definitelyFree, LongAdder::sum)
+                .tag("result", "definitely-free")
+                .description("Registration checks answered without a query")
+                .register(registry);
+        FunctionCounter.builder("auth.username-filter.checks", maybeTaken, LongAdder::sum)
+                .tag("result", "maybe-taken")
+                .description("Registration checks that fell back to the users table")
+                .register(registry);
+    }
+
+    private static TransactionOperations readOnly(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.taskManager.benchmark;
+
+import com.example.taskManager.security.JwtUtil;
+import com.example.taskManager.security.VerifiedToken;
+import com.example.taskManager.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of the old filter path (three parses, key and
+ * parser rebuilt every time) against the single-parse {@link JwtUtil#verify},
+ * and the cost of turning away a replayed tampered token with and without the
+ * negative cache in {@link VerifiedTokenCache}.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.example.taskManager.benchmark.JwtVerificationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "DevelopmentOnlySecretKeyForTaskManager123456";
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private String tamperedToken;
+    private VerifiedTokenCache negativeCache;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(SECRET);
+        token = jwtUtil.generateToken("benchmarkUser");
+        tamperedToken = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        negativeCache = new VerifiedTokenCache(false, 0, 1_000, Duration.ofMinutes(10), Clock.systemUTC());
+    }
+
+    @Benchmark
+    public boolean legacyThreeParsePath() {
+        // extractUsername + validateToken(token, username) as the filter used to do
+        String username = legacyClaims(token).getSubject();
+        String extracted = legacyClaims(token).getSubject();
+        Claims claims = legacyClaims(token);
+        return extracted.equals(username) && claims.getExpiration().after(new Date());
+    }
+
+    @Benchmark
+    public VerifiedToken singleParseVerify() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public boolean rejectTamperedByFullVerify() {
+        try {
+            jwtUtil.verify(tamperedToken);
+            return true;
+        } catch (JwtException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean rejectTamperedByNegativeCache() {
+        try {
+            negativeCache.verify(tamperedToken, jwtUtil::verify);
+            return true;
+        } catch (JwtException e) {
+            return false;
+        }
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.taskManager.benchmark;
+
+import com.example.taskManager.TaskManagerApplication;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Time to import 10,000 tasks over HTTP: one {@code POST /api/tasks} per task
+ * (a transaction and an INSERT round trip each) against a single
+ * {@code POST /api/tasks/batch} call (one transaction, JDBC-batched INSERTs
+ * with ids from the pooled sequence).
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.example.taskManager.benchmark.TaskBatchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TaskBatchBenchmark {
+
+    private static final int TASKS = 10_000;
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String base;
+    private String bearer;
+    private String[] singleBodies;
+    private String batchBody;
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .run("--server.port=0",
+                        "--auth.password-hashing.bcrypt-strength=4",
+                        "--auth.throttle.enabled=false",
+                        "--access-log.enabled=false",
+                        "--tasks.batch.max-size=" + TASKS);
+        base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        String credentials = "{\"username\":\"bench\",\"password\":\"benchPassword1\"}";
+        post("/api/auth/register", credentials, null);
+        Matcher matcher = TOKEN.matcher(post("/api/auth/login", credentials, null).body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login did not return a token");
+        }
+        bearer = "Bearer " + matcher.group(1);
+
+        singleBodies = new String[TASKS];
+        StringBuilder batch = new StringBuilder(TASKS * 80).append('[');
+        for (int i = 0; i < TASKS; i++) {
+            singleBodies[i] = "{\"title\":\"Imported task " + i + "\",\"description\":\"from the old tracker\"}";
+            batch.append(i == 0 ? "" : ",").append(singleBodies[i]);
+        }
+        batchBody = batch.append(']').toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int singlePosts() throws IOException, InterruptedException {
+        int created = 0;
+        for (String body : singleBodies) {
+            if (post("/api/tasks", body, bearer).statusCode() == 201) {
+                created++;
+            }
+        }
+        return created;
+    }
+
+    @Benchmark
+    public int oneBatchPost() throws IOException, InterruptedException {
+        return post("/api/tasks/batch", batchBody, bearer).statusCode();
+    }
+
+    private HttpResponse<String> post(String path, String json, String bearer) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (bearer != null) {
+            request.header("Authorization", bearer);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TaskBatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.taskManager.benchmark;
+
+import com.example.taskManager.TaskManagerApplication;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end throughput of {@code GET /api/tasks} over HTTP under each logging
+ * setup: {@code dev} (formatted SQL echo and debug logs, as the default profile
+ * used to behave), the default profile and {@code prod} (async appenders,
+ * sampled access log). Console output goes to the forked JVM's stdout, so
+ * redirect it when running, e.g. {@code > /tmp/bench.log}.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.example.taskManager.benchmark.TaskListBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class TaskListBenchmark {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    @Param({"dev", "default", "prod"})
+    public String profile;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest listTasks;
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .profiles(profile)
+                .run("--server.port=0",
+                        "--auth.password-hashing.bcrypt-strength=4",
+                        "--auth.throttle.enabled=false");
+        String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        String credentials = "{\"username\":\"bench\",\"password\":\"benchPassword1\"}";
+        post(base + "/api/auth/register", credentials, null);
+        Matcher matcher = TOKEN.matcher(post(base + "/api/auth/login", credentials, null));
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login did not return a token");
+        }
+        String bearer = "Bearer " + matcher.group(1);
+        for (int i = 0; i < 20; i++) {
+            post(base + "/api/tasks", "{\"title\":\"Task " + i + "\",\"description\":\"benchmark\"}", bearer);
+        }
+
+        listTasks = HttpRequest.newBuilder(URI.create(base + "/api/tasks"))
+                .header("Authorization", bearer)
+                .GET()
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listTasks() throws IOException, InterruptedException {
+        return client.send(listTasks, HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+    }
+
+    private String post(String url, String json, String bearer) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (bearer != null) {
+            request.header("Authorization", bearer);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TaskListBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.taskManager.benchmark;
+
+import com.example.taskManager.TaskManagerApplication;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cost of the Flutter home screen's refresh of an unchanged 100-task page:
+ * a plain {@code GET /api/tasks} (query and JSON serialization) against the
+ * same request with a matching {@code If-None-Match}, answered 304 from the
+ * in-memory list version.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.example.taskManager.benchmark.TaskListEtagBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskListEtagBenchmark {
+
+    private static final int TASKS = 100;
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String base;
+    private String bearer;
+    private String listTag;
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .run("--server.port=0",
+                        "--auth.password-hashing.bcrypt-strength=4",
+                        "--auth.throttle.enabled=false",
+                        "--access-log.enabled=false");
+        base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        String credentials = "{\"username\":\"bench\",\"password\":\"benchPassword1\"}";
+        post("/api/auth/register", credentials);
+        Matcher matcher = TOKEN.matcher(post("/api/auth/login", credentials).body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login did not return a token");
+        }
+        bearer = "Bearer " + matcher.group(1);
+
+        StringBuilder batch = new StringBuilder().append('[');
+        for (int i = 0; i < TASKS; i++) {
+            batch.append(i == 0 ? "" : ",")
+                    .append("{\"title\":\"Task ").append(i).append("\",\"description\":\"on the home screen\"}");
+        }
+        post("/api/tasks/batch", batch.append(']').toString());
+
+        listTag = get(null).headers().firstValue("ETag")
+                .orElseThrow(() -> new IllegalStateException("Task list has no ETag"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int fullList() throws IOException, InterruptedException {
+        return get(null).body().length();
+    }
+
+    @Benchmark
+    public int notModified() throws IOException, InterruptedException {
+        return get(listTag).statusCode();
+    }
+
+    private HttpResponse<String> get(String ifNoneMatch) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + "/api/tasks"))
+                .header("Authorization", bearer)
+                .GET();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String json) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (bearer != null) {
+            request.header("Authorization", bearer);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TaskListEtagBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
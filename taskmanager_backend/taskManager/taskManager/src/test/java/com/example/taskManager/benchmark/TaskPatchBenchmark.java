@@ -0,0 +1,130 @@
+package com.example.taskManager.benchmark;
+
+import com.example.taskManager.TaskManagerApplication;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cost of toggling the completed flag of a task with a large description over
+ * HTTP: {@code PUT /api/tasks/{id}} with the whole task (every column rewritten,
+ * the task echoed back) against {@code PATCH /api/tasks/{id}} with
+ * {@code {"completed":...}} and {@code Prefer: return=minimal} (only the
+ * completed column written, no response body). Request and response sizes are
+ * printed at setup.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.example.taskManager.benchmark.TaskPatchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskPatchBenchmark {
+
+    @Param({"100", "32768"})
+    public int descriptionLength;
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String base;
+    private String bearer;
+    private String taskPath;
+    private String[] putBodies;
+    private String[] patchBodies;
+    private boolean completed;
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .run("--server.port=0",
+                        "--auth.password-hashing.bcrypt-strength=4",
+                        "--auth.throttle.enabled=false",
+                        "--access-log.enabled=false");
+        base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        String credentials = "{\"username\":\"bench\",\"password\":\"benchPassword1\"}";
+        send("POST", "/api/auth/register", credentials, null);
+        Matcher token = TOKEN.matcher(send("POST", "/api/auth/login", credentials, null).body());
+        if (!token.find()) {
+            throw new IllegalStateException("Login did not return a token");
+        }
+        bearer = "Bearer " + token.group(1);
+
+        String task = "{\"title\":\"Quarterly report\",\"description\":\"" + "x".repeat(descriptionLength) + "\"";
+        Matcher id = ID.matcher(send("POST", "/api/tasks", task + "}", null).body());
+        if (!id.find()) {
+            throw new IllegalStateException("Task was not created");
+        }
+        taskPath = "/api/tasks/" + id.group(1);
+        putBodies = new String[]{task + ",\"completed\":false}", task + ",\"completed\":true}"};
+        patchBodies = new String[]{"{\"completed\":false}", "{\"completed\":true}"};
+
+        HttpResponse<String> put = send("PUT", taskPath, putBodies[1], null);
+        HttpResponse<String> patch = send("PATCH", taskPath, patchBodies[0], "return=minimal");
+        System.out.printf("%nPUT   request %d bytes, response %d bytes (%d)%n",
+                bytes(putBodies[1]), bytes(put.body()), put.statusCode());
+        System.out.printf("PATCH request %d bytes, response %d bytes (%d)%n",
+                bytes(patchBodies[0]), bytes(patch.body()), patch.statusCode());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int putWholeTask() throws IOException, InterruptedException {
+        completed = !completed;
+        return send("PUT", taskPath, putBodies[completed ? 1 : 0], null).statusCode();
+    }
+
+    @Benchmark
+    public int patchCompleted() throws IOException, InterruptedException {
+        completed = !completed;
+        return send("PATCH", taskPath, patchBodies[completed ? 1 : 0], "return=minimal").statusCode();
+    }
+
+    private HttpResponse<String> send(String method, String path, String json, String prefer)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json));
+        if (bearer != null) {
+            request.header("Authorization", bearer);
+        }
+        if (prefer != null) {
+            request.header("Prefer", prefer);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int bytes(String body) {
+        return body.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TaskPatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
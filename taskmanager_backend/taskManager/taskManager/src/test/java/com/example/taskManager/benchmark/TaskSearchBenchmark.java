@@ -0,0 +1,102 @@
+package com.example.taskManager.benchmark;
+
+import com.example.taskManager.search.InvertedIndex;
+import com.example.taskManager.search.SearchQuery;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of {@link InvertedIndex} holding one million tasks, all owned
+ * by one user (the worst case for a per-user partition). Titles are six words
+ * drawn from a Zipf-like vocabulary, so some words appear in a large share of
+ * tasks and most are rare.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.example.taskManager.benchmark.TaskSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class TaskSearchBenchmark {
+
+    private static final int TASKS = 1_000_000;
+    private static final int VOCABULARY = 50_000;
+    private static final Long OWNER = 1L;
+
+    private InvertedIndex index;
+    private SearchQuery rareTerm;
+    private SearchQuery commonTerm;
+    private SearchQuery commonPair;
+    private SearchQuery prefix;
+    private SearchQuery termAndPrefix;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>(VOCABULARY);
+        for (int i = 0; i < VOCABULARY; i++) {
+            words.add("w" + Integer.toString(i, 36));
+        }
+
+        index = new InvertedIndex();
+        Set<String> tokens = new HashSet<>();
+        for (long id = 1; id <= TASKS; id++) {
+            tokens.clear();
+            for (int w = 0; w < 6; w++) {
+                // Cubing skews picks towards low ranks: word 0 is in ~15% of tasks
+                double r = random.nextDouble();
+                tokens.add(words.get((int) (r * r * r * VOCABULARY)));
+            }
+            index.put(OWNER, id, tokens);
+        }
+
+        rareTerm = SearchQuery.parse(words.get(VOCABULARY - 10));
+        commonTerm = SearchQuery.parse(words.get(0));
+        commonPair = SearchQuery.parse(words.get(0) + " " + words.get(1));
+        prefix = SearchQuery.parse("w1*");
+        termAndPrefix = SearchQuery.parse(words.get(500) + " w1*");
+    }
+
+    @Benchmark
+    public long[] rareTerm() {
+        return index.search(OWNER, rareTerm, 100);
+    }
+
+    @Benchmark
+    public long[] commonTerm() {
+        return index.search(OWNER, commonTerm, 100);
+    }
+
+    @Benchmark
+    public long[] twoCommonTerms() {
+        return index.search(OWNER, commonPair, 100);
+    }
+
+    @Benchmark
+    public long[] prefix() {
+        return index.search(OWNER, prefix, 100);
+    }
+
+    @Benchmark
+    public long[] termAndPrefix() {
+        return index.search(OWNER, termAndPrefix, 100);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TaskSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
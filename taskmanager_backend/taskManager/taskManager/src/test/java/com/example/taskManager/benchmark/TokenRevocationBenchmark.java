@@ -0,0 +1,66 @@
+package com.example.taskManager.benchmark;
+
+import com.example.taskManager.security.TokenRevocationList;
+import com.example.taskManager.security.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the per-request revocation check with {@code revokedUsers} users
+ * logged out, for tokens of users that are not revoked (Bloom filter fast path)
+ * and of users that are. Prints the estimated heap use of the list at setup.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.example.taskManager.benchmark.TokenRevocationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenRevocationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int revokedUsers;
+
+    private TokenRevocationList revocations;
+    private VerifiedToken activeToken;
+    private VerifiedToken revokedToken;
+
+    @Setup
+    public void setup() {
+        revocations = new TokenRevocationList(100_000, 0.01, Duration.ofSeconds(1), Clock.systemUTC());
+        for (int i = 0; i < revokedUsers; i++) {
+            revocations.revokeUser("revoked" + i, Duration.ofHours(1));
+        }
+        Instant issuedAt = Instant.now().minusSeconds(60);
+        activeToken = new VerifiedToken("activeUser", issuedAt, issuedAt.plusSeconds(3600));
+        revokedToken = new VerifiedToken("revoked" + (revokedUsers / 2), issuedAt, issuedAt.plusSeconds(3600));
+        System.out.printf("%n%d revoked users, estimated %d KiB%n",
+                revocations.size(), revocations.estimatedMemoryBytes() / 1024);
+    }
+
+    @Benchmark
+    public boolean activeUser() {
+        return revocations.isRevoked(activeToken);
+    }
+
+    @Benchmark
+    public boolean revokedUser() {
+        return revocations.isRevoked(revokedToken);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenRevocationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.taskManager.benchmark;
+
+import com.example.taskManager.TaskManagerApplication;
+import com.example.taskManager.repository.UserRepository;
+import com.example.taskManager.services.AuthService;
+import com.example.taskManager.services.UsernameFilter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk onboarding into a users table that already holds 100,000 accounts:
+ * {@link AuthService#register} with fresh names, and the duplicate check on its
+ * own, with the {@link UsernameFilter} on (names it rules out skip the
+ * {@code existsByUsername} query) and off (every registration queries).
+ * BCrypt runs at cost 4 so the lookup is not lost in the hash.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.example.taskManager.benchmark.UserOnboardingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserOnboardingBenchmark {
+
+    private static final int EXISTING_USERS = 100_000;
+
+    @Param({"true", "false"})
+    public boolean filterEnabled;
+
+    private ConfigurableApplicationContext context;
+    private AuthService authService;
+    private UsernameFilter usernameFilter;
+    private UserRepository userRepository;
+    private long nextUser;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .run("--server.port=0",
+                        "--auth.password-hashing.bcrypt-strength=4",
+                        "--auth.username-filter.enabled=" + filterEnabled,
+                        "--access-log.enabled=false");
+        authService = context.getBean(AuthService.class);
+        usernameFilter = context.getBean(UsernameFilter.class);
+        userRepository = context.getBean(UserRepository.class);
+
+        List<Object[]> rows = new ArrayList<>(EXISTING_USERS);
+        for (int i = 0; i < EXISTING_USERS; i++) {
+            rows.add(new Object[]{"existing" + i, "{bcrypt}not-a-real-hash"});
+        }
+        context.getBean(JdbcTemplate.class)
+                .batchUpdate("insert into users (username, password, is_logged_in) values (?, ?, false)", rows);
+        // The startup scan ran on an empty table; load the seeded names as a restart would
+        usernameFilter.warm();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long register() {
+        return authService.register("onboarded" + nextUser++, "benchPassword1").getId();
+    }
+
+    @Benchmark
+    public boolean checkFreeName() {
+        String username = "free" + nextUser++;
+        return usernameFilter.isDefinitelyFree(username) || !userRepository.existsByUsername(username);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserOnboardingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
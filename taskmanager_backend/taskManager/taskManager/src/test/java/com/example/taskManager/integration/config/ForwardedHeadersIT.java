@@ -0,0 +1,70 @@
+package com.example.taskManager.integration.config;
+
+import com.example.taskManager.security.TokenRejectionTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Requests reach a real Tomcat from the loopback address, which it trusts as a
+ * proxy, so the client address is taken from X-Forwarded-For the way it is
+ * behind the frontend's nginx.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"auth.throttle.ip-capacity=2", "auth.password-hashing.bcrypt-strength=4"})
+@ActiveProfiles("test")
+class ForwardedHeadersIT {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TokenRejectionTracker rejectionTracker;
+
+    @Test
+    void shouldThrottleLoginsPerForwardedClient() {
+        assertEquals(HttpStatus.UNAUTHORIZED, login("ghost1", "198.51.100.1"));
+        assertEquals(HttpStatus.UNAUTHORIZED, login("ghost2", "198.51.100.1"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, login("ghost3", "198.51.100.1"));
+
+        // Another client behind the same proxy has its own bucket
+        assertEquals(HttpStatus.UNAUTHORIZED, login("ghost4", "198.51.100.2"));
+    }
+
+    @Test
+    void shouldTrackRejectedTokensPerForwardedClient() {
+        int tracked = rejectionTracker.trackedClients();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, listTasks("not-a-jwt", "203.0.113.1"));
+        assertEquals(HttpStatus.UNAUTHORIZED, listTasks("not-a-jwt", "203.0.113.1"));
+        assertEquals(HttpStatus.UNAUTHORIZED, listTasks("not-a-jwt", "203.0.113.2"));
+
+        assertEquals(tracked + 2, rejectionTracker.trackedClients());
+    }
+
+    private HttpStatus listTasks(String token, String forwardedFor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.set("X-Forwarded-For", forwardedFor);
+        return HttpStatus.valueOf(restTemplate.exchange("/api/tasks", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class).getStatusCode().value());
+    }
+
+    private HttpStatus login(String username, String forwardedFor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", forwardedFor);
+        String body = "{\"username\":\"" + username + "\",\"password\":\"wrongPassword1\"}";
+        return HttpStatus.valueOf(restTemplate.postForEntity("/api/auth/login",
+                new HttpEntity<>(body, headers), String.class).getStatusCode().value());
+    }
+}
@@ -2,6 +2,7 @@ package com.example.taskManager.integration.controller;
 
 import com.example.taskManager.model.User;
 import com.example.taskManager.repository.UserRepository;
+import com.example.taskManager.security.JwtUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,6 +31,9 @@ class AuthControllerIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private JwtUtil jwtUtil;
+
     @BeforeEach
     void setup() {
         userRepository.deleteAll();
@@ -99,24 +103,20 @@ class AuthControllerIT {
 
     @Test
     void shouldLogoutSuccessfully() throws Exception {
-        var payload = Map.of("username", "demoUser");
-
         mockMvc.perform(post("/api/auth/logout")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(payload)))
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken("demoUser")))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("User logged out successfully"));
     }
 
     @Test
-    void shouldReturnBadRequestWhenUsernameMissingInLogout() throws Exception {
-        var payload = Map.of(); // empty body
+    void shouldRejectLogoutWithoutToken() throws Exception {
+        var payload = Map.of("username", "demoUser");
 
         mockMvc.perform(post("/api/auth/logout")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(payload)))
-                .andExpect(status().isBadRequest())
-                .andExpect(jsonPath("$.error").value("Username is required"));
+                .andExpect(status().isUnauthorized());
     }
 
     // === Inner DTOs for request payloads ===
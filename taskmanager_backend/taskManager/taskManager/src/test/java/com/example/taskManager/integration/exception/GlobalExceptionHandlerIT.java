@@ -15,12 +15,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import static org.hamcrest.Matchers.is;
-import static org.hamcrest.Matchers.notNullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+// Security filters are left out: these endpoints only exercise the exception mapping
 @SpringBootTest
-@AutoConfigureMockMvc
+@AutoConfigureMockMvc(addFilters = false)
 @Import(GlobalExceptionHandlerExtendedIT.TestExceptionController.class)
 @ActiveProfiles("test")
 class GlobalExceptionHandlerExtendedIT {
@@ -58,85 +58,53 @@ class GlobalExceptionHandlerExtendedIT {
     }
 
     // ============================
-    //  RuntimeException Branches
+    //  Status is chosen by type
     // ============================
 
     @Test
-    void msgContainsNotFound_shouldReturn404() throws Exception {
-        mockMvc.perform(get("/test/runtime").param("msg", "record not found in db"))
-                .andExpect(status().isNotFound())
-                .andExpect(jsonPath("$.message", is("record not found in db")))
-                .andExpect(jsonPath("$.timestamp", notNullValue()));
-    }
-
-    @Test
-    void msgContainsInvalidOrUnauthorized_shouldReturn401() throws Exception {
-        mockMvc.perform(get("/test/runtime").param("msg", "invalid login data"))
-                .andExpect(status().isUnauthorized())
-                .andExpect(jsonPath("$.message", is("invalid login data")))
-                .andExpect(jsonPath("$.timestamp", notNullValue()));
-
-        mockMvc.perform(get("/test/runtime").param("msg", "unauthorized access attempt"))
-                .andExpect(status().isUnauthorized())
-                .andExpect(jsonPath("$.message", is("unauthorized access attempt")))
-                .andExpect(jsonPath("$.timestamp", notNullValue()));
-    }
-
-    @Test
-    void dbError_keywords_shouldReturn400_forAllKeywords() throws Exception {
-
+    void plainRuntimeException_shouldReturn500_whateverItsMessage() throws Exception {
         String[] messages = {
-                "record already exists",
+                "record not found in db",
+                "invalid login data",
                 "operation failed unexpectedly",
-                "db down during transaction",
-                "db failure on update",
-                "internal server error inside db module",
-                "logout failed while clearing session",
-                "username already exists in database"
+                "random unmatched message"
         };
 
         for (String msg : messages) {
             mockMvc.perform(get("/test/runtime").param("msg", msg))
-                    .andExpect(status().isBadRequest())
-                    .andExpect(jsonPath("$.message", is(msg)))
-                    .andExpect(jsonPath("$.timestamp", notNullValue()));
+                    .andExpect(status().isInternalServerError())
+                    .andExpect(jsonPath("$.code", is("INTERNAL_ERROR")))
+                    .andExpect(jsonPath("$.message", is("Internal server error")));
         }
     }
 
-    @Test
-    void msgNotMatchingAnything_shouldReturn500() throws Exception {
-        mockMvc.perform(get("/test/runtime").param("msg", "random unmatched message"))
-                .andExpect(status().isInternalServerError())
-                .andExpect(jsonPath("$.message", is("Internal server error")))
-                .andExpect(jsonPath("$.timestamp", notNullValue()));
-    }
-
     // ============================
-    //  Custom Exception Handlers
+    //  Catalogued API exceptions
     // ============================
 
     @Test
     void invalidCredentials_shouldReturn401() throws Exception {
         mockMvc.perform(get("/test/invalid-credentials"))
                 .andExpect(status().isUnauthorized())
-                .andExpect(jsonPath("$.message", is("invalid credentials provided")))
-                .andExpect(jsonPath("$.timestamp", notNullValue()));
+                .andExpect(jsonPath("$.status", is(401)))
+                .andExpect(jsonPath("$.code", is("INVALID_CREDENTIALS")))
+                .andExpect(jsonPath("$.message", is("Invalid username or password")));
     }
 
     @Test
     void userNotFound_shouldReturn404() throws Exception {
         mockMvc.perform(get("/test/user-not-found"))
                 .andExpect(status().isNotFound())
-                .andExpect(jsonPath("$.message", is("user not found in system")))
-                .andExpect(jsonPath("$.timestamp", notNullValue()));
+                .andExpect(jsonPath("$.code", is("USER_NOT_FOUND")))
+                .andExpect(jsonPath("$.message", is("User not found")));
     }
 
     @Test
     void userAlreadyExists_shouldReturn400() throws Exception {
         mockMvc.perform(get("/test/user-exists"))
                 .andExpect(status().isBadRequest())
-                .andExpect(jsonPath("$.message", is("User already exists")))
-                .andExpect(jsonPath("$.timestamp", notNullValue()));
+                .andExpect(jsonPath("$.code", is("USER_ALREADY_EXISTS")))
+                .andExpect(jsonPath("$.message", is("Username already exists")));
     }
 
     // ============================
@@ -147,7 +115,6 @@ class GlobalExceptionHandlerExtendedIT {
     void checkedException_shouldReturn500_genericMessage() throws Exception {
         mockMvc.perform(get("/test/checked"))
                 .andExpect(status().isInternalServerError())
-                .andExpect(jsonPath("$.message", is("Unexpected error occurred")))
-                .andExpect(jsonPath("$.timestamp", notNullValue()));
+                .andExpect(jsonPath("$.message", is("Internal server error")));
     }
 }
@@ -15,4 +15,12 @@ class TaskOperationExceptionTest {
 
         assertEquals(message, ex.getMessage());
     }
+
+    @Test
+    void shouldKeepCause() {
+        IllegalStateException cause = new IllegalStateException("db down");
+        TaskOperationException ex = new TaskOperationException("Failed to fetch tasks", cause);
+
+        assertSame(cause, ex.getCause());
+    }
 }
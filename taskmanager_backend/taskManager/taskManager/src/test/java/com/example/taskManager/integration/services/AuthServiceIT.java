@@ -38,7 +38,7 @@ class AuthServiceIT {
 
     @Test
     void shouldLoginSuccessfullyAndGenerateValidJwt() {
-        String token = authService.login("demoUser", "demoPass");
+        String token = authService.login("demoUser", "demoPass").getToken();
 
         assertNotNull(token, "Token should not be null");
         assertTrue(jwtUtil.validateToken(token, "demoUser"),
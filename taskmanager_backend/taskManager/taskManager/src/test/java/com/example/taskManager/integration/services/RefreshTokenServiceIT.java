@@ -0,0 +1,77 @@
+package com.example.taskManager.integration.services;
+
+import com.example.taskManager.exception.InvalidCredentialsException;
+import com.example.taskManager.model.RefreshToken;
+import com.example.taskManager.model.User;
+import com.example.taskManager.repository.RefreshTokenRepository;
+import com.example.taskManager.repository.UserRepository;
+import com.example.taskManager.services.RefreshTokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenServiceIT {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @MockitoSpyBean
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User demoUser;
+
+    @BeforeEach
+    void setup() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        demoUser = userRepository.save(new User("demoUser", "demoPass"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        // Not transactional, so the rows committed here must not leak into the ITs sharing this context
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldKeepTokenUsableWhenIssuingReplacementFails() {
+        String token = refreshTokenService.issue(demoUser);
+
+        doThrow(new DataIntegrityViolationException("insert failed"))
+                .when(refreshTokenRepository).save(any(RefreshToken.class));
+        assertThrows(DataIntegrityViolationException.class, () -> refreshTokenService.rotate(token));
+        reset(refreshTokenRepository);
+
+        // The mark-used update was rolled back with the failed insert, so this is not reuse
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(token);
+
+        assertEquals("demoUser", rotation.username());
+        assertEquals(2, refreshTokenRepository.count());
+    }
+
+    @Test
+    void shouldCommitFamilyRevocationOnReuse() {
+        String token = refreshTokenService.issue(demoUser);
+        refreshTokenService.rotate(token);
+
+        assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate(token));
+
+        assertEquals(0, refreshTokenRepository.count());
+    }
+}
@@ -1,18 +1,31 @@
 package com.example.taskManager.integration.services;
 
+import com.example.taskManager.dto.TaskBatchResult;
+import com.example.taskManager.dto.TaskBulkUpdate;
+import com.example.taskManager.dto.TaskBulkUpdateResult;
+import com.example.taskManager.dto.TaskPage;
+import com.example.taskManager.dto.TaskPatch;
+import com.example.taskManager.exception.TaskNotFoundException;
+import com.example.taskManager.exception.TaskVersionMismatchException;
+import com.example.taskManager.dto.TaskQuery;
 import com.example.taskManager.model.Task;
 import com.example.taskManager.model.User;
 import com.example.taskManager.repository.TaskRepository;
 import com.example.taskManager.repository.UserRepository;
 import com.example.taskManager.services.TaskService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -41,6 +54,13 @@ class TaskServiceIT {
         demoUser = userRepository.save(demoUser);
     }
 
+    @AfterEach
+    void cleanUp() {
+        // Only the search tests commit; for the rest this is rolled back with the test
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
     @Test
     void shouldCreateAndRetrieveTasksForUserSuccessfully() {
         Task task = new Task();
@@ -48,11 +68,11 @@ class TaskServiceIT {
         task.setDescription("Verifying user-scoped task creation");
 
         // Create task for demoUser
-        Task saved = taskService.createTaskForUser(task, demoUser);
+        Task saved = taskService.createTaskForUser(task, demoUser.getId());
         assertNotNull(saved.getId(), "Task ID should be generated after save");
 
         // Retrieve tasks for that user
-        List<Task> tasks = taskService.getTasksForUser("demoUser");
+        List<Task> tasks = taskService.getTasksForUser(demoUser.getId(), TaskQuery.DEFAULT, null, null).tasks();
         assertFalse(tasks.isEmpty(), "User task list should not be empty");
         assertEquals("User-Specific Integration Task", tasks.get(0).getTitle());
     }
@@ -62,9 +82,9 @@ class TaskServiceIT {
         Task task = new Task();
         task.setTitle("Single Fetch Task");
         task.setDescription("Testing getTaskByIdForUser");
-        Task saved = taskService.createTaskForUser(task, demoUser);
+        Task saved = taskService.createTaskForUser(task, demoUser.getId());
 
-        Task fetched = taskService.getTaskByIdForUser(saved.getId(), "demoUser");
+        Task fetched = taskService.getTaskByIdForUser(saved.getId(), demoUser.getId());
         assertNotNull(fetched);
         assertEquals("Single Fetch Task", fetched.getTitle());
     }
@@ -76,14 +96,14 @@ class TaskServiceIT {
         task.setDescription("Initial Description");
         task.setCompleted(false);
 
-        Task saved = taskService.createTaskForUser(task, demoUser);
+        Task saved = taskService.createTaskForUser(task, demoUser.getId());
 
         Task updated = new Task();
         updated.setTitle("Updated Title");
         updated.setDescription("Updated Description");
         updated.setCompleted(true);
 
-        Task result = taskService.updateTaskForUser(saved.getId(), updated, "demoUser");
+        Task result = taskService.updateTaskForUser(saved.getId(), updated, demoUser.getId(), null);
         assertEquals("Updated Title", result.getTitle());
         assertTrue(result.isCompleted(), "Task should be marked as completed");
     }
@@ -93,9 +113,9 @@ class TaskServiceIT {
         Task task = new Task();
         task.setTitle("Delete Me");
         task.setDescription("Will be removed soon");
-        Task saved = taskService.createTaskForUser(task, demoUser);
+        Task saved = taskService.createTaskForUser(task, demoUser.getId());
 
-        taskService.deleteTaskForUser(saved.getId(), "demoUser");
+        taskService.deleteTaskForUser(saved.getId(), demoUser.getId(), null);
         assertTrue(taskRepository.findById(saved.getId()).isEmpty(), "Task should be deleted from DB");
     }
 
@@ -105,19 +125,19 @@ class TaskServiceIT {
         Task task = new Task();
         task.setTitle("Protected Task");
         task.setDescription("Should not be accessible to others");
-        Task saved = taskService.createTaskForUser(task, demoUser);
+        Task saved = taskService.createTaskForUser(task, demoUser.getId());
 
         // Create another user
         User otherUser = new User("otherUser", "otherPass");
-        userRepository.save(otherUser);
+        otherUser = userRepository.save(otherUser);
 
         // Prepare the throwing call separately
         Long taskId = saved.getId();
-        String otherUsername = otherUser.getUsername();
+        Long otherUserId = otherUser.getId();
 
         // Single invocation inside assertThrows
         RuntimeException ex = assertThrows(RuntimeException.class,
-                () -> taskService.getTaskByIdForUser(taskId, otherUsername),
+                () -> taskService.getTaskByIdForUser(taskId, otherUserId),
                 "Access should be denied for other users");
 
         assertTrue(ex.getMessage().toLowerCase().contains("not found"),
@@ -132,14 +152,204 @@ class TaskServiceIT {
         nonExistent.setCompleted(false);
 
         Long invalidTaskId = 99999L;
-        String username = demoUser.getUsername();
+        Long userId = demoUser.getId();
 
         // Only one method call inside lambda
         RuntimeException ex = assertThrows(RuntimeException.class,
-                () -> taskService.updateTaskForUser(invalidTaskId, nonExistent, username));
+                () -> taskService.updateTaskForUser(invalidTaskId, nonExistent, userId, null));
 
         assertTrue(ex.getMessage().toLowerCase().contains("not found"),
                 "Exception should indicate 'not found'");
     }
 
+    @Test
+    void shouldWalkAllTasksPageByPageWithoutGapsOrRepeats() {
+        for (int i = 0; i < 7; i++) {
+            Task task = new Task();
+            task.setTitle("Paged Task " + i);
+            taskService.createTaskForUser(task, demoUser.getId());
+        }
+
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TaskPage page = taskService.getTasksForUser(demoUser.getId(), TaskQuery.DEFAULT, cursor, 3);
+            page.tasks().forEach(t -> titles.add(t.getTitle()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(7, titles.size());
+        assertEquals("Paged Task 0", titles.get(0));
+        assertEquals("Paged Task 6", titles.get(6));
+    }
+
+    @Test
+    void shouldWalkFilteredTasksByTitleDescending() {
+        String[] titles = {"b", "a", "c", "b", "d", "a"};
+        for (int i = 0; i < titles.length; i++) {
+            Task task = new Task();
+            task.setTitle(titles[i]);
+            task.setCompleted(i % 3 != 2);
+            taskService.createTaskForUser(task, demoUser.getId());
+        }
+
+        TaskQuery query = TaskQuery.of(true, "title", "desc");
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            TaskPage page = taskService.getTasksForUser(demoUser.getId(), query, cursor, 2);
+            page.tasks().forEach(t -> {
+                assertTrue(t.isCompleted());
+                seen.add(t.getTitle());
+            });
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of("d", "b", "b", "a"), seen);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldFindTasksByWordAndPrefixAfterCreateUpdateAndDelete() {
+        Task groceries = new Task();
+        groceries.setTitle("Groceries");
+        groceries.setDescription("Buy milk and bread");
+        groceries = taskService.createTaskForUser(groceries, demoUser.getId());
+
+        Task meeting = new Task();
+        meeting.setTitle("Team meeting");
+        meeting = taskService.createTaskForUser(meeting, demoUser.getId());
+
+        assertEquals(List.of(groceries.getId()), ids(taskService.searchTasksForUser(demoUser.getId(), "MILK", null)));
+        assertEquals(List.of(meeting.getId()), ids(taskService.searchTasksForUser(demoUser.getId(), "meet*", null)));
+
+        Task renamed = new Task();
+        renamed.setTitle("Team standup");
+        taskService.updateTaskForUser(meeting.getId(), renamed, demoUser.getId(), null);
+        assertTrue(taskService.searchTasksForUser(demoUser.getId(), "meeting", null).isEmpty());
+        assertEquals(List.of(meeting.getId()), ids(taskService.searchTasksForUser(demoUser.getId(), "team stand*", null)));
+
+        taskService.deleteTaskForUser(groceries.getId(), demoUser.getId(), null);
+        assertTrue(taskService.searchTasksForUser(demoUser.getId(), "milk", null).isEmpty());
+    }
+
+    @Test
+    void shouldInsertBatchInOneCallAndKeepItsOrder() {
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Task task = new Task();
+            task.setTitle(i == 7 ? "" : "Imported " + i);
+            batch.add(task);
+        }
+
+        TaskBatchResult result = taskService.createTasksForUser(batch, demoUser.getId());
+
+        assertEquals(119, result.created());
+        assertEquals(1, result.rejected());
+        assertNotNull(result.items().get(7).errors());
+        List<Task> stored = taskService.getTasksForUser(demoUser.getId(), TaskQuery.DEFAULT, null, 200).tasks();
+        assertEquals(119, stored.size());
+        assertEquals("Imported 0", stored.get(0).getTitle());
+        assertEquals("Imported 119", stored.get(118).getTitle());
+    }
+
+    @Test
+    void shouldBulkUpdateOnlyOwnTasks() {
+        User otherUser = userRepository.save(new User("otherUser", "otherPass"));
+        List<Long> mine = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Task task = new Task();
+            task.setTitle("Sprint task " + i);
+            mine.add(taskService.createTaskForUser(task, demoUser.getId()).getId());
+        }
+        Task foreign = new Task();
+        foreign.setTitle("Not yours");
+        foreign = taskService.createTaskForUser(foreign, otherUser.getId());
+
+        List<Long> requested = new ArrayList<>(mine.subList(0, 2));
+        requested.add(foreign.getId());
+        TaskBulkUpdateResult byIds = taskService.updateTasksForUser(
+                new TaskBulkUpdate(requested, null, true), demoUser.getId(), true);
+
+        assertEquals(2, byIds.updated());
+        assertEquals(mine.subList(0, 2), ids(byIds.tasks()));
+        assertTrue(byIds.tasks().stream().allMatch(Task::isCompleted));
+        assertFalse(taskService.getTaskByIdForUser(foreign.getId(), otherUser.getId()).isCompleted());
+
+        TaskBulkUpdateResult byFilter = taskService.updateTasksForUser(
+                new TaskBulkUpdate(null, new TaskBulkUpdate.Filter(false), true), demoUser.getId(), false);
+
+        assertEquals(2, byFilter.updated());
+        assertTrue(taskService.getTasksForUser(demoUser.getId(), TaskQuery.of(false, null, null), null, null)
+                .tasks().isEmpty());
+        assertFalse(taskService.getTaskByIdForUser(foreign.getId(), otherUser.getId()).isCompleted());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldPatchOnlySuppliedFieldsOfOwnTask() {
+        User otherUser = userRepository.save(new User("otherUser", "otherPass"));
+        Task task = new Task();
+        task.setTitle("Patch target");
+        task.setDescription("Long notes that should survive a toggle");
+        Task saved = taskService.createTaskForUser(task, demoUser.getId());
+
+        TaskPatch complete = new TaskPatch(Map.of(TaskPatch.COMPLETED, true));
+        assertNull(taskService.patchTaskForUser(saved.getId(), complete, demoUser.getId(), null, false));
+        Task completed = taskService.getTaskByIdForUser(saved.getId(), demoUser.getId());
+        assertTrue(completed.isCompleted());
+        assertEquals("Patch target", completed.getTitle());
+        assertEquals("Long notes that should survive a toggle", completed.getDescription());
+
+        Map<String, Object> changes = new HashMap<>();
+        changes.put(TaskPatch.TITLE, "Patched title");
+        changes.put(TaskPatch.DESCRIPTION, null);
+        Task renamed = taskService.patchTaskForUser(saved.getId(), new TaskPatch(changes), demoUser.getId(),
+                null, true);
+        assertEquals("Patched title", renamed.getTitle());
+        assertNull(renamed.getDescription());
+        assertTrue(renamed.isCompleted());
+        assertEquals(List.of(saved.getId()), ids(taskService.searchTasksForUser(demoUser.getId(), "patched", null)));
+
+        assertThrows(TaskNotFoundException.class,
+                () -> taskService.patchTaskForUser(saved.getId(), complete, otherUser.getId(), null, true));
+    }
+
+    @Test
+    void shouldBumpVersionOnEveryWriteAndRejectStaleOnes() {
+        Task task = new Task();
+        task.setTitle("Versioned");
+        Task saved = taskService.createTaskForUser(task, demoUser.getId());
+        long created = taskService.getTaskVersionForUser(saved.getId(), demoUser.getId());
+
+        Task edit = new Task();
+        edit.setTitle("Edited on web");
+        Task afterPut = taskService.updateTaskForUser(saved.getId(), edit, demoUser.getId(), created);
+        assertEquals(created + 1, afterPut.getVersion());
+
+        Task staleEdit = new Task();
+        staleEdit.setTitle("Edited on mobile");
+        assertThrows(TaskVersionMismatchException.class,
+                () -> taskService.updateTaskForUser(saved.getId(), staleEdit, demoUser.getId(), created));
+        assertEquals("Edited on web", taskService.getTaskByIdForUser(saved.getId(), demoUser.getId()).getTitle());
+
+        TaskPatch complete = new TaskPatch(Map.of(TaskPatch.COMPLETED, true));
+        taskService.patchTaskForUser(saved.getId(), complete, demoUser.getId(), null, false);
+        taskService.updateTasksForUser(new TaskBulkUpdate(List.of(saved.getId()), null, false), demoUser.getId(),
+                false);
+        assertEquals(created + 3, taskService.getTaskVersionForUser(saved.getId(), demoUser.getId()));
+
+        assertThrows(TaskVersionMismatchException.class,
+                () -> taskService.deleteTaskForUser(saved.getId(), demoUser.getId(), created + 1));
+        taskService.deleteTaskForUser(saved.getId(), demoUser.getId(), created + 3);
+        assertThrows(TaskNotFoundException.class,
+                () -> taskService.deleteTaskForUser(saved.getId(), demoUser.getId(), created + 3));
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
 }
@@ -0,0 +1,48 @@
+package com.example.taskManager.unit.cache;
+
+import com.example.taskManager.cache.BloomFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void shouldNeverReportFalseNegatives() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.put("user" + i);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+        }
+    }
+
+    @Test
+    void shouldKeepFalsePositiveRateNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("member" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("outsider" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 300, "Too many false positives: " + falsePositives);
+    }
+
+    @Test
+    void shouldSizeBitsFromExpectedInsertions() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+
+        // ~9.6 bits and 7 hashes per element at 1%
+        assertEquals(7, filter.hashCount());
+        assertTrue(filter.byteSize() < 130_000, "Filter too large: " + filter.byteSize());
+        assertFalse(filter.mightContain("anything"));
+    }
+}
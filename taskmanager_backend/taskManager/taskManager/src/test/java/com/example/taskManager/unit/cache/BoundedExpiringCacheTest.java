@@ -0,0 +1,107 @@
+package com.example.taskManager.unit.cache;
+
+import com.example.taskManager.cache.BoundedExpiringCache;
+import com.example.taskManager.unit.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedExpiringCacheTest {
+
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void shouldReturnValueUntilItExpires() {
+        BoundedExpiringCache<String, String> cache = new BoundedExpiringCache<>(10, clock);
+        cache.put("key", "value", Duration.ofSeconds(5));
+
+        assertEquals("value", cache.get("key"));
+
+        clock.advance(Duration.ofSeconds(5));
+
+        assertNull(cache.get("key"));
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.evictionCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldIgnoreEntriesThatAreAlreadyExpired() {
+        BoundedExpiringCache<String, String> cache = new BoundedExpiringCache<>(10, clock);
+        cache.put("key", "value", clock.millis());
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldStayWithinSizeBound() {
+        BoundedExpiringCache<Integer, Integer> cache = new BoundedExpiringCache<>(20, clock);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, i, Duration.ofMinutes(1));
+        }
+
+        assertTrue(cache.size() <= 20, "Cache grew past its bound: " + cache.size());
+        assertTrue(cache.evictionCount() > 0);
+    }
+
+    @Test
+    void shouldPreferExpiredEntriesWhenFull() {
+        BoundedExpiringCache<Integer, Integer> cache = new BoundedExpiringCache<>(10, clock);
+        for (int i = 0; i < 9; i++) {
+            cache.put(i, i, Duration.ofSeconds(1));
+        }
+        cache.put(100, 100, Duration.ofMinutes(10));
+
+        clock.advance(Duration.ofSeconds(2));
+        cache.put(101, 101, Duration.ofMinutes(10));
+
+        assertEquals(100, cache.get(100));
+        assertEquals(101, cache.get(101));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void shouldInvalidateMatchingEntries() {
+        BoundedExpiringCache<String, String> cache = new BoundedExpiringCache<>(10, clock);
+        cache.put("a", "alice", Duration.ofMinutes(1));
+        cache.put("b", "bob", Duration.ofMinutes(1));
+
+        cache.invalidateIf("alice"::equals);
+        cache.invalidate("missing");
+
+        assertNull(cache.get("a"));
+        assertEquals("bob", cache.get("b"));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldPublishMetrics() {
+        BoundedExpiringCache<String, String> cache = new BoundedExpiringCache<>(10, clock);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry, "test");
+
+        cache.put("key", "value", Duration.ofMinutes(1));
+        cache.get("key");
+        cache.get("other");
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "test").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "test").tag("result", "miss")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.size").tag("cache", "test").gauge().value());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.taskManager.unit.cache;
+
+import com.example.taskManager.cache.StripedTokenBuckets;
+import com.example.taskManager.unit.support.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedTokenBucketsTest {
+
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void shouldAllowBurstThenReportWait() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(3, Duration.ofSeconds(30), 100, 4, clock);
+
+        assertEquals(0, buckets.tryAcquire("alice"));
+        assertEquals(0, buckets.tryAcquire("alice"));
+        assertEquals(0, buckets.tryAcquire("alice"));
+
+        long wait = buckets.tryAcquire("alice");
+        assertEquals(10_000, wait, "One token refills every 10 seconds");
+        assertEquals(0, buckets.tryAcquire("bob"), "Other keys have their own bucket");
+    }
+
+    @Test
+    void shouldRefillOverTime() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(2, Duration.ofSeconds(10), 100, 4, clock);
+        buckets.tryAcquire("alice");
+        buckets.tryAcquire("alice");
+        assertTrue(buckets.tryAcquire("alice") > 0);
+
+        clock.advance(Duration.ofSeconds(5));
+
+        assertEquals(0, buckets.tryAcquire("alice"));
+        assertTrue(buckets.tryAcquire("alice") > 0);
+    }
+
+    @Test
+    void shouldStayWithinEntryBound() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(1, Duration.ofMinutes(1), 64, 8, clock);
+
+        for (int i = 0; i < 10_000; i++) {
+            buckets.tryAcquire("client" + i);
+        }
+
+        assertTrue(buckets.size() <= 64, "Table grew past its bound: " + buckets.size());
+    }
+
+    @Test
+    void shouldKeepSingleStripe() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(1, Duration.ofMinutes(1), 3, 1, clock);
+
+        for (int i = 0; i < 100; i++) {
+            buckets.tryAcquire("client" + i);
+        }
+
+        // Split over two stripes the bound would leave room for only two buckets
+        assertEquals(3, buckets.size());
+    }
+
+    @Test
+    void shouldRejectOutOfRangeStripeCount() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new StripedTokenBuckets(1, Duration.ofMinutes(1), 64, 0, clock));
+        assertThrows(IllegalArgumentException.class,
+                () -> new StripedTokenBuckets(1, Duration.ofMinutes(1), 64, Integer.MAX_VALUE, clock));
+    }
+
+    @Test
+    void shouldNotOverAdmitUnderContention() throws Exception {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(100, Duration.ofHours(1), 100, 4, clock);
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 1_000; i++) {
+            pool.execute(() -> {
+                if (buckets.tryAcquire("shared") == 0) {
+                    admitted.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, admitted.get());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.taskManager.unit.cache;
+
+import com.example.taskManager.cache.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void shouldExpireKeysOnceTheirDeadlinePasses() {
+        TimingWheel<String> wheel = new TimingWheel<>(1_000, 8, 0);
+        wheel.schedule("a", 2_500);
+        wheel.schedule("b", 5_000);
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(2_000, (key, deadline) -> expired.add(key));
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(3_000, (key, deadline) -> expired.add(key));
+        assertEquals(List.of("a"), expired);
+
+        wheel.advance(5_000, (key, deadline) -> expired.add(key));
+        assertEquals(List.of("a", "b"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldKeepDeadlinesBeyondOneRevolution() {
+        TimingWheel<String> wheel = new TimingWheel<>(1_000, 4, 0);
+        wheel.schedule("far", 10_000);
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(6_000, (key, deadline) -> expired.add(key));
+        assertTrue(expired.isEmpty());
+        assertEquals(1, wheel.size());
+
+        wheel.advance(10_000, (key, deadline) -> expired.add(key));
+        assertEquals(List.of("far"), expired);
+    }
+
+    @Test
+    void shouldExpireEverythingDueAfterLongPause() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1_000, 4, 0);
+        for (int i = 1; i <= 10; i++) {
+            wheel.schedule(i, i * 1_000L);
+        }
+        List<Integer> expired = new ArrayList<>();
+
+        wheel.advance(60_000, (key, deadline) -> expired.add(key));
+
+        assertEquals(10, expired.size());
+    }
+
+    @Test
+    void shouldFireOverdueScheduleOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(1_000, 8, 5_000);
+        wheel.schedule("late", 1_000);
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(6_000, (key, deadline) -> expired.add(key));
+
+        assertEquals(List.of("late"), expired);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.taskManager.unit.config;
 
+import com.example.taskManager.config.AuthProperties;
 import com.example.taskManager.config.SecurityConfig;
 import com.example.taskManager.security.JwtAuthenticationFilter;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,6 +9,8 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -31,7 +34,28 @@ public class SecurityConfigTest {
 
     @Test
     void shouldCreatePasswordEncoderBean() {
-        assertThat(securityConfig.passwordEncoder()).isNotNull();
+        AuthProperties authProperties = new AuthProperties();
+        authProperties.getPasswordHashing().setBcryptStrength(4);
+
+        PasswordEncoder encoder = securityConfig.passwordEncoder(authProperties);
+
+        assertThat(encoder).isNotNull();
+        String encoded = encoder.encode("secret");
+        assertThat(encoded).startsWith("{bcrypt}$2a$04$");
+        assertThat(encoder.matches("secret", encoded)).isTrue();
+        assertThat(encoder.upgradeEncoding(encoded)).isFalse();
+    }
+
+    @Test
+    void passwordEncoderShouldMatchLegacyUnprefixedHashesAndFlagThemForRehash() {
+        AuthProperties authProperties = new AuthProperties();
+        authProperties.getPasswordHashing().setBcryptStrength(4);
+        PasswordEncoder encoder = securityConfig.passwordEncoder(authProperties);
+
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(encoder.matches("secret", legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
     }
 
     @Test
@@ -3,15 +3,23 @@ package com.example.taskManager.unit.controller;
 import com.example.taskManager.controller.AuthController;
 import com.example.taskManager.dto.LoginRequest;
 import com.example.taskManager.dto.LoginResponse;
+import com.example.taskManager.dto.RefreshRequest;
 import com.example.taskManager.dto.RegisterRequest;
+import com.example.taskManager.exception.InvalidCredentialsException;
+import com.example.taskManager.exception.ServiceBusyException;
+import com.example.taskManager.exception.TooManyRequestsException;
 import com.example.taskManager.model.User;
+import com.example.taskManager.security.AuthenticatedUser;
+import com.example.taskManager.security.LoginThrottle;
 import com.example.taskManager.services.AuthService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 
 import java.util.Map;
 
@@ -25,6 +33,11 @@ class AuthControllerTest {
     @Mock
     private AuthService authService;
 
+    @Mock
+    private LoginThrottle loginThrottle;
+
+    private final MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+
     @InjectMocks
     private AuthController authController;
 
@@ -41,14 +54,68 @@ class AuthControllerTest {
         request.setUsername("demoUser");
         request.setPassword("demoPass");
 
-        when(authService.login("demoUser", "demoPass")).thenReturn("mock-jwt-token");
+        when(authService.login("demoUser", "demoPass"))
+                .thenReturn(new LoginResponse("mock-jwt-token", "mock-refresh-token"));
 
-        ResponseEntity<?> response = authController.login(request);
+        ResponseEntity<?> response = authController.login(request, httpRequest);
 
         assertEquals(200, response.getStatusCode().value());
         assertNotNull(response.getBody());
         assertTrue(response.getBody() instanceof LoginResponse);
         assertEquals("mock-jwt-token", ((LoginResponse) response.getBody()).getToken());
+        assertEquals("mock-refresh-token", ((LoginResponse) response.getBody()).getRefreshToken());
+    }
+
+    @Test
+    void shouldReturnTooManyRequestsWithoutCheckingPasswordWhenThrottled() {
+        LoginRequest request = new LoginRequest("demoUser", "demoPass");
+        httpRequest.setRemoteAddr("203.0.113.7");
+        when(loginThrottle.acquireLogin("demoUser", "203.0.113.7"))
+                .thenThrow(new TooManyRequestsException("Too many attempts, try again later", 12));
+
+        ResponseEntity<?> response = authController.login(request, httpRequest);
+
+        assertEquals(429, response.getStatusCode().value());
+        assertEquals("12", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        verifyNoInteractions(authService);
+    }
+
+    @Test
+    void shouldReturnTooManyRequestsWhenRegistrationThrottled() {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername("newUser");
+        request.setPassword("password123");
+        when(loginThrottle.acquireRegister(any()))
+                .thenThrow(new TooManyRequestsException("Too many attempts, try again later", 3));
+
+        ResponseEntity<?> response = authController.register(request, httpRequest);
+
+        assertEquals(429, response.getStatusCode().value());
+        verifyNoInteractions(authService);
+    }
+
+    // ====== REFRESH TESTS ======
+
+    @Test
+    void shouldRefreshTokens() {
+        when(authService.refresh("old-refresh"))
+                .thenReturn(new LoginResponse("new-jwt", "new-refresh"));
+
+        ResponseEntity<?> response = authController.refresh(new RefreshRequest("old-refresh"));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("new-refresh", ((LoginResponse) response.getBody()).getRefreshToken());
+    }
+
+    @Test
+    void shouldReturnUnauthorizedForRejectedRefreshToken() {
+        when(authService.refresh("reused"))
+                .thenThrow(new InvalidCredentialsException("Invalid or expired refresh token"));
+
+        ResponseEntity<?> response = authController.refresh(new RefreshRequest("reused"));
+
+        assertEquals(401, response.getStatusCode().value());
+        assertEquals("Invalid or expired refresh token", ((Map<?, ?>) response.getBody()).get("error"));
     }
 
     @Test
@@ -60,7 +127,7 @@ class AuthControllerTest {
         when(authService.login(any(), any()))
                 .thenThrow(new RuntimeException("Invalid credentials"));
 
-        ResponseEntity<?> response = authController.login(request);
+        ResponseEntity<?> response = authController.login(request, httpRequest);
 
         assertEquals(401, response.getStatusCode().value());
         assertNotNull(response.getBody());
@@ -79,7 +146,7 @@ class AuthControllerTest {
         // Simulate a generic runtime failure inside the service
         when(authService.login(any(), any())).thenThrow(new RuntimeException("DB failure"));
 
-        ResponseEntity<?> response = authController.login(request);
+        ResponseEntity<?> response = authController.login(request, httpRequest);
 
         // Controller maps runtime exceptions for login to 401 (observed behavior)
         assertEquals(401, response.getStatusCode().value());
@@ -91,6 +158,21 @@ class AuthControllerTest {
         assertFalse(body.get("error").toString().isEmpty());
     }
 
+    @Test
+    void shouldReturnServiceUnavailableWhenHashingQueueIsFull() {
+        LoginRequest request = new LoginRequest("demoUser", "demoPass");
+
+        when(authService.login(any(), any()))
+                .thenThrow(new ServiceBusyException("Too many authentication requests", 2));
+
+        ResponseEntity<?> response = authController.login(request, httpRequest);
+
+        assertEquals(503, response.getStatusCode().value());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        Map<?, ?> body = (Map<?, ?>) response.getBody();
+        assertTrue(body.get("error").toString().contains("Too many"));
+    }
+
     // ====== REGISTER TESTS ======
 
     @Test
@@ -103,7 +185,7 @@ class AuthControllerTest {
         mockUser.setUsername("newUser");
         when(authService.register("newUser", "newPass")).thenReturn(mockUser);
 
-        ResponseEntity<?> response = authController.register(request);
+        ResponseEntity<?> response = authController.register(request, httpRequest);
 
         assertEquals(201, response.getStatusCode().value());
         assertNotNull(response.getBody());
@@ -121,7 +203,7 @@ class AuthControllerTest {
         when(authService.register(any(), any()))
                 .thenThrow(new RuntimeException("Username already exists"));
 
-        ResponseEntity<?> response = authController.register(request);
+        ResponseEntity<?> response = authController.register(request, httpRequest);
 
         assertEquals(400, response.getStatusCode().value());
         assertNotNull(response.getBody());
@@ -139,7 +221,7 @@ class AuthControllerTest {
 
         when(authService.register(any(), any())).thenThrow(new RuntimeException("DB down"));
 
-        ResponseEntity<?> response = authController.register(request);
+        ResponseEntity<?> response = authController.register(request, httpRequest);
 
         // Controller maps runtime exceptions for register to 400 (observed behavior)
         assertEquals(400, response.getStatusCode().value());
@@ -151,13 +233,24 @@ class AuthControllerTest {
         assertFalse(body.get("error").toString().isEmpty());
     }
 
+    @Test
+    void shouldReturnServiceUnavailableWhenRegisterCannotHash() {
+        RegisterRequest request = new RegisterRequest("newUser", "newPass");
+
+        when(authService.register(any(), any()))
+                .thenThrow(new ServiceBusyException("Too many authentication requests", 1));
+
+        ResponseEntity<?> response = authController.register(request, httpRequest);
+
+        assertEquals(503, response.getStatusCode().value());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
     // ====== LOGOUT TESTS ======
 
     @Test
     void shouldLogoutSuccessfully() {
-        Map<String, String> body = Map.of("username", "demoUser");
-
-        ResponseEntity<?> response = authController.logout(body);
+        ResponseEntity<?> response = authController.logout(new AuthenticatedUser(1L, "demoUser"));
 
         assertEquals(200, response.getStatusCode().value());
         assertNotNull(response.getBody());
@@ -166,28 +259,12 @@ class AuthControllerTest {
         verify(authService).logout("demoUser");
     }
 
-    @Test
-    void shouldReturnBadRequestIfUsernameMissing() {
-        Map<String, String> body = Map.of();
-
-        ResponseEntity<?> response = authController.logout(body);
-
-        assertEquals(400, response.getStatusCode().value());
-        assertNotNull(response.getBody());
-        Map<?, ?> resp = (Map<?, ?>) response.getBody();
-        assertTrue(resp.containsKey("error"));
-        assertNotNull(resp.get("error"));
-        assertFalse(resp.get("error").toString().isEmpty());
-    }
-
     @Test
     void shouldReturnBadRequestOnRuntimeExceptionDuringLogout() {
-        Map<String, String> body = Map.of("username", "badUser");
-
         doThrow(new RuntimeException("Logout failed"))
                 .when(authService).logout("badUser");
 
-        ResponseEntity<?> response = authController.logout(body);
+        ResponseEntity<?> response = authController.logout(new AuthenticatedUser(2L, "badUser"));
 
         assertEquals(400, response.getStatusCode().value());
         assertNotNull(response.getBody());
@@ -199,11 +276,9 @@ class AuthControllerTest {
 
     @Test
     void shouldHandleGenericExceptionDuringLogout() {
-        Map<String, String> body = Map.of("username", "demoUser");
-
         doThrow(new RuntimeException("Internal server error")).when(authService).logout("demoUser");
 
-        ResponseEntity<?> response = authController.logout(body);
+        ResponseEntity<?> response = authController.logout(new AuthenticatedUser(1L, "demoUser"));
 
         // controller returns 400 for runtime logout errors (observed)
         assertEquals(400, response.getStatusCode().value());
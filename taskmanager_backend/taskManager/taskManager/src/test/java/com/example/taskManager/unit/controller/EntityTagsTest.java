@@ -0,0 +1,41 @@
+package com.example.taskManager.unit.controller;
+
+import com.example.taskManager.controller.EntityTags;
+import com.example.taskManager.exception.TaskVersionMismatchException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityTagsTest {
+
+    @Test
+    void shouldQuoteVersion() {
+        assertEquals("\"42\"", EntityTags.of(42));
+    }
+
+    @Test
+    void shouldMatchIfNoneMatchWeaklyAndInLists() {
+        String current = EntityTags.of(3);
+
+        assertTrue(EntityTags.noneMatchHits("\"3\"", current));
+        assertTrue(EntityTags.noneMatchHits("W/\"3\"", current));
+        assertTrue(EntityTags.noneMatchHits("\"1\", \"3\"", current));
+        assertTrue(EntityTags.noneMatchHits("*", current));
+        assertFalse(EntityTags.noneMatchHits("\"2\"", current));
+        assertFalse(EntityTags.noneMatchHits(null, current));
+    }
+
+    @Test
+    void shouldReadIfMatchVersion() {
+        assertEquals(7L, EntityTags.ifMatchVersion(" \"7\" "));
+        assertNull(EntityTags.ifMatchVersion(null));
+        assertNull(EntityTags.ifMatchVersion("*"));
+    }
+
+    @Test
+    void shouldFailPreconditionForTagsThatCannotMatch() {
+        for (String tag : new String[]{"W/\"7\"", "\"7\", \"8\"", "\"abc\"", "7", "\"\""}) {
+            assertThrows(TaskVersionMismatchException.class, () -> EntityTags.ifMatchVersion(tag), tag);
+        }
+    }
+}
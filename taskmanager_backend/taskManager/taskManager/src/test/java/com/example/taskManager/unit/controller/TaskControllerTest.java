@@ -1,12 +1,30 @@
 package com.example.taskManager.unit.controller;
 
+import com.example.taskManager.config.WebConfig;
 import com.example.taskManager.controller.TaskController;
+import com.example.taskManager.dto.TaskBatchResult;
+import com.example.taskManager.dto.TaskBulkUpdate;
+import com.example.taskManager.dto.TaskBulkUpdateResult;
+import com.example.taskManager.dto.TaskCursor;
+import com.example.taskManager.dto.TaskPage;
+import com.example.taskManager.dto.TaskPatch;
+import com.example.taskManager.dto.TaskQuery;
+import com.example.taskManager.exception.ErrorCode;
 import com.example.taskManager.exception.GlobalExceptionHandler;
+import com.example.taskManager.exception.InvalidRequestException;
+import com.example.taskManager.exception.TaskNotFoundException;
+import com.example.taskManager.exception.TaskVersionMismatchException;
 import com.example.taskManager.model.Task;
 import com.example.taskManager.model.User;
-import com.example.taskManager.repository.UserRepository;
+import com.example.taskManager.security.CurrentUserArgumentResolver;
+import com.example.taskManager.security.CustomUserDetails;
+import com.example.taskManager.services.TaskExporter;
 import com.example.taskManager.services.TaskService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -19,13 +37,18 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -34,7 +57,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(TaskController.class)
 @Import(GlobalExceptionHandler.class)
 @AutoConfigureMockMvc(addFilters = false)
-@ContextConfiguration(classes = {TaskController.class, GlobalExceptionHandler.class})
+@ContextConfiguration(classes = {TaskController.class, GlobalExceptionHandler.class,
+        WebConfig.class, CurrentUserArgumentResolver.class})
 class TaskControllerTest {
 
     @Autowired
@@ -44,19 +68,26 @@ class TaskControllerTest {
     private TaskService taskService;
 
     @MockitoBean
-    private UserRepository userRepository;
+    private TaskExporter taskExporter;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    private static final Long USER_ID = 1L;
+
     @AfterEach
     void tearDown() {
         SecurityContextHolder.clearContext();
     }
 
     private void mockAuthenticatedUser(String username) {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setUsername(username);
+        CustomUserDetails principal = new CustomUserDetails(user);
+
         SecurityContext context = SecurityContextHolder.createEmptyContext();
-        context.setAuthentication(new UsernamePasswordAuthenticationToken(username, null, List.of()));
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
         SecurityContextHolder.setContext(context);
     }
 
@@ -75,15 +106,164 @@ class TaskControllerTest {
     void shouldReturnListOfTasksForUser() throws Exception {
         mockAuthenticatedUser("demoUser");
         List<Task> tasks = Arrays.asList(createSampleTask(1L), createSampleTask(2L));
-        when(taskService.getTasksForUser("demoUser")).thenReturn(tasks);
+        when(taskService.getTasksForUser(USER_ID, TaskQuery.DEFAULT, null, null)).thenReturn(new TaskPage(tasks, null));
 
         mockMvc.perform(get("/api/tasks"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].title", is("Sample Task 1")))
-                .andExpect(jsonPath("$[1].title", is("Sample Task 2")));
+                .andExpect(jsonPath("$[1].title", is("Sample Task 2")))
+                .andExpect(header().doesNotExist(TaskController.NEXT_CURSOR_HEADER));
 
-        verify(taskService).getTasksForUser("demoUser");
+        verify(taskService).getTasksForUser(USER_ID, TaskQuery.DEFAULT, null, null);
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks - should tag the list and answer a matching If-None-Match with 304 without a query")
+    void shouldReturn304WhenTaskListUnchanged() throws Exception {
+        mockAuthenticatedUser("demoUser");
+        when(taskService.getTaskListTag(USER_ID)).thenReturn("\"a.b.c-4.0\"");
+        when(taskService.getTasksForUser(USER_ID, TaskQuery.DEFAULT, null, null))
+                .thenReturn(new TaskPage(List.of(createSampleTask(1L)), null));
+
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"a.b.c-4.0\""));
+
+        mockMvc.perform(get("/api/tasks").header("If-None-Match", "\"a.b.c-4.0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"a.b.c-4.0\""))
+                .andExpect(content().string(""));
+
+        verify(taskService, times(1)).getTasksForUser(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks?limit&after - should pass the cursor on and advertise the next page")
+    void shouldReturnNextCursorWhenMoreTasksExist() throws Exception {
+        mockAuthenticatedUser("demoUser");
+        String after = TaskCursor.encode(TaskQuery.DEFAULT, createSampleTask(5L));
+        String next = TaskCursor.encode(TaskQuery.DEFAULT, createSampleTask(7L));
+        when(taskService.getTasksForUser(USER_ID, TaskQuery.DEFAULT, after, 2))
+                .thenReturn(new TaskPage(List.of(createSampleTask(6L), createSampleTask(7L)), next));
+
+        mockMvc.perform(get("/api/tasks").param("limit", "2").param("after", after))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string(TaskController.NEXT_CURSOR_HEADER, next))
+                .andExpect(header().string("Link", "</api/tasks?limit=2&after=" + next + ">; rel=\"next\""));
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks?completed&sort&direction - should filter, sort and keep them in the next link")
+    void shouldPassFilterAndSortToServiceAndNextLink() throws Exception {
+        mockAuthenticatedUser("demoUser");
+        TaskQuery query = TaskQuery.of(true, "title", "desc");
+        String next = TaskCursor.encode(query, createSampleTask(3L));
+        when(taskService.getTasksForUser(USER_ID, query, null, null))
+                .thenReturn(new TaskPage(List.of(createSampleTask(3L)), next));
+
+        mockMvc.perform(get("/api/tasks").param("completed", "true")
+                        .param("sort", "title").param("direction", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Link",
+                        "</api/tasks?completed=true&sort=title&direction=desc&after=" + next + ">; rel=\"next\""));
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks?sort=priority - should return 400")
+    void shouldRejectUnknownSort() throws Exception {
+        mockAuthenticatedUser("demoUser");
+
+        mockMvc.perform(get("/api/tasks").param("sort", "priority"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is("INVALID_SORT")))
+                .andExpect(jsonPath("$.message", is("Unknown sort field: priority")));
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks?after=garbage - should return 400")
+    void shouldRejectMalformedCursor() throws Exception {
+        mockAuthenticatedUser("demoUser");
+        when(taskService.getTasksForUser(USER_ID, TaskQuery.DEFAULT, "garbage", null))
+                .thenThrow(new InvalidRequestException(ErrorCode.INVALID_CURSOR, "Malformed cursor"));
+
+        mockMvc.perform(get("/api/tasks").param("after", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is("INVALID_CURSOR")))
+                .andExpect(jsonPath("$.message", is("Malformed cursor")));
+    }
+
+    // --- SEARCH ---
+    @Test
+    @DisplayName("GET /api/tasks/search?q - should return matching tasks")
+    void shouldSearchTasks() throws Exception {
+        mockAuthenticatedUser("demoUser");
+        when(taskService.searchTasksForUser(USER_ID, "sample", 5))
+                .thenReturn(List.of(createSampleTask(2L), createSampleTask(1L)));
+
+        mockMvc.perform(get("/api/tasks/search").param("q", "sample").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(2)));
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/search without q - should return 400")
+    void shouldRejectSearchWithoutQuery() throws Exception {
+        mockAuthenticatedUser("demoUser");
+
+        mockMvc.perform(get("/api/tasks/search"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
+    // --- EXPORT ---
+    @Test
+    @DisplayName("GET /api/tasks/export - should stream NDJSON by default")
+    void shouldStreamExportAsNdjson() throws Exception {
+        mockAuthenticatedUser("demoUser");
+        doAnswer(inv -> {
+            inv.getArgument(2, OutputStream.class).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(taskExporter).export(eq(USER_ID), eq(TaskExporter.Format.NDJSON), any(OutputStream.class));
+
+        MvcResult started = mockMvc.perform(get("/api/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/export?format=JSON - should stream a JSON array")
+    void shouldStreamExportAsJsonArray() throws Exception {
+        mockAuthenticatedUser("demoUser");
+
+        MvcResult started = mockMvc.perform(get("/api/tasks/export").param("format", "JSON"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+        verify(taskExporter).export(eq(USER_ID), eq(TaskExporter.Format.JSON), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/export?format=xml - should return 400")
+    void shouldRejectUnknownExportFormat() throws Exception {
+        mockAuthenticatedUser("demoUser");
+
+        mockMvc.perform(get("/api/tasks/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is("INVALID_EXPORT_FORMAT")));
     }
 
     // --- GET BY ID ---
@@ -92,28 +272,58 @@ class TaskControllerTest {
     void shouldReturnTaskByIdForUser() throws Exception {
         mockAuthenticatedUser("demoUser");
         Task task = createSampleTask(10L);
-        when(taskService.getTaskByIdForUser(10L, "demoUser")).thenReturn(task);
+        when(taskService.getTaskByIdForUser(10L, USER_ID)).thenReturn(task);
 
         mockMvc.perform(get("/api/tasks/{id}", 10L))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
                 .andExpect(jsonPath("$.id", is(10)))
                 .andExpect(jsonPath("$.title", is("Sample Task 10")));
 
-        verify(taskService).getTaskByIdForUser(10L, "demoUser");
+        verify(taskService).getTaskByIdForUser(10L, USER_ID);
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/{id} - If-None-Match on the current version should return 304 without the task")
+    void shouldReturn304WhenTaskUnchanged() throws Exception {
+        mockAuthenticatedUser("demoUser");
+        when(taskService.getTaskVersionForUser(10L, USER_ID)).thenReturn(6L);
+
+        mockMvc.perform(get("/api/tasks/{id}", 10L).header("If-None-Match", "W/\"6\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"6\""))
+                .andExpect(content().string(""));
+
+        verify(taskService, never()).getTaskByIdForUser(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/{id} - If-None-Match with an old version should return the task")
+    void shouldReturnTaskWhenVersionChanged() throws Exception {
+        mockAuthenticatedUser("demoUser");
+        Task task = createSampleTask(10L);
+        task.setVersion(7L);
+        when(taskService.getTaskVersionForUser(10L, USER_ID)).thenReturn(7L);
+        when(taskService.getTaskByIdForUser(10L, USER_ID)).thenReturn(task);
+
+        mockMvc.perform(get("/api/tasks/{id}", 10L).header("If-None-Match", "\"6\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"7\""))
+                .andExpect(jsonPath("$.version", is(7)));
     }
 
     @Test
     @DisplayName("GET /api/tasks/{id} - missing ID should return 404")
     void shouldReturn404WhenTaskNotFound() throws Exception {
         mockAuthenticatedUser("demoUser");
-        when(taskService.getTaskByIdForUser(99L, "demoUser"))
-                .thenThrow(new RuntimeException("Task not found"));
+        when(taskService.getTaskByIdForUser(99L, USER_ID))
+                .thenThrow(new TaskNotFoundException("Task not found"));
 
         mockMvc.perform(get("/api/tasks/{id}", 99L))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message", containsString("Task not found")));
 
-        verify(taskService).getTaskByIdForUser(99L, "demoUser");
+        verify(taskService).getTaskByIdForUser(99L, USER_ID);
     }
 
     // --- CREATE ---
@@ -122,11 +332,6 @@ class TaskControllerTest {
     void shouldCreateTaskForUser() throws Exception {
         mockAuthenticatedUser("demoUser");
 
-        User user = new User();
-        user.setId(1L);
-        user.setUsername("demoUser");
-        when(userRepository.findByUsername("demoUser")).thenReturn(Optional.of(user));
-
         Task toCreate = new Task();
         toCreate.setTitle("New Task");
         toCreate.setDescription("Test description");
@@ -135,7 +340,7 @@ class TaskControllerTest {
         saved.setTitle("New Task");
         saved.setDescription("Test description");
 
-        when(taskService.createTaskForUser(any(Task.class), eq(user))).thenReturn(saved);
+        when(taskService.createTaskForUser(any(Task.class), eq(USER_ID))).thenReturn(saved);
 
         mockMvc.perform(post("/api/tasks")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -144,7 +349,79 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.id", is(101)))
                 .andExpect(jsonPath("$.title", is("New Task")));
 
-        verify(taskService).createTaskForUser(any(Task.class), eq(user));
+        verify(taskService).createTaskForUser(any(Task.class), eq(USER_ID));
+    }
+
+    @Test
+    @DisplayName("POST /api/tasks/batch - should return per-item results with 201")
+    void shouldCreateTasksInBatch() throws Exception {
+        mockAuthenticatedUser("demoUser");
+        Task saved = createSampleTask(101L);
+        when(taskService.createTasksForUser(anyList(), eq(USER_ID))).thenReturn(new TaskBatchResult(1, 1, List.of(
+                TaskBatchResult.Item.created(0, saved),
+                TaskBatchResult.Item.rejected(1, List.of("title: Title is required")))));
+
+        mockMvc.perform(post("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"Sample Task 101\"},{\"title\":\"\"}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.items[0].task.id", is(101)))
+                .andExpect(jsonPath("$.items[0].errors").doesNotExist())
+                .andExpect(jsonPath("$.items[1].errors[0]", is("title: Title is required")));
+    }
+
+    @Test
+    @DisplayName("POST /api/tasks/batch - should return 400 when nothing was created")
+    void shouldReturn400WhenWholeBatchIsRejected() throws Exception {
+        mockAuthenticatedUser("demoUser");
+        when(taskService.createTasksForUser(anyList(), eq(USER_ID))).thenReturn(new TaskBatchResult(0, 1, List.of(
+                TaskBatchResult.Item.rejected(0, List.of("title: Title is required")))));
+
+        mockMvc.perform(post("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.rejected", is(1)));
+    }
+
+    @Test
+    @DisplayName("POST /api/tasks/bulk-update - should return affected count and optionally rows")
+    void shouldBulkUpdateTasks() throws Exception {
+        mockAuthenticatedUser("demoUser");
+        TaskBulkUpdate request = new TaskBulkUpdate(List.of(1L, 2L), null, true);
+        when(taskService.updateTasksForUser(request, USER_ID, true))
+                .thenReturn(new TaskBulkUpdateResult(2, List.of(createSampleTask(1L), createSampleTask(2L))));
+        when(taskService.updateTasksForUser(request, USER_ID, false))
+                .thenReturn(new TaskBulkUpdateResult(2, null));
+
+        mockMvc.perform(post("/api/tasks/bulk-update").param("returnTasks", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2],\"completed\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", is(2)))
+                .andExpect(jsonPath("$.tasks", hasSize(2)));
+
+        mockMvc.perform(post("/api/tasks/bulk-update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2],\"completed\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", is(2)))
+                .andExpect(jsonPath("$.tasks").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks - should fail when principal is not a loaded user")
+    void shouldReturn404WhenPrincipalIsNotResolved() throws Exception {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken("anonymous", null, List.of()));
+        SecurityContextHolder.setContext(context);
+
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message", containsString("User not found")));
+
+        verifyNoInteractions(taskService);
     }
 
     // --- UPDATE ---
@@ -163,7 +440,7 @@ class TaskControllerTest {
         updated.setDescription("Updated Desc");
         updated.setCompleted(true);
 
-        when(taskService.updateTaskForUser(eq(5L), any(Task.class), eq("demoUser"))).thenReturn(updated);
+        when(taskService.updateTaskForUser(eq(5L), any(Task.class), eq(USER_ID), isNull())).thenReturn(updated);
 
         mockMvc.perform(put("/api/tasks/{id}", 5L)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -173,7 +450,7 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.title", is("Updated Task")))
                 .andExpect(jsonPath("$.completed", is(true)));
 
-        verify(taskService).updateTaskForUser(eq(5L), any(Task.class), eq("demoUser"));
+        verify(taskService).updateTaskForUser(eq(5L), any(Task.class), eq(USER_ID), isNull());
     }
 
     @Test
@@ -184,8 +461,8 @@ class TaskControllerTest {
         Task update = new Task();
         update.setTitle("Ghost Task");
 
-        when(taskService.updateTaskForUser(eq(999L), any(Task.class), eq("demoUser")))
-                .thenThrow(new RuntimeException("Task not found"));
+        when(taskService.updateTaskForUser(eq(999L), any(Task.class), eq(USER_ID), isNull()))
+                .thenThrow(new TaskNotFoundException("Task not found"));
 
         mockMvc.perform(put("/api/tasks/{id}", 999L)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -194,25 +471,125 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.message", containsString("Task not found")));
     }
 
+    @Test
+    @DisplayName("PUT /api/tasks/{id} - should return 400 when the new title is blank")
+    void shouldReturn400OnUpdateWithBlankTitle() throws Exception {
+        mockAuthenticatedUser("demoUser");
+
+        Task blank = new Task();
+        blank.setTitle("");
+        Set<ConstraintViolation<Task>> violations;
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            violations = factory.getValidator().validate(blank);
+        }
+        when(taskService.updateTaskForUser(eq(5L), any(Task.class), eq(USER_ID), isNull()))
+                .thenThrow(new ConstraintViolationException(violations));
+
+        mockMvc.perform(put("/api/tasks/{id}", 5L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is("VALIDATION_FAILED")))
+                .andExpect(jsonPath("$.fields.title", is("Title is required")));
+    }
+
+    @Test
+    @DisplayName("PUT /api/tasks/{id} - should pass If-Match on and answer 412 when the version is stale")
+    void shouldReturn412OnUpdateWithStaleVersion() throws Exception {
+        mockAuthenticatedUser("demoUser");
+
+        when(taskService.updateTaskForUser(eq(5L), any(Task.class), eq(USER_ID), eq(3L)))
+                .thenThrow(new TaskVersionMismatchException("Task was changed since version 3"));
+
+        mockMvc.perform(put("/api/tasks/{id}", 5L)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Edited offline\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code", is("TASK_VERSION_MISMATCH")));
+    }
+
+    // --- PATCH ---
+    @Test
+    @DisplayName("PATCH /api/tasks/{id} - should apply a merge patch and return the task")
+    void shouldPatchTaskForUser() throws Exception {
+        mockAuthenticatedUser("demoUser");
+
+        Task patched = createSampleTask(5L);
+        patched.setCompleted(true);
+        TaskPatch patch = new TaskPatch(Map.of(TaskPatch.COMPLETED, true));
+        when(taskService.patchTaskForUser(5L, patch, USER_ID, null, true)).thenReturn(patched);
+
+        mockMvc.perform(patch("/api/tasks/{id}", 5L)
+                        .contentType(TaskController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"completed\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(5)))
+                .andExpect(jsonPath("$.completed", is(true)));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/tasks/{id} - should answer 204 without a body for Prefer: return=minimal")
+    void shouldPatchTaskWithMinimalReturn() throws Exception {
+        mockAuthenticatedUser("demoUser");
+
+        TaskPatch patch = new TaskPatch(Map.of(TaskPatch.COMPLETED, false));
+
+        mockMvc.perform(patch("/api/tasks/{id}", 5L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Prefer", "return=minimal")
+                        .content("{\"completed\":false}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(TaskController.PREFERENCE_APPLIED_HEADER, "return=minimal"))
+                .andExpect(content().string(""));
+
+        verify(taskService).patchTaskForUser(5L, patch, USER_ID, null, false);
+    }
+
+    @Test
+    @DisplayName("PATCH /api/tasks/{id} - should reject fields that cannot be patched")
+    void shouldRejectPatchOfUnknownField() throws Exception {
+        mockAuthenticatedUser("demoUser");
+
+        mockMvc.perform(patch("/api/tasks/{id}", 5L)
+                        .contentType(TaskController.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"id\":9}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is("INVALID_PATCH")));
+
+        verifyNoInteractions(taskService);
+    }
+
     // --- DELETE ---
     @Test
     @DisplayName("DELETE /api/tasks/{id} - should delete task for user")
     void shouldDeleteTaskForUser() throws Exception {
         mockAuthenticatedUser("demoUser");
-        doNothing().when(taskService).deleteTaskForUser(7L, "demoUser");
+        doNothing().when(taskService).deleteTaskForUser(7L, USER_ID, null);
 
         mockMvc.perform(delete("/api/tasks/{id}", 7L))
                 .andExpect(status().isNoContent());
 
-        verify(taskService).deleteTaskForUser(7L, "demoUser");
+        verify(taskService).deleteTaskForUser(7L, USER_ID, null);
+    }
+
+    @Test
+    @DisplayName("DELETE /api/tasks/{id} - a weak If-Match tag can never match and should return 412")
+    void shouldReturn412OnDeleteWithWeakTag() throws Exception {
+        mockAuthenticatedUser("demoUser");
+
+        mockMvc.perform(delete("/api/tasks/{id}", 7L).header("If-Match", "W/\"2\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verifyNoInteractions(taskService);
     }
 
     @Test
     @DisplayName("DELETE /api/tasks/{id} - should handle missing task with 404")
     void shouldReturn404OnDeleteWhenMissing() throws Exception {
         mockAuthenticatedUser("demoUser");
-        doThrow(new RuntimeException("Task not found"))
-                .when(taskService).deleteTaskForUser(888L, "demoUser");
+        doThrow(new TaskNotFoundException("Task not found"))
+                .when(taskService).deleteTaskForUser(888L, USER_ID, null);
 
         mockMvc.perform(delete("/api/tasks/{id}", 888L))
                 .andExpect(status().isNotFound())
@@ -0,0 +1,68 @@
+package com.example.taskManager.unit.dto;
+
+import com.example.taskManager.dto.TaskCursor;
+import com.example.taskManager.dto.TaskQuery;
+import com.example.taskManager.exception.InvalidRequestException;
+import com.example.taskManager.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskCursorTest {
+
+    private static Task task(long id, String title) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(title);
+        return task;
+    }
+
+    @Test
+    void shouldRoundTripLastId() {
+        String cursor = TaskCursor.encode(TaskQuery.DEFAULT, task(123_456_789L, "ignored"));
+
+        assertEquals(new TaskCursor(123_456_789L, ""), TaskCursor.decode(cursor, TaskQuery.DEFAULT));
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), "Cursor should be URL-safe: " + cursor);
+    }
+
+    @Test
+    void shouldCarryTitleWhenSortingByTitle() {
+        TaskQuery byTitle = TaskQuery.of(null, "title", "desc");
+
+        String cursor = TaskCursor.encode(byTitle, task(7L, "Pay rent | today"));
+
+        assertEquals(new TaskCursor(7L, "Pay rent | today"), TaskCursor.decode(cursor, byTitle));
+    }
+
+    @Test
+    void shouldRejectCursorFromAnotherQuery() {
+        String cursor = TaskCursor.encode(TaskQuery.DEFAULT, task(7L, "a"));
+
+        assertThrows(InvalidRequestException.class,
+                () -> TaskCursor.decode(cursor, TaskQuery.of(true, null, null)));
+        assertThrows(InvalidRequestException.class,
+                () -> TaskCursor.decode(cursor, TaskQuery.of(null, "id", "desc")));
+    }
+
+    @Test
+    void shouldRejectForeignOrDamagedCursors() {
+        String plainNumber = Base64.getUrlEncoder().encodeToString("42".getBytes(StandardCharsets.US_ASCII));
+        String oldFormat = Base64.getUrlEncoder().encodeToString("t1:5".getBytes(StandardCharsets.US_ASCII));
+        String negative = Base64.getUrlEncoder().encodeToString("t2|ia*|-5|".getBytes(StandardCharsets.US_ASCII));
+
+        assertThrows(InvalidRequestException.class, () -> TaskCursor.decode("!!!", TaskQuery.DEFAULT));
+        assertThrows(InvalidRequestException.class, () -> TaskCursor.decode(plainNumber, TaskQuery.DEFAULT));
+        assertThrows(InvalidRequestException.class, () -> TaskCursor.decode(oldFormat, TaskQuery.DEFAULT));
+        assertThrows(InvalidRequestException.class, () -> TaskCursor.decode(negative, TaskQuery.DEFAULT));
+    }
+
+    @Test
+    void shouldRejectUnknownSortOrDirection() {
+        assertThrows(InvalidRequestException.class, () -> TaskQuery.of(null, "priority", null));
+        assertThrows(InvalidRequestException.class, () -> TaskQuery.of(null, "id", "sideways"));
+        assertEquals(TaskQuery.SortField.TITLE, TaskQuery.of(null, "TITLE", "ASC").sortField());
+    }
+}
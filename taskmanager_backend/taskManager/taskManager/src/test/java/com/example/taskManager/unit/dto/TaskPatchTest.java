@@ -0,0 +1,55 @@
+package com.example.taskManager.unit.dto;
+
+import com.example.taskManager.dto.TaskPatch;
+import com.example.taskManager.exception.ErrorCode;
+import com.example.taskManager.exception.InvalidRequestException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskPatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TaskPatch parse(String json) throws Exception {
+        JsonNode node = objectMapper.readTree(json);
+        return TaskPatch.from(node);
+    }
+
+    @Test
+    void shouldKeepOnlyFieldsThatWereSent() throws Exception {
+        TaskPatch patch = parse("{\"completed\":true}");
+
+        assertEquals(Map.of(TaskPatch.COMPLETED, true), patch.changes());
+        assertTrue(patch.touches(TaskPatch.COMPLETED));
+        assertFalse(patch.touches(TaskPatch.DESCRIPTION));
+    }
+
+    @Test
+    void shouldTreatNullDescriptionAsClearingIt() throws Exception {
+        TaskPatch patch = parse("{\"title\":\"New\",\"description\":null}");
+
+        assertEquals("New", patch.changes().get(TaskPatch.TITLE));
+        assertTrue(patch.touches(TaskPatch.DESCRIPTION));
+        assertNull(patch.changes().get(TaskPatch.DESCRIPTION));
+    }
+
+    @Test
+    void shouldAcceptEmptyPatch() throws Exception {
+        assertTrue(parse("{}").isEmpty());
+    }
+
+    @Test
+    void shouldRejectUnknownFieldsWrongTypesAndNonObjects() {
+        for (String json : new String[]{"{\"id\":3}", "{\"completed\":null}", "{\"completed\":\"yes\"}",
+                "{\"title\":5}", "[]", "\"text\""}) {
+            InvalidRequestException e = assertThrows(InvalidRequestException.class, () -> parse(json), json);
+            assertEquals(ErrorCode.INVALID_PATCH, e.getErrorCode());
+        }
+        assertThrows(InvalidRequestException.class, () -> TaskPatch.from(null));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.taskManager.unit.exception;
+
+import com.example.taskManager.exception.ErrorCode;
+import com.example.taskManager.exception.GlobalExceptionHandler;
+import com.example.taskManager.exception.InvalidCredentialsException;
+import com.example.taskManager.exception.InvalidRequestException;
+import com.example.taskManager.exception.TaskNotFoundException;
+import com.example.taskManager.exception.TaskOperationException;
+import com.example.taskManager.exception.TooManyRequestsException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void shouldMapApiExceptionsByTypeToPreEncodedBodies() {
+        ResponseEntity<byte[]> response = handler.handleApiException(new TaskNotFoundException("whatever"));
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertSame(ErrorCode.TASK_NOT_FOUND.body(), response.getBody());
+    }
+
+    @Test
+    void shouldNotMapPlainRuntimeExceptionsByMessage() {
+        ResponseEntity<byte[]> response = handler.handleGenericException(new RuntimeException("record not found"));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertSame(ErrorCode.INTERNAL_ERROR.body(), response.getBody());
+    }
+
+    @Test
+    void shouldKeepSpringMvcStatuses() throws Exception {
+        ResponseEntity<byte[]> response = handler.handleGenericException(
+                new NoResourceFoundException(HttpMethod.GET, "missing"));
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("NOT_FOUND", new ObjectMapper().readTree(response.getBody()).get("code").asText());
+    }
+
+    @Test
+    void shouldKeepInvalidRequestMessages() throws Exception {
+        ResponseEntity<byte[]> response = handler.handleInvalidRequest(
+                new InvalidRequestException(ErrorCode.INVALID_BATCH, "Batch must contain between 1 and 1000 tasks"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        JsonNode body = new ObjectMapper().readTree(response.getBody());
+        assertEquals("INVALID_BATCH", body.get("code").asText());
+        assertEquals("Batch must contain between 1 and 1000 tasks", body.get("message").asText());
+    }
+
+    @Test
+    void shouldEncodeFieldErrors() throws Exception {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("title", "Title is required");
+        fields.put("description", "Say \"why\"");
+
+        JsonNode body = new ObjectMapper().readTree(ErrorCode.encode(HttpStatus.BAD_REQUEST,
+                "VALIDATION_FAILED", "Request validation failed", fields));
+
+        assertEquals("Title is required", body.get("fields").get("title").asText());
+        assertEquals("Say \"why\"", body.get("fields").get("description").asText());
+        assertFalse(new ObjectMapper().readTree(ErrorCode.VALIDATION_FAILED.body()).has("fields"));
+    }
+
+    @Test
+    void shouldSendRetryAfterWhenThrottled() {
+        ResponseEntity<byte[]> response = handler.handleTooManyRequests(new TooManyRequestsException("slow down", 7));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("7", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void shouldEncodeEveryCatalogEntryAsValidJson() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        for (ErrorCode code : ErrorCode.values()) {
+            JsonNode body = mapper.readTree(code.body());
+            assertEquals(code.status().value(), body.get("status").asInt());
+            assertEquals(code.name(), body.get("code").asText());
+            assertEquals(code.message(), body.get("message").asText());
+        }
+    }
+
+    @Test
+    void shouldSkipStackTracesForControlFlowExceptionsOnly() {
+        assertEquals(0, new InvalidCredentialsException("bad password").getStackTrace().length);
+        assertEquals(0, new TaskNotFoundException("missing").getStackTrace().length);
+        assertTrue(new TaskOperationException("db down").getStackTrace().length > 0);
+    }
+}
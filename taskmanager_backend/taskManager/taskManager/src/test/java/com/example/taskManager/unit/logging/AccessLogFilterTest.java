@@ -0,0 +1,98 @@
+package com.example.taskManager.unit.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.taskManager.logging.AccessLogFilter;
+import com.example.taskManager.logging.LogSampler;
+import com.example.taskManager.unit.support.MutableClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogFilterTest {
+
+    private Logger accessLogger;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        accessLogger = (Logger) LoggerFactory.getLogger("access");
+        appender = new ListAppender<>();
+        appender.start();
+        accessLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accessLogger.detachAppender(appender);
+    }
+
+    private MockHttpServletResponse run(AccessLogFilter filter, int status) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(status);
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void shouldLogMethodPathStatusAndDuration() throws Exception {
+        run(new AccessLogFilter(true, 1.0, Duration.ofSeconds(1), new LogSampler(10, Duration.ofMinutes(1))), 200);
+
+        assertEquals(1, appender.list.size());
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals("{} {} {} {}ms", event.getMessage());
+        assertEquals("GET", event.getArgumentArray()[0]);
+        assertEquals("/api/tasks", event.getArgumentArray()[1]);
+        assertEquals(200, event.getArgumentArray()[2]);
+    }
+
+    @Test
+    void shouldSkipUnsampledSuccessesButAlwaysLogFailures() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(true, 0.0, Duration.ofSeconds(1), new LogSampler(10, Duration.ofMinutes(1)));
+
+        run(filter, 200);
+        run(filter, 404);
+
+        assertEquals(1, appender.list.size());
+        assertEquals(404, appender.list.get(0).getArgumentArray()[2]);
+    }
+
+    @Test
+    void shouldLogNothingWhenDisabled() throws Exception {
+        run(new AccessLogFilter(false, 1.0, Duration.ofSeconds(1), new LogSampler(10, Duration.ofMinutes(1))), 500);
+
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void shouldCapUnauthorizedLinesAndReportHowManyWereLeftOut() throws Exception {
+        MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        AccessLogFilter filter = new AccessLogFilter(true, 0.0, Duration.ofSeconds(1),
+                new LogSampler(2, Duration.ofMinutes(1), clock));
+
+        for (int i = 0; i < 5; i++) {
+            run(filter, 401);
+        }
+        run(filter, 500);
+        assertEquals(3, appender.list.size(), "Two 401s and the 500");
+
+        clock.advance(Duration.ofMinutes(1));
+        run(filter, 401);
+
+        assertEquals(4, appender.list.size());
+        ILoggingEvent event = appender.list.get(3);
+        assertEquals(401, event.getArgumentArray()[2]);
+        assertEquals(3L, event.getArgumentArray()[4]);
+    }
+}
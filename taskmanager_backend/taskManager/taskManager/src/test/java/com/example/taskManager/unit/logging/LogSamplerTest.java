@@ -0,0 +1,30 @@
+package com.example.taskManager.unit.logging;
+
+import com.example.taskManager.logging.LogSampler;
+import com.example.taskManager.unit.support.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogSamplerTest {
+
+    @Test
+    void shouldAllowPermitsPerWindowAndCountTheRest() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        LogSampler sampler = new LogSampler(2, Duration.ofMinutes(1), clock);
+
+        assertTrue(sampler.tryAcquire());
+        assertTrue(sampler.tryAcquire());
+        assertFalse(sampler.tryAcquire());
+        assertFalse(sampler.tryAcquire());
+
+        clock.advance(Duration.ofMinutes(1));
+
+        assertTrue(sampler.tryAcquire());
+        assertEquals(2, sampler.takeSuppressed());
+        assertEquals(0, sampler.takeSuppressed());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.taskManager.unit.search;
+
+import com.example.taskManager.search.InvertedIndex;
+import com.example.taskManager.search.SearchQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    private static final Long ALICE = 1L;
+    private static final Long BOB = 2L;
+
+    private static void add(InvertedIndex index, Long owner, long id, String text) {
+        index.put(owner, id, SearchQuery.tokenize(text));
+    }
+
+    @Test
+    void shouldIntersectTermsNewestFirst() {
+        InvertedIndex index = new InvertedIndex();
+        add(index, ALICE, 1, "buy milk");
+        add(index, ALICE, 5, "buy bread and milk");
+        add(index, ALICE, 3, "milk the budget");
+        add(index, ALICE, 9, "buy stamps");
+
+        assertArrayEquals(new long[]{5, 1}, index.search(ALICE, SearchQuery.parse("milk buy"), 10));
+        assertArrayEquals(new long[]{9, 5}, index.search(ALICE, SearchQuery.parse("buy"), 2));
+        assertArrayEquals(new long[0], index.search(ALICE, SearchQuery.parse("buy eggs"), 10));
+    }
+
+    @Test
+    void shouldMatchPrefixesAcrossTokens() {
+        InvertedIndex index = new InvertedIndex();
+        add(index, ALICE, 1, "team meeting");
+        add(index, ALICE, 2, "meet the team");
+        add(index, ALICE, 3, "meetup and meeting notes");
+        add(index, ALICE, 4, "metrics review");
+
+        assertArrayEquals(new long[]{3, 2, 1}, index.search(ALICE, SearchQuery.parse("meet*"), 10));
+        assertArrayEquals(new long[]{2, 1}, index.search(ALICE, SearchQuery.parse("team me*"), 10));
+    }
+
+    @Test
+    void shouldKeepOwnersApart() {
+        InvertedIndex index = new InvertedIndex();
+        add(index, ALICE, 1, "secret plan");
+        add(index, BOB, 2, "secret recipe");
+
+        assertArrayEquals(new long[]{1}, index.search(ALICE, SearchQuery.parse("secret"), 10));
+        assertArrayEquals(new long[0], index.search(3L, SearchQuery.parse("secret"), 10));
+        assertEquals(2, index.ownerCount());
+    }
+
+    @Test
+    void shouldReplaceAndRemoveDocuments() {
+        InvertedIndex index = new InvertedIndex();
+        add(index, ALICE, 1, "buy milk");
+        add(index, ALICE, 1, "buy bread");
+        assertEquals(2, index.postingCount());
+        assertArrayEquals(new long[0], index.search(ALICE, SearchQuery.parse("milk"), 10));
+        assertArrayEquals(new long[]{1}, index.search(ALICE, SearchQuery.parse("bread"), 10));
+
+        index.putIfAbsent(ALICE, 1, SearchQuery.tokenize("stale copy"));
+        assertArrayEquals(new long[0], index.search(ALICE, SearchQuery.parse("stale"), 10));
+
+        index.remove(ALICE, 1);
+        index.remove(ALICE, 42);
+        assertArrayEquals(new long[0], index.search(ALICE, SearchQuery.parse("buy"), 10));
+        assertEquals(0, index.postingCount());
+    }
+
+    @Test
+    void shouldCheckPrefixAgainstCandidatesOfRarerTerm() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 1; id <= 200; id++) {
+            add(index, ALICE, id, "item" + id + (id % 50 == 0 ? " urgent" : ""));
+        }
+
+        assertArrayEquals(new long[]{150, 100}, index.search(ALICE, SearchQuery.parse("urgent item1*"), 10));
+    }
+
+    @Test
+    void shouldKeepPostingsSortedForOutOfOrderInserts() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id : new long[]{50, 10, 40, 20, 30, 60, 5}) {
+            add(index, ALICE, id, "task");
+        }
+
+        assertArrayEquals(new long[]{60, 50, 40, 30, 20, 10, 5},
+                index.search(ALICE, SearchQuery.parse("task"), 100));
+    }
+}
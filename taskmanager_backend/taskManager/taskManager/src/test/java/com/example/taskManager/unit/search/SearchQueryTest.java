@@ -0,0 +1,35 @@
+package com.example.taskManager.unit.search;
+
+import com.example.taskManager.search.SearchQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchQueryTest {
+
+    @Test
+    void shouldTokenizeOnNonWordCharactersAndLowerCase() {
+        assertEquals(Set.of("buy", "milk", "2", "litres", "café"),
+                SearchQuery.tokenize("Buy MILK (2 litres)", null, "buy-café"));
+    }
+
+    @Test
+    void shouldTreatTrailingStarAsPrefix() {
+        SearchQuery query = SearchQuery.parse("  Team meet*  ");
+
+        assertEquals(Set.of("team"), query.terms());
+        assertEquals(Set.of("meet"), query.prefixes());
+        assertTrue(query.matches("Team meeting", null));
+        assertTrue(query.matches("meet", "with the team"));
+        assertFalse(query.matches("Teams meeting", null));
+        assertFalse(query.matches("Team sync", "greet"));
+    }
+
+    @Test
+    void shouldBeEmptyWithoutWords() {
+        assertTrue(SearchQuery.parse(null).isEmpty());
+        assertTrue(SearchQuery.parse(" -- * ").isEmpty());
+    }
+}
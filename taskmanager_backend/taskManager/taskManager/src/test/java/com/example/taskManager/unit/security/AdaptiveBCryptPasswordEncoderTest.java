@@ -0,0 +1,54 @@
+package com.example.taskManager.unit.security;
+
+import com.example.taskManager.security.AdaptiveBCryptPasswordEncoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    @Test
+    void shouldNotUpgradeHashAtConfiguredCost() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+    }
+
+    @Test
+    void shouldUpgradeWeakerHash() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+    }
+
+    @Test
+    void shouldDowngradeStrongerHash() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(4);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+    }
+
+    @Test
+    void shouldFlagNonBCryptValuesButIgnoreNull() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(4);
+
+        assertTrue(encoder.upgradeEncoding("plain-text"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    @Test
+    void calibrationShouldRespectFloor() {
+        // A zero target is always exceeded, so the floor is returned
+        assertEquals(6, AdaptiveBCryptPasswordEncoder.calibrate(Duration.ZERO, 6));
+    }
+
+    @Test
+    void calibrationShouldReturnUsableStrength() {
+        int strength = AdaptiveBCryptPasswordEncoder.calibrate(Duration.ofMillis(20), 4);
+
+        assertTrue(strength >= 4 && strength <= 16, "Unexpected strength " + strength);
+    }
+}
@@ -1,22 +1,39 @@
 package com.example.taskManager.unit.security;
 
+import com.example.taskManager.exception.ErrorCode;
 import com.example.taskManager.security.JwtAuthenticationFilter;
 import com.example.taskManager.security.JwtUtil;
+import com.example.taskManager.security.TokenRejectionTracker;
+import com.example.taskManager.security.TokenRenewer;
+import com.example.taskManager.security.TokenRevocationList;
+import com.example.taskManager.security.VerifiedToken;
+import com.example.taskManager.security.VerifiedTokenCache;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.io.ByteArrayOutputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class JwtAuthenticationFilterTest {
@@ -24,12 +41,22 @@ class JwtAuthenticationFilterTest {
     private JwtAuthenticationFilter filter;
     private JwtUtil jwtUtil;
     private UserDetailsService userDetailsService;
+    private TokenRevocationList tokenRevocationList;
+    private TokenRenewer tokenRenewer;
+    private TokenRejectionTracker rejectionTracker;
+    private ByteArrayOutputStream body;
 
     @BeforeEach
     void setup() {
         jwtUtil = mock(JwtUtil.class);
         userDetailsService = mock(UserDetailsService.class);
-        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService);
+        tokenRevocationList = new TokenRevocationList(100, 0.01, Duration.ofSeconds(1), Clock.systemUTC());
+        tokenRenewer = new TokenRenewer(jwtUtil, tokenRevocationList, true, 0.75, Clock.systemUTC(),
+                new SimpleMeterRegistry());
+        rejectionTracker = new TokenRejectionTracker(100, Duration.ofMinutes(1), 20, Clock.systemUTC());
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService,
+                new VerifiedTokenCache(false, 0, Clock.systemUTC()), tokenRevocationList, tokenRenewer,
+                rejectionTracker);
         SecurityContextHolder.clearContext();
     }
 
@@ -41,11 +68,29 @@ class JwtAuthenticationFilterTest {
         return req;
     }
 
+    private VerifiedToken verifiedFor(String username) {
+        Instant now = Instant.now();
+        return new VerifiedToken(username, now, now.plusSeconds(3600));
+    }
+
     private HttpServletResponse mockResponse() throws Exception {
         HttpServletResponse res = mock(HttpServletResponse.class);
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        when(res.getWriter()).thenReturn(pw);
+        body = new ByteArrayOutputStream();
+        when(res.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
         return res;
     }
 
@@ -57,16 +102,74 @@ class JwtAuthenticationFilterTest {
         FilterChain chain = mock(FilterChain.class);
         var user = new User("testUser", "pass", Collections.emptyList());
 
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
+        when(jwtUtil.verify(token)).thenReturn(verifiedFor("testUser"));
         when(userDetailsService.loadUserByUsername("testUser")).thenReturn(user);
-        when(jwtUtil.validateToken(token, "testUser")).thenReturn(true);
 
         filter.invokeFilterForTest(req, res, chain);
 
         var auth = SecurityContextHolder.getContext().getAuthentication();
         assertNotNull(auth);
         assertEquals("testUser", ((UsernamePasswordAuthenticationToken) auth).getName());
+        // Kept on the request for the async dispatch of a streamed response
+        verify(req).setAttribute(eq(RequestAttributeSecurityContextRepository.DEFAULT_REQUEST_ATTR_NAME),
+                any(SecurityContext.class));
         verify(chain).doFilter(req, res);
+        verify(jwtUtil, times(1)).verify(token);
+        verify(jwtUtil, never()).extractUsername(anyString());
+        verify(jwtUtil, never()).validateToken(anyString(), anyString());
+    }
+
+    @Test
+    void shouldReturnRenewedTokenWhenPastRenewalThreshold() throws Exception {
+        String token = "aging.token";
+        HttpServletRequest req = mockRequest("Bearer " + token);
+        HttpServletResponse res = mockResponse();
+        FilterChain chain = mock(FilterChain.class);
+        Instant issuedAt = Instant.now().minusSeconds(50 * 60);
+
+        when(jwtUtil.verify(token)).thenReturn(new VerifiedToken("agingUser", issuedAt, issuedAt.plusSeconds(3600)));
+        when(jwtUtil.generateToken(eq("agingUser"), any(Instant.class))).thenReturn("renewed.token");
+        when(userDetailsService.loadUserByUsername("agingUser"))
+                .thenReturn(new User("agingUser", "pass", Collections.emptyList()));
+
+        filter.invokeFilterForTest(req, res, chain);
+
+        verify(res).setHeader(TokenRenewer.RENEWED_TOKEN_HEADER, "renewed.token");
+        verify(chain).doFilter(req, res);
+    }
+
+    @Test
+    void shouldNotRenewFreshToken() throws Exception {
+        String token = "fresh.token";
+        HttpServletRequest req = mockRequest("Bearer " + token);
+        HttpServletResponse res = mockResponse();
+        FilterChain chain = mock(FilterChain.class);
+
+        when(jwtUtil.verify(token)).thenReturn(verifiedFor("freshUser"));
+        when(userDetailsService.loadUserByUsername("freshUser"))
+                .thenReturn(new User("freshUser", "pass", Collections.emptyList()));
+
+        filter.invokeFilterForTest(req, res, chain);
+
+        verify(res, never()).setHeader(eq(TokenRenewer.RENEWED_TOKEN_HEADER), anyString());
+    }
+
+    @Test
+    void shouldRejectTokenIssuedBeforeLogout() throws Exception {
+        String token = "revoked.token";
+        HttpServletRequest req = mockRequest("Bearer " + token);
+        HttpServletResponse res = mockResponse();
+        FilterChain chain = mock(FilterChain.class);
+
+        when(jwtUtil.verify(token)).thenReturn(verifiedFor("loggedOutUser"));
+        tokenRevocationList.revokeUser("loggedOutUser", Duration.ofHours(1));
+
+        filter.invokeFilterForTest(req, res, chain);
+
+        verify(res).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        assertArrayEquals(ErrorCode.TOKEN_REVOKED.body(), body.toByteArray());
+        verify(chain, never()).doFilter(req, res);
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
     }
 
     @Test
@@ -82,6 +185,20 @@ class JwtAuthenticationFilterTest {
         assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
 
+    @Test
+    void shouldRequireTokenForLogout() throws Exception {
+        HttpServletRequest req = mockRequest(null);
+        when(req.getRequestURI()).thenReturn(JwtAuthenticationFilter.LOGOUT_PATH);
+        when(req.getMethod()).thenReturn("POST");
+        HttpServletResponse res = mockResponse();
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.invokeFilterForTest(req, res, chain);
+
+        verify(res).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        verify(chain, never()).doFilter(req, res);
+    }
+
     @Test
     void shouldSkipWhenHeaderDoesNotStartWithBearer() throws Exception {
         HttpServletRequest req = mockRequest("Token something");
@@ -100,16 +217,14 @@ class JwtAuthenticationFilterTest {
         HttpServletRequest req = mockRequest("Bearer " + token);
         HttpServletResponse res = mockResponse();
         FilterChain chain = mock(FilterChain.class);
-        var user = new User("testUser", "pass", Collections.emptyList());
 
-        when(jwtUtil.extractUsername(token)).thenReturn("testUser");
-        when(userDetailsService.loadUserByUsername("testUser")).thenReturn(user);
-        when(jwtUtil.validateToken(token, "testUser")).thenReturn(false);
+        when(jwtUtil.verify(token)).thenThrow(new JwtException("Invalid or malformed token: expired"));
 
         filter.invokeFilterForTest(req, res, chain);
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(chain, never()).doFilter(req, res);
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
     }
 
     @Test
@@ -119,10 +234,9 @@ class JwtAuthenticationFilterTest {
         HttpServletResponse res = mockResponse();
         FilterChain chain = mock(FilterChain.class);
 
-        when(jwtUtil.extractUsername(token)).thenReturn("crashUser");
+        when(jwtUtil.verify(token)).thenReturn(verifiedFor("crashUser"));
         when(userDetailsService.loadUserByUsername("crashUser"))
                 .thenThrow(new RuntimeException("DB error"));
-        when(jwtUtil.validateToken(token, "crashUser")).thenReturn(true);
 
         assertDoesNotThrow(() -> filter.invokeFilterForTest(req, res, chain));
         verify(chain, never()).doFilter(req, res);
@@ -134,7 +248,7 @@ class JwtAuthenticationFilterTest {
         HttpServletResponse res = mockResponse();
         FilterChain chain = mock(FilterChain.class);
 
-        doThrow(new RuntimeException("Decode failed")).when(jwtUtil).extractUsername("badtoken");
+        doThrow(new RuntimeException("Decode failed")).when(jwtUtil).verify("badtoken");
 
         filter.invokeFilterForTest(req, res, chain);
 
@@ -149,7 +263,7 @@ class JwtAuthenticationFilterTest {
         HttpServletResponse res = mockResponse();
         FilterChain chain = mock(FilterChain.class);
 
-        when(jwtUtil.extractUsername(token)).thenReturn("user");
+        when(jwtUtil.verify(token)).thenReturn(verifiedFor("user"));
 
         SecurityContextHolder.getContext().setAuthentication(
                 new UsernamePasswordAuthenticationToken("user", null, Collections.emptyList())
@@ -160,4 +274,54 @@ class JwtAuthenticationFilterTest {
         verify(chain).doFilter(req, res);
         assertEquals("user", SecurityContextHolder.getContext().getAuthentication().getPrincipal());
     }
+
+    @Test
+    void shouldReuseCachedVerificationForRepeatedToken() throws Exception {
+        String token = "cached.token";
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService,
+                new VerifiedTokenCache(true, 100, Clock.systemUTC()), tokenRevocationList, tokenRenewer,
+                rejectionTracker);
+        var user = new User("cachedUser", "pass", Collections.emptyList());
+
+        when(jwtUtil.verify(token)).thenReturn(verifiedFor("cachedUser"));
+        when(userDetailsService.loadUserByUsername("cachedUser")).thenReturn(user);
+
+        for (int i = 0; i < 3; i++) {
+            SecurityContextHolder.clearContext();
+            HttpServletRequest req = mockRequest("Bearer " + token);
+            HttpServletResponse res = mockResponse();
+            FilterChain chain = mock(FilterChain.class);
+
+            filter.invokeFilterForTest(req, res, chain);
+
+            verify(chain).doFilter(req, res);
+        }
+
+        verify(jwtUtil, times(1)).verify(token);
+    }
+
+    @Test
+    void shouldRejectReplayedBadTokenWithoutReverifying() throws Exception {
+        String token = "tampered.token";
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService,
+                new VerifiedTokenCache(true, 100, 100, Duration.ofMinutes(10), Clock.systemUTC()),
+                tokenRevocationList, tokenRenewer, rejectionTracker);
+        when(jwtUtil.verify(token)).thenThrow(new JwtException("bad signature"));
+
+        for (int i = 0; i < 3; i++) {
+            HttpServletRequest req = mockRequest("Bearer " + token);
+            when(req.getRemoteAddr()).thenReturn("203.0.113.7");
+            HttpServletResponse res = mockResponse();
+            FilterChain chain = mock(FilterChain.class);
+
+            filter.invokeFilterForTest(req, res, chain);
+
+            verify(res).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            assertArrayEquals(ErrorCode.TOKEN_INVALID.body(), body.toByteArray());
+            verify(chain, never()).doFilter(req, res);
+        }
+
+        verify(jwtUtil, times(1)).verify(token);
+        assertEquals(1, rejectionTracker.trackedClients());
+    }
 }
@@ -1,12 +1,16 @@
 package com.example.taskManager.unit.security;
 
+import com.example.taskManager.config.JwtProperties;
 import com.example.taskManager.security.JwtUtil;
+import com.example.taskManager.security.VerifiedToken;
 import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.test.util.ReflectionTestUtils;
 import org.mockito.Mockito;
 
+import java.time.Duration;
+import java.time.Instant;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -15,8 +19,7 @@ class JwtUtilTest {
     private JwtUtil jwtUtil;
     @BeforeEach
     void setUp() {
-        jwtUtil = new JwtUtil();
-        ReflectionTestUtils.setField(jwtUtil, "secretKey", "DevelopmentOnlySecretKeyForTaskManager123456");
+        jwtUtil = new JwtUtil("DevelopmentOnlySecretKeyForTaskManager123456");
 
         Mockito.mock(JwtUtil.class);
     }
@@ -67,12 +70,83 @@ class JwtUtilTest {
     void validateTokenWithUsername_shouldReturnFalse_whenExtractionFails() {
         JwtUtil spyJwt = spy(jwtUtil);
 
-        doThrow(new RuntimeException("decode failed")).when(spyJwt).extractUsername("broken_token");
+        doThrow(new RuntimeException("decode failed")).when(spyJwt).verify("broken_token");
 
         boolean result = spyJwt.validateToken("broken_token", "user");
 
         assertFalse(result, "Expected validateToken(token, username) to return false when extraction fails");
-        verify(spyJwt).extractUsername("broken_token");
+        verify(spyJwt).verify("broken_token");
+    }
+
+    @Test
+    void verify_shouldReturnSubjectAndTimestamps() {
+        String token = jwtUtil.generateToken("verifiedUser");
+
+        VerifiedToken verified = jwtUtil.verify(token);
+
+        assertEquals("verifiedUser", verified.subject());
+        assertNotNull(verified.issuedAt());
+        assertTrue(verified.expiresAt().isAfter(verified.issuedAt()));
+        assertFalse(verified.isExpired(Instant.now()));
+    }
+
+    @Test
+    void verify_shouldParseTokenOnlyOnce() {
+        JwtUtil spyJwt = spy(jwtUtil);
+        String token = jwtUtil.generateToken("onceUser");
+
+        assertTrue(spyJwt.validateToken(token, "onceUser"));
+
+        verify(spyJwt, times(1)).extractAllClaims(token);
+    }
+
+    @Test
+    void verify_shouldThrowForTamperedToken() {
+        String token = jwtUtil.generateToken("tamperedUser");
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+    }
+
+    @Test
+    void verify_shouldThrowForTokenWithoutExpiration() {
+        String token = io.jsonwebtoken.Jwts.builder()
+                .setSubject("noExpiry")
+                .signWith(io.jsonwebtoken.security.Keys.hmacShaKeyFor(
+                        "DevelopmentOnlySecretKeyForTaskManager123456".getBytes()))
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(token));
+    }
+
+    @Test
+    void generateToken_shouldHonorConfiguredLifetime() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("DevelopmentOnlySecretKeyForTaskManager123456");
+        properties.setExpirationMs(900_000L);
+        JwtUtil shortLived = new JwtUtil(properties);
+
+        VerifiedToken verified = shortLived.verify(shortLived.generateToken("shortUser"));
+
+        assertEquals(Duration.ofMinutes(15), Duration.between(verified.issuedAt(), verified.expiresAt()));
+        assertEquals(Duration.ofMinutes(15), shortLived.getTokenLifetime());
+    }
+
+    @Test
+    void generateToken_shouldSpreadExpiriesWithinJitter() {
+        JwtUtil jittered = new JwtUtil("DevelopmentOnlySecretKeyForTaskManager123456",
+                Duration.ofMinutes(15), Duration.ofMinutes(2));
+        Instant issuedAt = Instant.parse("2030-01-01T00:00:00Z");
+
+        java.util.Set<Instant> expiries = new java.util.HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            Instant expiresAt = jittered.verify(jittered.generateToken("user", issuedAt)).expiresAt();
+            assertFalse(expiresAt.isAfter(issuedAt.plus(Duration.ofMinutes(15))));
+            assertFalse(expiresAt.isBefore(issuedAt.plus(Duration.ofMinutes(13))));
+            expiries.add(expiresAt);
+        }
+
+        assertTrue(expiries.size() > 1, "Expiries should not all be identical");
     }
 
     @Test
@@ -83,7 +157,7 @@ class JwtUtilTest {
 
     @Test
     void validateTokenWithUsername_shouldReturnFalse_whenUserMatchButExpired() {
-        JwtUtil shortExpiry = new JwtUtil() {
+        JwtUtil shortExpiry = new JwtUtil("change-this-to-a-secure-32-char-min-secret-key!") {
             @Override
             public String generateToken(String username) {
                 return io.jsonwebtoken.Jwts.builder()
@@ -104,7 +178,7 @@ class JwtUtilTest {
 
     @Test
     void validateTokenWithUsername_shouldReturnFalse_whenExpired() {
-        JwtUtil shortExpiry = new JwtUtil() {
+        JwtUtil shortExpiry = new JwtUtil("change-this-to-a-secure-32-char-min-secret-key!") {
             @Override
             public String generateToken(String username) {
                 return io.jsonwebtoken.Jwts.builder()
@@ -122,7 +196,7 @@ class JwtUtilTest {
 
     @Test
     void validateTokenWithUsername_shouldReturnFalse_whenUsernameMismatchAndTokenExpired() {
-        JwtUtil shortExpiry = new JwtUtil() {
+        JwtUtil shortExpiry = new JwtUtil("change-this-to-a-secure-32-char-min-secret-key!") {
             @Override
             public String generateToken(String username) {
                 return io.jsonwebtoken.Jwts.builder()
@@ -0,0 +1,93 @@
+package com.example.taskManager.unit.security;
+
+import com.example.taskManager.config.AuthProperties;
+import com.example.taskManager.exception.TooManyRequestsException;
+import com.example.taskManager.security.LoginThrottle;
+import com.example.taskManager.unit.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private AuthProperties.Throttle settings;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        settings = new AuthProperties.Throttle();
+        settings.setUsernameCapacity(2);
+        settings.setUsernameRefillPeriod(Duration.ofMinutes(1));
+        settings.setIpCapacity(3);
+        settings.setIpRefillPeriod(Duration.ofMinutes(1));
+        settings.setMaxInFlight(1);
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void shouldThrottleRepeatedAttemptsOnOneUsername() {
+        LoginThrottle throttle = new LoginThrottle(settings, clock);
+
+        throttle.acquireLogin("alice", "10.0.0.1").close();
+        throttle.acquireLogin("ALICE", "10.0.0.2").close();
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> throttle.acquireLogin("alice", "10.0.0.3"));
+        assertEquals(30, ex.getRetryAfterSeconds());
+    }
+
+    @Test
+    void shouldThrottleOneClientSprayingUsernames() {
+        LoginThrottle throttle = new LoginThrottle(settings, clock);
+
+        for (int i = 0; i < 3; i++) {
+            throttle.acquireLogin("user" + i, "10.0.0.1").close();
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> throttle.acquireLogin("user9", "10.0.0.1"));
+        assertThrows(TooManyRequestsException.class, () -> throttle.acquireRegister("10.0.0.1"));
+    }
+
+    @Test
+    void shouldCapInFlightAttemptsUntilPermitClosed() {
+        LoginThrottle throttle = new LoginThrottle(settings, clock);
+
+        LoginThrottle.Permit permit = throttle.acquireLogin("alice", "10.0.0.1");
+        assertThrows(TooManyRequestsException.class, () -> throttle.acquireLogin("bob", "10.0.0.2"));
+
+        permit.close();
+        permit.close();
+        assertEquals(0, throttle.inFlight());
+        throttle.acquireLogin("carol", "10.0.0.3").close();
+    }
+
+    @Test
+    void shouldAdmitEverythingWhenDisabled() {
+        settings.setEnabled(false);
+        LoginThrottle throttle = new LoginThrottle(settings, clock);
+
+        for (int i = 0; i < 10; i++) {
+            throttle.acquireLogin("alice", "10.0.0.1");
+        }
+        assertEquals(0, throttle.inFlight());
+    }
+
+    @Test
+    void shouldCountRejectionsByReason() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LoginThrottle throttle = new LoginThrottle(settings, clock);
+        throttle.bindTo(registry);
+
+        throttle.acquireLogin("alice", "10.0.0.1").close();
+        throttle.acquireLogin("alice", "10.0.0.1").close();
+        assertThrows(TooManyRequestsException.class, () -> throttle.acquireLogin("alice", "10.0.0.1"));
+
+        assertEquals(1.0, registry.get("auth.throttle.rejected").tag("reason", "username")
+                .functionCounter().count());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.taskManager.unit.security;
+
+import com.example.taskManager.exception.ServiceBusyException;
+import com.example.taskManager.security.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    void shouldDelegateToEncoderAndRecordTimings() {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode("secret")).thenReturn("hashed");
+        when(encoder.matches("secret", "hashed")).thenReturn(true);
+        hasher = new PasswordHasher(encoder, 2, 4, Duration.ofSeconds(1), registry);
+
+        assertEquals("hashed", hasher.encode("secret"));
+        assertTrue(hasher.matches("secret", "hashed"));
+
+        assertEquals(1, registry.get("auth.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(1, registry.get("auth.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void shouldPropagateEncoderExceptions() {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(anyString())).thenThrow(new IllegalArgumentException("bad input"));
+        hasher = new PasswordHasher(encoder, 1, 1, Duration.ofSeconds(1), registry);
+
+        assertThrows(IllegalArgumentException.class, () -> hasher.encode("x"));
+    }
+
+    @Test
+    void shouldRejectWithRetryAfterWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(anyString())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hashed";
+        });
+        hasher = new PasswordHasher(encoder, 1, 1, Duration.ofSeconds(3), registry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.encode("b"));
+        waitForQueueDepth(1);
+
+        ServiceBusyException ex = assertThrows(ServiceBusyException.class, () -> hasher.encode("c"));
+        assertEquals(3, ex.getRetryAfterSeconds());
+        assertEquals(1.0, registry.get("auth.password.hash.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hashed", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("auth.password.hash.queue").gauge().value() < depth) {
+            if (System.nanoTime() > deadline) {
+                fail("Hash request was never queued");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
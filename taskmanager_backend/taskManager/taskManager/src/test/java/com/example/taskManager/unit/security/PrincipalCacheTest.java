@@ -0,0 +1,83 @@
+package com.example.taskManager.unit.security;
+
+import com.example.taskManager.model.User;
+import com.example.taskManager.security.CustomUserDetails;
+import com.example.taskManager.security.PrincipalCache;
+import com.example.taskManager.unit.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    private MutableClock clock;
+    private CustomUserDetails demoUser;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        demoUser = new CustomUserDetails(new User("demoUser", "hashed"));
+    }
+
+    @Test
+    void shouldReturnCachedPrincipalWithinTtl() {
+        PrincipalCache cache = new PrincipalCache(true, Duration.ofMinutes(5), 100, clock);
+        cache.put(demoUser);
+
+        clock.advance(Duration.ofMinutes(4));
+
+        assertSame(demoUser, cache.get("demoUser"));
+    }
+
+    @Test
+    void shouldExpirePrincipalAfterTtl() {
+        PrincipalCache cache = new PrincipalCache(true, Duration.ofMinutes(5), 100, clock);
+        cache.put(demoUser);
+
+        clock.advance(Duration.ofMinutes(5));
+
+        assertNull(cache.get("demoUser"));
+    }
+
+    @Test
+    void shouldForgetEvictedPrincipal() {
+        PrincipalCache cache = new PrincipalCache(true, Duration.ofMinutes(5), 100, clock);
+        cache.put(demoUser);
+
+        cache.evict("demoUser");
+
+        assertNull(cache.get("demoUser"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldNotStoreAnythingWhenDisabled() {
+        PrincipalCache cache = new PrincipalCache(false, Duration.ofMinutes(5), 100, clock);
+        cache.put(demoUser);
+
+        assertNull(cache.get("demoUser"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldPublishCacheStatistics() {
+        PrincipalCache cache = new PrincipalCache(true, Duration.ofMinutes(5), 100, clock);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.get("demoUser");
+        cache.put(demoUser);
+        cache.get("demoUser");
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "auth.principals")
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "auth.principals")
+                .tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.size").tag("cache", "auth.principals").gauge().value());
+    }
+}
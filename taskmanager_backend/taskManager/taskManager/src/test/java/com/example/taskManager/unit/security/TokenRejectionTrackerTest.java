@@ -0,0 +1,68 @@
+package com.example.taskManager.unit.security;
+
+import com.example.taskManager.security.TokenRejectionTracker;
+import com.example.taskManager.unit.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRejectionTrackerTest {
+
+    private MutableClock clock;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        registry = new SimpleMeterRegistry();
+    }
+
+    private double count(String name) {
+        return registry.get(name).functionCounter().count();
+    }
+
+    @Test
+    void shouldFlagClientOnceWhenItReachesThresholdWithinWindow() {
+        TokenRejectionTracker tracker = new TokenRejectionTracker(100, Duration.ofMinutes(1), 3, clock);
+        tracker.bindTo(registry);
+
+        for (int i = 0; i < 5; i++) {
+            tracker.record("203.0.113.7");
+        }
+        tracker.record("198.51.100.1");
+
+        assertEquals(6.0, count("auth.tokens.rejected"));
+        assertEquals(1.0, count("auth.tokens.rejected.flagged-clients"));
+        assertEquals(2.0, registry.get("auth.tokens.rejected.clients").gauge().value());
+    }
+
+    @Test
+    void shouldStartNewCountAfterWindow() {
+        TokenRejectionTracker tracker = new TokenRejectionTracker(100, Duration.ofMinutes(1), 3, clock);
+        tracker.bindTo(registry);
+
+        tracker.record("203.0.113.7");
+        tracker.record("203.0.113.7");
+        clock.advance(Duration.ofMinutes(1));
+        tracker.record("203.0.113.7");
+        tracker.record("203.0.113.7");
+
+        assertEquals(0.0, count("auth.tokens.rejected.flagged-clients"));
+    }
+
+    @Test
+    void shouldStayBoundedUnderSpoofedAddresses() {
+        TokenRejectionTracker tracker = new TokenRejectionTracker(50, Duration.ofMinutes(1), 3, clock);
+
+        for (int i = 0; i < 10_000; i++) {
+            tracker.record("10.0." + (i / 256) + "." + (i % 256));
+        }
+
+        assertTrue(tracker.trackedClients() <= 50, "Tracker grew past its bound: " + tracker.trackedClients());
+    }
+}
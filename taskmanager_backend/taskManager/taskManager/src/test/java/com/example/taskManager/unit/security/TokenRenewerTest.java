@@ -0,0 +1,62 @@
+package com.example.taskManager.unit.security;
+
+import com.example.taskManager.security.JwtUtil;
+import com.example.taskManager.security.TokenRenewer;
+import com.example.taskManager.security.TokenRevocationList;
+import com.example.taskManager.security.VerifiedToken;
+import com.example.taskManager.unit.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRenewerTest {
+
+    private MutableClock clock;
+    private JwtUtil jwtUtil;
+    private TokenRevocationList revocations;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.now());
+        jwtUtil = new JwtUtil("DevelopmentOnlySecretKeyForTaskManager123456");
+        revocations = new TokenRevocationList(100, 0.01, Duration.ofSeconds(1), clock);
+        registry = new SimpleMeterRegistry();
+    }
+
+    private VerifiedToken issuedMinutesAgo(long minutes) {
+        Instant issuedAt = clock.instant().minus(Duration.ofMinutes(minutes));
+        return new VerifiedToken("user", issuedAt, issuedAt.plus(Duration.ofMinutes(60)));
+    }
+
+    @Test
+    void shouldRenewOnlyPastThreshold() {
+        TokenRenewer renewer = new TokenRenewer(jwtUtil, revocations, true, 0.75, clock, registry);
+
+        assertNull(renewer.renewIfDue(issuedMinutesAgo(30)));
+
+        String renewed = renewer.renewIfDue(issuedMinutesAgo(46));
+        assertNotNull(renewed);
+        assertEquals("user", jwtUtil.verify(renewed).subject());
+        assertEquals(1.0, registry.get("auth.tokens.issued").tag("source", "renewal").counter().count());
+    }
+
+    @Test
+    void shouldNotRenewWhenDisabled() {
+        TokenRenewer renewer = new TokenRenewer(jwtUtil, revocations, false, 0.75, clock, registry);
+
+        assertNull(renewer.renewIfDue(issuedMinutesAgo(59)));
+    }
+
+    @Test
+    void shouldNotRenewTokenWithoutIssuedAt() {
+        TokenRenewer renewer = new TokenRenewer(jwtUtil, revocations, true, 0.0, clock, registry);
+
+        assertNull(renewer.renewIfDue(new VerifiedToken("user", null, clock.instant().plusSeconds(60))));
+    }
+}
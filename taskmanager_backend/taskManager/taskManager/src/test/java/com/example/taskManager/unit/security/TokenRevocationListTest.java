@@ -0,0 +1,103 @@
+package com.example.taskManager.unit.security;
+
+import com.example.taskManager.security.TokenRevocationList;
+import com.example.taskManager.security.VerifiedToken;
+import com.example.taskManager.unit.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationListTest {
+
+    private MutableClock clock;
+    private TokenRevocationList revocations;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00.400Z"));
+        revocations = new TokenRevocationList(100, 0.01, Duration.ofSeconds(1), clock);
+    }
+
+    private VerifiedToken tokenIssuedAt(String username, Instant issuedAt) {
+        return new VerifiedToken(username, issuedAt, issuedAt.plusSeconds(3600));
+    }
+
+    @Test
+    void shouldRevokeTokensIssuedBeforeLogout() {
+        Instant issued = clock.instant().minusSeconds(30);
+
+        revocations.revokeUser("alice", Duration.ofHours(1));
+
+        assertTrue(revocations.isRevoked(tokenIssuedAt("alice", issued)));
+        assertTrue(revocations.isRevoked(tokenIssuedAt("alice", clock.instant())));
+        assertFalse(revocations.isRevoked(tokenIssuedAt("bob", issued)));
+    }
+
+    @Test
+    void shouldLetNewLoginIssueTokenPastWatermark() {
+        revocations.revokeUser("alice", Duration.ofHours(1));
+
+        Instant issueAt = revocations.earliestIssueTime("alice");
+
+        assertEquals(Instant.parse("2025-01-01T00:00:01Z"), issueAt);
+        assertFalse(revocations.isRevoked(tokenIssuedAt("alice", issueAt)));
+        assertEquals(clock.instant(), revocations.earliestIssueTime("bob"));
+    }
+
+    @Test
+    void shouldDropWatermarkOnceAllAffectedTokensExpired() {
+        revocations.revokeUser("alice", Duration.ofMinutes(10));
+
+        clock.advance(Duration.ofMinutes(5));
+        revocations.expire();
+        assertEquals(1, revocations.size());
+
+        clock.advance(Duration.ofMinutes(6));
+        revocations.expire();
+        assertEquals(0, revocations.size());
+        assertFalse(revocations.isRevoked(tokenIssuedAt("alice", Instant.EPOCH)));
+    }
+
+    @Test
+    void shouldKeepExtendedWatermarkWhenEarlierDeadlinePasses() {
+        revocations.revokeUser("alice", Duration.ofMinutes(10));
+        clock.advance(Duration.ofMinutes(5));
+        revocations.revokeUser("alice", Duration.ofMinutes(10));
+
+        clock.advance(Duration.ofMinutes(6));
+        revocations.expire();
+
+        assertEquals(1, revocations.size());
+    }
+
+    @Test
+    void shouldGrowBloomFilterPastExpectedEntries() {
+        TokenRevocationList small = new TokenRevocationList(4, 0.01, Duration.ofSeconds(1), clock);
+        for (int i = 0; i < 50; i++) {
+            small.revokeUser("user" + i, Duration.ofHours(1));
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(small.isRevoked(tokenIssuedAt("user" + i, Instant.EPOCH)));
+        }
+    }
+
+    @Test
+    void shouldReportMemoryAndFastPathChecks() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        revocations.bindTo(registry);
+        revocations.revokeUser("alice", Duration.ofHours(1));
+
+        revocations.isRevoked(tokenIssuedAt("bob", clock.instant()));
+
+        assertEquals(1.0, registry.get("auth.revocations.entries").gauge().value());
+        assertTrue(registry.get("auth.revocations.memory").gauge().value() > 0);
+        assertEquals(1.0, registry.get("auth.revocations.checks").tag("path", "bloom")
+                .functionCounter().count());
+    }
+}
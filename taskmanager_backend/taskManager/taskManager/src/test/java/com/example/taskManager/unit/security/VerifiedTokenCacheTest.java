@@ -0,0 +1,157 @@
+package com.example.taskManager.unit.security;
+
+import com.example.taskManager.security.VerifiedToken;
+import com.example.taskManager.security.VerifiedTokenCache;
+import com.example.taskManager.unit.support.MutableClock;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private MutableClock clock;
+    private AtomicInteger verifications;
+    private Function<String, VerifiedToken> verifier;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        verifications = new AtomicInteger();
+        verifier = token -> {
+            verifications.incrementAndGet();
+            return new VerifiedToken("user", clock.instant(), clock.instant().plusSeconds(60));
+        };
+    }
+
+    @Test
+    void shouldVerifyOnlyOnceForRepeatedToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, clock);
+
+        VerifiedToken first = cache.verify("token", verifier);
+        VerifiedToken second = cache.verify("token", verifier);
+
+        assertSame(first, second);
+        assertEquals(1, verifications.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void shouldReverifyAfterTokenExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, clock);
+        cache.verify("token", verifier);
+
+        clock.advance(Duration.ofSeconds(61));
+        cache.verify("token", verifier);
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void shouldNotCacheFailedVerification() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, clock);
+        Function<String, VerifiedToken> failing = token -> {
+            throw new JwtException("bad signature");
+        };
+
+        assertThrows(JwtException.class, () -> cache.verify("bad", failing));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldBypassCacheWhenDisabled() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(false, 100, clock);
+
+        cache.verify("token", verifier);
+        cache.verify("token", verifier);
+
+        assertEquals(2, verifications.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldExposeHitAndMissCounters() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, clock);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.verify("token", verifier);
+        cache.verify("token", verifier);
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "jwt.verified-tokens")
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "jwt.verified-tokens")
+                .tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void shouldRejectRepeatedBadTokenWithoutRunningVerifier() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, 100, Duration.ofMinutes(10), clock);
+        Function<String, VerifiedToken> failing = token -> {
+            verifications.incrementAndGet();
+            throw new JwtException("bad signature");
+        };
+
+        assertThrows(JwtException.class, () -> cache.verify("bad", failing));
+        JwtException repeat = assertThrows(JwtException.class, () -> cache.verify("bad", failing));
+
+        assertInstanceOf(VerifiedTokenCache.RejectedTokenException.class, repeat);
+        assertEquals(0, repeat.getStackTrace().length);
+        assertEquals(1, verifications.get());
+        assertEquals(1, cache.rejectedSize());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldForgetRejectedTokenAfterTtl() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, 100, Duration.ofMinutes(10), clock);
+        Function<String, VerifiedToken> failing = token -> {
+            verifications.incrementAndGet();
+            throw new JwtException("expired");
+        };
+        assertThrows(JwtException.class, () -> cache.verify("bad", failing));
+
+        clock.advance(Duration.ofMinutes(10));
+        assertThrows(JwtException.class, () -> cache.verify("bad", failing));
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void shouldBoundRejectedEntries() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, 50, Duration.ofMinutes(10), clock);
+        Function<String, VerifiedToken> failing = token -> {
+            throw new JwtException("bad signature");
+        };
+
+        for (int i = 0; i < 1_000; i++) {
+            String token = "bad-" + i;
+            assertThrows(JwtException.class, () -> cache.verify(token, failing));
+        }
+
+        assertTrue(cache.rejectedSize() <= 50, "Negative cache grew past its bound: " + cache.rejectedSize());
+    }
+
+    @Test
+    void shouldRememberRejectionsEvenWhenPositiveCacheDisabled() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(false, 100, 100, Duration.ofMinutes(10), clock);
+        Function<String, VerifiedToken> failing = token -> {
+            verifications.incrementAndGet();
+            throw new JwtException("bad signature");
+        };
+
+        assertThrows(JwtException.class, () -> cache.verify("bad", failing));
+        assertThrows(JwtException.class, () -> cache.verify("bad", failing));
+        cache.verify("good", verifier);
+        cache.verify("good", verifier);
+
+        assertEquals(3, verifications.get());
+    }
+}
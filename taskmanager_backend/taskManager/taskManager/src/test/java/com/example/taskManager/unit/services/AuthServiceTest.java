@@ -1,15 +1,29 @@
 package com.example.taskManager.unit.services;
 
+import com.example.taskManager.dto.LoginResponse;
+import com.example.taskManager.exception.UserAlreadyExistsException;
 import com.example.taskManager.model.User;
 import com.example.taskManager.repository.UserRepository;
 import com.example.taskManager.security.JwtUtil;
+import com.example.taskManager.security.PasswordHasher;
+import com.example.taskManager.security.PrincipalCache;
+import com.example.taskManager.security.TokenRevocationList;
 import com.example.taskManager.services.AuthService;
+import com.example.taskManager.services.LoginStateRegistry;
+import com.example.taskManager.services.RefreshTokenService;
+import com.example.taskManager.services.UsernameFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -21,15 +35,33 @@ class AuthServiceTest {
         private UserRepository userRepository;
         private JwtUtil jwtUtil;
         private PasswordEncoder passwordEncoder;
+        private PasswordHasher passwordHasher;
+        private PrincipalCache principalCache;
+        private LoginStateRegistry loginStateRegistry;
+        private TokenRevocationList tokenRevocationList;
+        private RefreshTokenService refreshTokenService;
+        private SimpleMeterRegistry meterRegistry;
+        private UsernameFilter usernameFilter;
         private AuthService authService;
 
         @BeforeEach
         void setup() {
                 userRepository = mock(UserRepository.class);
-                jwtUtil = new JwtUtil();
-                ReflectionTestUtils.setField(jwtUtil, "secretKey", "DevelopmentOnlySecretKeyForTaskManager123456");
+                jwtUtil = new JwtUtil("DevelopmentOnlySecretKeyForTaskManager123456");
                 passwordEncoder = mock(PasswordEncoder.class);
-                authService = new AuthService(userRepository, jwtUtil, passwordEncoder);
+                principalCache = mock(PrincipalCache.class);
+                passwordHasher = new PasswordHasher(passwordEncoder, 1, 4, Duration.ofSeconds(1),
+                                new SimpleMeterRegistry());
+                loginStateRegistry = new LoginStateRegistry(userRepository, 100);
+                tokenRevocationList = new TokenRevocationList(100, 0.01, Duration.ofSeconds(1),
+                                Clock.systemUTC());
+                refreshTokenService = mock(RefreshTokenService.class);
+                meterRegistry = new SimpleMeterRegistry();
+                usernameFilter = new UsernameFilter(userRepository, TransactionOperations.withoutTransaction(),
+                                true, 1_000, 0.01);
+                authService = new AuthService(userRepository, jwtUtil, passwordHasher, principalCache,
+                                loginStateRegistry, tokenRevocationList, refreshTokenService, usernameFilter,
+                                meterRegistry);
 
                 when(passwordEncoder.encode(anyString())).thenAnswer(inv -> "hashed_" + inv.getArgument(0));
                 when(passwordEncoder.matches(anyString(), anyString()))
@@ -41,6 +73,11 @@ class AuthServiceTest {
 
         }
 
+        @AfterEach
+        void tearDown() {
+                passwordHasher.shutdown();
+        }
+
         @Test
         void shouldLoginSuccessfully() {
                 User user = new User("demoUser", "hashed_1234");
@@ -48,13 +85,44 @@ class AuthServiceTest {
 
                 when(userRepository.findByUsername("demoUser")).thenReturn(Optional.of(user));
 
-                String token = authService.login("demoUser", "1234");
+                when(refreshTokenService.issue(user)).thenReturn("refresh-1");
+
+                LoginResponse response = authService.login("demoUser", "1234");
+                String token = response.getToken();
 
                 assertNotNull(token, "JWT token should not be null after successful login");
+                assertEquals("refresh-1", response.getRefreshToken());
+                assertEquals(1, meterRegistry.get("auth.logins").tag("result", "success").timer().count());
+                assertEquals(1.0, meterRegistry.get("auth.tokens.issued").tag("source", "login").counter().count());
                 assertTrue(jwtUtil.validateToken(token, "demoUser"), "Token should be valid for the username");
                 verify(userRepository).findByUsername("demoUser");
+                verify(userRepository, never()).save(any());
+                assertTrue(loginStateRegistry.isOnline("demoUser"), "User should be marked as logged in after login");
+                assertEquals(1, loginStateRegistry.pendingCount(), "Login state should wait for the next flush");
+        }
+
+        @Test
+        void shouldRehashPasswordWhenStoredCostIsOutdated() {
+                User user = new User("demoUser", "hashed_1234");
+                when(userRepository.findByUsername("demoUser")).thenReturn(Optional.of(user));
+                when(passwordEncoder.upgradeEncoding("hashed_1234")).thenReturn(true);
+
+                authService.login("demoUser", "1234");
+
+                verify(passwordEncoder).encode("1234");
                 verify(userRepository).save(user);
-                assertTrue(user.isLoggedIn(), "User should be marked as logged in after login");
+                verify(principalCache).evict("demoUser");
+        }
+
+        @Test
+        void shouldKeepPasswordHashWhenCostIsCurrent() {
+                User user = new User("demoUser", "hashed_1234");
+                when(userRepository.findByUsername("demoUser")).thenReturn(Optional.of(user));
+
+                authService.login("demoUser", "1234");
+
+                assertEquals("hashed_1234", user.getPassword());
+                verify(passwordEncoder, never()).encode(anyString());
         }
 
         @Test
@@ -69,6 +137,7 @@ class AuthServiceTest {
                                 "Error message should indicate invalid credentials");
                 verify(userRepository).findByUsername("demoUser");
                 verify(userRepository, never()).save(any());
+                assertEquals(1, meterRegistry.get("auth.logins").tag("result", "failure").timer().count());
         }
 
         @Test
@@ -85,28 +154,64 @@ class AuthServiceTest {
 
         @Test
         void shouldLogoutSuccessfully() {
-                User user = new User("demoUser", "hashed_1234");
-                user.setLoggedIn(true);
+                loginStateRegistry.markLoggedIn("demoUser");
+
+                authService.logout("demoUser");
+
+                verify(userRepository, never()).existsByUsername(anyString());
+                verify(userRepository, never()).save(any());
+                verify(principalCache).evict("demoUser");
+                assertFalse(loginStateRegistry.isOnline("demoUser"), "User should be marked as logged out after logout");
+                assertEquals(1, tokenRevocationList.size(), "Logout should revoke the user's tokens");
+                verify(refreshTokenService).revokeAll("demoUser");
+        }
+
+        @Test
+        void shouldRefreshWithoutTouchingPasswordEncoder() {
+                when(refreshTokenService.rotate("refresh-1"))
+                                .thenReturn(new RefreshTokenService.Rotation("demoUser", "refresh-2"));
+
+                LoginResponse response = authService.refresh("refresh-1");
+
+                assertTrue(jwtUtil.validateToken(response.getToken(), "demoUser"));
+                assertEquals("refresh-2", response.getRefreshToken());
+                verifyNoInteractions(passwordEncoder);
+                verifyNoInteractions(userRepository);
+        }
 
+        @Test
+        void shouldIssueUsableTokenWhenLoggingInRightAfterLogout() {
+                User user = new User("demoUser", "hashed_1234");
                 when(userRepository.findByUsername("demoUser")).thenReturn(Optional.of(user));
+                String before = authService.login("demoUser", "1234").getToken();
 
                 authService.logout("demoUser");
+                String after = authService.login("demoUser", "1234").getToken();
 
-                verify(userRepository).findByUsername("demoUser");
-                verify(userRepository).save(user);
-                assertFalse(user.isLoggedIn(), "User should be marked as logged out after logout");
+                assertTrue(tokenRevocationList.isRevoked(jwtUtil.verify(before)), "Old token should be revoked");
+                assertFalse(tokenRevocationList.isRevoked(jwtUtil.verify(after)), "New token should not be revoked");
+        }
+
+        @Test
+        void shouldCheckTableWhenLoggingOutUserNotKnownToBeOnline() {
+                when(userRepository.existsByUsername("demoUser")).thenReturn(true);
+
+                authService.logout("demoUser");
+
+                verify(userRepository).existsByUsername("demoUser");
+                assertEquals(1, loginStateRegistry.pendingCount());
         }
 
         @Test
         void shouldThrowWhenUserNotFoundDuringLogout() {
-                when(userRepository.findByUsername("ghostUser")).thenReturn(Optional.empty());
+                when(userRepository.existsByUsername("ghostUser")).thenReturn(false);
 
                 RuntimeException ex = assertThrows(RuntimeException.class, () -> authService.logout("ghostUser"));
 
                 assertTrue(ex.getMessage().toLowerCase().contains("not found"),
                                 "Error message should indicate user not found");
-                verify(userRepository).findByUsername("ghostUser");
-                verify(userRepository, never()).save(any());
+                verify(userRepository).existsByUsername("ghostUser");
+                assertEquals(0, loginStateRegistry.pendingCount());
         }
 
         @Test
@@ -124,6 +229,38 @@ class AuthServiceTest {
                 verify(userRepository).save(any(User.class));
         }
 
+        @Test
+        void shouldSkipExistenceQueryWhenFilterRulesNameOut() {
+                when(userRepository.streamAllUsernames()).thenReturn(Stream.of("takenUser"));
+                usernameFilter.warm();
+                when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+
+                authService.register("newUser", "1234");
+
+                verify(userRepository, never()).existsByUsername(anyString());
+                verify(userRepository).save(any(User.class));
+                assertFalse(usernameFilter.isDefinitelyFree("newUser"), "Registered name should enter the filter");
+        }
+
+        @Test
+        void shouldQueryWhenFilterSaysNameMayBeTaken() {
+                when(userRepository.streamAllUsernames()).thenReturn(Stream.of("takenUser"));
+                usernameFilter.warm();
+                when(userRepository.existsByUsername("takenUser")).thenReturn(true);
+
+                assertThrows(UserAlreadyExistsException.class, () -> authService.register("takenUser", "1234"));
+
+                verify(passwordEncoder, never()).encode(anyString());
+        }
+
+        @Test
+        void shouldMapUniqueConstraintViolationToUserAlreadyExists() {
+                when(userRepository.save(any(User.class)))
+                                .thenThrow(new DataIntegrityViolationException("unique index violated"));
+
+                assertThrows(UserAlreadyExistsException.class, () -> authService.register("racingUser", "1234"));
+        }
+
         @Test
         void shouldThrowWhenUsernameAlreadyExists() {
                 when(userRepository.existsByUsername("existingUser")).thenReturn(true);
@@ -3,11 +3,14 @@ package com.example.taskManager.unit.services;
 import com.example.taskManager.model.User;
 import com.example.taskManager.repository.UserRepository;
 import com.example.taskManager.security.CustomUserDetails;
+import com.example.taskManager.security.PrincipalCache;
 import com.example.taskManager.services.CustomUserDetailsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Optional;
 
@@ -17,12 +20,14 @@ import static org.mockito.Mockito.*;
 class CustomUserDetailsServiceTest {
 
     private UserRepository userRepository;
+    private PrincipalCache principalCache;
     private CustomUserDetailsService userDetailsService;
 
     @BeforeEach
     void setup() {
         userRepository = mock(UserRepository.class);
-        userDetailsService = new CustomUserDetailsService(userRepository);
+        principalCache = new PrincipalCache(true, Duration.ofMinutes(5), 100, Clock.systemUTC());
+        userDetailsService = new CustomUserDetailsService(userRepository, principalCache);
     }
 
     @Test
@@ -49,4 +54,28 @@ class CustomUserDetailsServiceTest {
 
         verify(userRepository, times(1)).findByUsername("ghost");
     }
+
+    @Test
+    void shouldServeRepeatedLoadsFromPrincipalCache() {
+        User mockUser = new User(1L, "demoUser", "password123", false, Collections.emptyList());
+        when(userRepository.findByUsername("demoUser")).thenReturn(Optional.of(mockUser));
+
+        userDetailsService.loadUserByUsername("demoUser");
+        CustomUserDetails second = (CustomUserDetails) userDetailsService.loadUserByUsername("demoUser");
+
+        assertEquals("demoUser", second.getUsername());
+        verify(userRepository, times(1)).findByUsername("demoUser");
+    }
+
+    @Test
+    void shouldReloadUserAfterEviction() {
+        User mockUser = new User(1L, "demoUser", "password123", false, Collections.emptyList());
+        when(userRepository.findByUsername("demoUser")).thenReturn(Optional.of(mockUser));
+
+        userDetailsService.loadUserByUsername("demoUser");
+        principalCache.evict("demoUser");
+        userDetailsService.loadUserByUsername("demoUser");
+
+        verify(userRepository, times(2)).findByUsername("demoUser");
+    }
 }
@@ -0,0 +1,99 @@
+package com.example.taskManager.unit.services;
+
+import com.example.taskManager.repository.UserRepository;
+import com.example.taskManager.services.LoginStateRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LoginStateRegistryTest {
+
+    private UserRepository userRepository;
+    private LoginStateRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        registry = new LoginStateRegistry(userRepository, 2);
+    }
+
+    @Test
+    void shouldSeedOnlineUsersFromTable() {
+        when(userRepository.findLoggedInUsernames()).thenReturn(List.of("alice", "bob"));
+
+        registry.load();
+
+        assertEquals(2, registry.onlineCount());
+        assertTrue(registry.isOnline("alice"));
+        assertEquals(0, registry.pendingCount());
+    }
+
+    @Test
+    void shouldFlushOnlyLatestStatePerUser() {
+        registry.markLoggedIn("alice");
+        registry.markLoggedOut("alice");
+        registry.markLoggedIn("bob");
+
+        registry.flush();
+
+        verify(userRepository).updateLoggedIn(List.of("alice"), false);
+        verify(userRepository).updateLoggedIn(List.of("bob"), true);
+        assertEquals(0, registry.pendingCount());
+        assertEquals(1, registry.onlineCount());
+    }
+
+    @Test
+    void shouldSplitFlushIntoBatches() {
+        registry.markLoggedIn("a");
+        registry.markLoggedIn("b");
+        registry.markLoggedIn("c");
+
+        registry.flush();
+
+        verify(userRepository, times(2)).updateLoggedIn(anyCollection(), eq(true));
+    }
+
+    @Test
+    void shouldRequeueFailedBatch() {
+        when(userRepository.updateLoggedIn(anyCollection(), anyBoolean()))
+                .thenThrow(new RuntimeException("DB down"));
+        registry.markLoggedIn("alice");
+
+        registry.flush();
+
+        assertEquals(1, registry.pendingCount());
+    }
+
+    @Test
+    void shouldNotTouchTableWhenNothingPending() {
+        registry.flush();
+
+        verify(userRepository, never()).updateLoggedIn(anyCollection(), anyBoolean());
+    }
+
+    @Test
+    void shouldFlushPendingStateOnShutdown() {
+        registry.markLoggedOut("alice");
+
+        registry.shutdown();
+
+        verify(userRepository).updateLoggedIn(List.of("alice"), false);
+    }
+
+    @Test
+    void shouldPublishOnlineCount() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        registry.bindTo(meterRegistry);
+
+        registry.markLoggedIn("alice");
+
+        assertEquals(1.0, meterRegistry.get("auth.sessions.online").gauge().value());
+        assertEquals(1.0, meterRegistry.get("auth.sessions.pending").gauge().value());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.taskManager.unit.services;
+
+import com.example.taskManager.exception.InvalidCredentialsException;
+import com.example.taskManager.model.RefreshToken;
+import com.example.taskManager.model.User;
+import com.example.taskManager.repository.RefreshTokenRepository;
+import com.example.taskManager.security.TokenDigests;
+import com.example.taskManager.services.RefreshTokenService;
+import com.example.taskManager.unit.support.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private MutableClock clock;
+    private RefreshTokenService service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        service = new RefreshTokenService(refreshTokenRepository, Duration.ofDays(14), clock);
+        user = new User("demoUser", "hashed");
+        user.setId(7L);
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    private RefreshToken stored(String rawToken, String familyId, boolean used) {
+        RefreshToken token = new RefreshToken(TokenDigests.sha256(rawToken), familyId, user,
+                clock.instant().plus(Duration.ofDays(1)));
+        token.setId(1L);
+        token.setUsed(used);
+        when(refreshTokenRepository.findByTokenHash(TokenDigests.sha256(rawToken))).thenReturn(Optional.of(token));
+        return token;
+    }
+
+    @Test
+    void shouldStoreOnlyDigestOfIssuedToken() {
+        String raw = service.issue(user);
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals(TokenDigests.sha256(raw), saved.getValue().getTokenHash());
+        assertNotEquals(raw, saved.getValue().getTokenHash());
+        assertEquals(22, saved.getValue().getFamilyId().length());
+        assertEquals(clock.instant().plus(Duration.ofDays(14)), saved.getValue().getExpiresAt());
+    }
+
+    @Test
+    void shouldRotateWithinSameFamily() {
+        stored("raw-1", "family", false);
+        when(refreshTokenRepository.markUsed(1L)).thenReturn(1);
+
+        RefreshTokenService.Rotation rotation = service.rotate("raw-1");
+
+        assertEquals("demoUser", rotation.username());
+        assertNotEquals("raw-1", rotation.refreshToken());
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals("family", saved.getValue().getFamilyId());
+        verify(refreshTokenRepository, never()).deleteByFamilyId(any());
+    }
+
+    @Test
+    void shouldRevokeFamilyWhenUsedTokenIsPresentedAgain() {
+        stored("raw-1", "family", true);
+
+        assertThrows(InvalidCredentialsException.class, () -> service.rotate("raw-1"));
+
+        verify(refreshTokenRepository).deleteByFamilyId("family");
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRevokeFamilyWhenConcurrentRequestWonTheRace() {
+        stored("raw-1", "family", false);
+        when(refreshTokenRepository.markUsed(anyLong())).thenReturn(0);
+
+        assertThrows(InvalidCredentialsException.class, () -> service.rotate("raw-1"));
+
+        verify(refreshTokenRepository).deleteByFamilyId("family");
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        RefreshToken token = stored("raw-1", "family", false);
+        clock.advance(Duration.ofDays(2));
+
+        assertThrows(InvalidCredentialsException.class, () -> service.rotate("raw-1"));
+
+        verify(refreshTokenRepository).delete(token);
+        verify(refreshTokenRepository, never()).markUsed(anyLong());
+    }
+
+    @Test
+    void shouldRejectUnknownToken() {
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.empty());
+
+        assertThrows(InvalidCredentialsException.class, () -> service.rotate("unknown"));
+    }
+}
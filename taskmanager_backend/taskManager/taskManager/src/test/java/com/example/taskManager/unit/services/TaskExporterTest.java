@@ -0,0 +1,95 @@
+package com.example.taskManager.unit.services;
+
+import com.example.taskManager.exception.InvalidRequestException;
+import com.example.taskManager.model.Task;
+import com.example.taskManager.repository.TaskRepository;
+import com.example.taskManager.services.TaskExporter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaskExporterTest {
+
+    private TaskRepository taskRepository;
+    private EntityManager entityManager;
+    private TaskExporter exporter;
+    private AtomicBoolean streamClosed;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        entityManager = mock(EntityManager.class);
+        exporter = new TaskExporter(taskRepository, entityManager, new ObjectMapper());
+        streamClosed = new AtomicBoolean();
+    }
+
+    private static Task task(long id, String title) {
+        Task t = new Task();
+        t.setId(id);
+        t.setTitle(title);
+        return t;
+    }
+
+    private void givenTasks(Task... tasks) {
+        when(taskRepository.streamByUserId(1L)).thenReturn(Stream.of(tasks).onClose(() -> streamClosed.set(true)));
+    }
+
+    @Test
+    void shouldWriteOneObjectPerLineAndDetachEachRow() throws Exception {
+        Task first = task(1, "First");
+        Task second = task(2, "Second");
+        givenTasks(first, second);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.export(1L, TaskExporter.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length, "Two records, each newline-terminated");
+        assertEquals("First", new ObjectMapper().readTree(lines[0]).get("title").asText());
+        assertEquals("Second", new ObjectMapper().readTree(lines[1]).get("title").asText());
+        assertEquals("", lines[2]);
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        assertTrue(streamClosed.get());
+    }
+
+    @Test
+    void shouldWriteSingleJsonArray() throws Exception {
+        givenTasks(task(1, "First"), task(2, "Second"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.export(1L, TaskExporter.Format.JSON, out);
+
+        var array = new ObjectMapper().readTree(out.toByteArray());
+        assertTrue(array.isArray());
+        assertEquals(2, array.size());
+        assertEquals(2, array.get(1).get("id").asInt());
+        assertTrue(streamClosed.get());
+    }
+
+    @Test
+    void shouldWriteEmptyArrayForUserWithoutTasks() throws Exception {
+        givenTasks();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.export(1L, TaskExporter.Format.JSON, out);
+
+        assertEquals("[]", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldParseFormatIgnoringCase() {
+        assertEquals(TaskExporter.Format.NDJSON, TaskExporter.Format.fromParameter("ndjson"));
+        assertEquals(TaskExporter.Format.JSON, TaskExporter.Format.fromParameter("Json"));
+        assertThrows(InvalidRequestException.class, () -> TaskExporter.Format.fromParameter("csv"));
+    }
+}
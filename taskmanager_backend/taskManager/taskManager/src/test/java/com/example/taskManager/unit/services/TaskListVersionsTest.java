@@ -0,0 +1,131 @@
+package com.example.taskManager.unit.services;
+
+import com.example.taskManager.repository.TaskOwnerStats;
+import com.example.taskManager.repository.TaskRepository;
+import com.example.taskManager.services.TaskListVersions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaskListVersionsTest {
+
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        when(taskRepository.findOwnerStats()).thenReturn(List.of(new TaskOwnerStats(7L, 3, 60, 4)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private TaskListVersions versions(long runId) {
+        return new TaskListVersions(taskRepository, TransactionOperations.withoutTransaction(), runId);
+    }
+
+    @Test
+    void shouldHaveNoTagUntilSeeded() {
+        TaskListVersions versions = versions(1);
+
+        assertNull(versions.etag(7L));
+        versions.warm();
+        assertNotNull(versions.etag(7L));
+    }
+
+    @Test
+    void shouldKeepSeededTagsAcrossRestartsWhenTasksAreUnchanged() {
+        TaskListVersions before = versions(1);
+        before.warm();
+        TaskListVersions after = versions(2);
+        after.warm();
+
+        assertEquals(before.etag(7L), after.etag(7L));
+        assertNotEquals(before.etag(7L), before.etag(8L));
+    }
+
+    @Test
+    void shouldChangeTagOnEveryWrite() {
+        TaskListVersions versions = versions(1);
+        versions.warm();
+        String seeded = versions.etag(7L);
+
+        versions.changed(7L);
+        String changed = versions.etag(7L);
+        versions.changed(7L);
+        String changedAgain = versions.etag(7L);
+
+        assertNotEquals(seeded, changed);
+        assertNotEquals(changed, changedAgain);
+        assertTrue(changedAgain.startsWith("\"") && changedAgain.endsWith("\""), changedAgain);
+    }
+
+    @Test
+    void shouldNotRepeatTagsOfAnEarlierRunAfterWrites() {
+        TaskListVersions before = versions(1);
+        before.warm();
+        before.changed(7L);
+        TaskListVersions after = versions(2);
+        after.warm();
+        after.changed(7L);
+
+        assertNotEquals(before.etag(7L), after.etag(7L));
+    }
+
+    @Test
+    void shouldNotMatchTagsOfUsersWithoutTasksAfterRestart() {
+        TaskListVersions before = versions(1);
+        before.warm();
+        String empty = before.etag(8L);
+        before.changed(8L);
+        String written = before.etag(8L);
+
+        // The in-memory database starts over, so user 8 may write different tasks to reach the same version
+        TaskListVersions after = versions(2);
+        after.warm();
+        assertNotEquals(empty, after.etag(8L));
+        after.changed(8L);
+
+        assertNotEquals(written, after.etag(8L));
+    }
+
+    @Test
+    void shouldGiveUsersFirstWrittenAtRuntimeATagUniqueToTheRun() {
+        TaskListVersions before = versions(1);
+        before.changed(9L);
+        before.warm();
+        TaskListVersions after = versions(2);
+        after.changed(9L);
+        after.warm();
+
+        assertNotEquals(before.etag(9L), after.etag(9L));
+    }
+
+    @Test
+    void shouldWaitForCommitBeforeBumping() {
+        TaskListVersions versions = versions(1);
+        versions.warm();
+        String seeded = versions.etag(7L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        versions.changed(7L);
+        assertEquals(seeded, versions.etag(7L));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertNotEquals(seeded, versions.etag(7L));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.taskManager.unit.services;
+
+import com.example.taskManager.model.Task;
+import com.example.taskManager.repository.TaskRepository;
+import com.example.taskManager.search.SearchQuery;
+import com.example.taskManager.search.TaskText;
+import com.example.taskManager.services.TaskSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaskSearchIndexTest {
+
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+    }
+
+    private TaskSearchIndex index(boolean enabled) {
+        return new TaskSearchIndex(taskRepository, TransactionOperations.withoutTransaction(), enabled);
+    }
+
+    private static Task task(long id, String title, String description) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(title);
+        task.setDescription(description);
+        return task;
+    }
+
+    @Test
+    void shouldAskCallerToFallBackUntilWarmed() {
+        TaskSearchIndex index = index(true);
+
+        assertFalse(index.isReady());
+        assertNull(index.search(1L, SearchQuery.parse("milk"), 10));
+    }
+
+    @Test
+    void shouldIndexExistingTasksWithStreamingScan() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(taskRepository.streamTaskText()).thenReturn(Stream.of(
+                new TaskText(1L, 7L, "Buy milk", null),
+                new TaskText(2L, 8L, "Buy milk", "for someone else"),
+                new TaskText(3L, 7L, "Call mum", "about milk")).onClose(() -> closed.set(true)));
+        TaskSearchIndex index = index(true);
+
+        index.warm();
+
+        assertTrue(index.isReady());
+        assertTrue(closed.get(), "Scan stream should be closed");
+        assertArrayEquals(new long[]{3, 1}, index.search(7L, SearchQuery.parse("milk"), 10));
+    }
+
+    @Test
+    void shouldFollowWrites() {
+        when(taskRepository.streamTaskText()).thenReturn(Stream.empty());
+        TaskSearchIndex index = index(true);
+        index.warm();
+
+        Task task = task(4L, "Draft report", "quarterly");
+        index.index(7L, task);
+        assertArrayEquals(new long[]{4}, index.search(7L, SearchQuery.parse("quarter*"), 10));
+
+        task.setTitle("Send report");
+        index.index(7L, task);
+        assertArrayEquals(new long[0], index.search(7L, SearchQuery.parse("draft"), 10));
+        assertArrayEquals(new long[]{4}, index.search(7L, SearchQuery.parse("send report"), 10));
+
+        index.remove(7L, 4L);
+        assertArrayEquals(new long[0], index.search(7L, SearchQuery.parse("report"), 10));
+    }
+
+    @Test
+    void shouldWaitForCommitBeforeIndexing() {
+        when(taskRepository.streamTaskText()).thenReturn(Stream.empty());
+        TaskSearchIndex index = index(true);
+        index.warm();
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.index(7L, task(4L, "Draft report", null));
+        assertArrayEquals(new long[0], index.search(7L, SearchQuery.parse("report"), 10));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertArrayEquals(new long[]{4}, index.search(7L, SearchQuery.parse("report"), 10));
+    }
+
+    @Test
+    void shouldStayColdWhenDisabled() {
+        TaskSearchIndex index = index(false);
+
+        index.warm();
+        index.index(7L, task(1L, "Buy milk", null));
+
+        assertFalse(index.isReady());
+        assertNull(index.search(7L, SearchQuery.parse("milk"), 10));
+        verifyNoInteractions(taskRepository);
+    }
+}
@@ -1,21 +1,51 @@
 package com.example.taskManager.unit.services;
 
+import com.example.taskManager.config.TaskProperties;
+import com.example.taskManager.dto.TaskBatchResult;
+import com.example.taskManager.dto.TaskBulkUpdate;
+import com.example.taskManager.dto.TaskBulkUpdateResult;
+import com.example.taskManager.dto.TaskCursor;
+import com.example.taskManager.dto.TaskPage;
+import com.example.taskManager.dto.TaskPatch;
+import com.example.taskManager.dto.TaskQuery;
+import com.example.taskManager.exception.InvalidRequestException;
+import com.example.taskManager.exception.TaskNotFoundException;
+import com.example.taskManager.exception.TaskOperationException;
+import com.example.taskManager.exception.TaskVersionMismatchException;
 import com.example.taskManager.model.Task;
 import com.example.taskManager.model.User;
 import com.example.taskManager.repository.TaskRepository;
+import com.example.taskManager.repository.UserRepository;
+import com.example.taskManager.search.SearchQuery;
+import com.example.taskManager.services.TaskListVersions;
+import com.example.taskManager.services.TaskSearchIndex;
 import com.example.taskManager.services.TaskService;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor.SpecificationFluentQuery;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +54,21 @@ class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private TaskProperties taskProperties = new TaskProperties();
+
+    @Mock
+    private TaskSearchIndex searchIndex;
+
+    @Mock
+    private TaskListVersions listVersions;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private TaskService taskService;
 
@@ -46,45 +91,258 @@ class TaskServiceTest {
 
     @Test
     void shouldCreateTaskForUserSuccessfully() {
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
         when(taskRepository.save(any(Task.class))).thenReturn(task);
 
-        Task saved = taskService.createTaskForUser(task, user);
+        Task saved = taskService.createTaskForUser(task, 1L);
 
         assertNotNull(saved);
         assertEquals("Mocked Task", saved.getTitle());
         assertEquals(user, saved.getUser());
         verify(taskRepository).save(any(Task.class));
+        verify(userRepository).getReferenceById(1L);
+        verify(userRepository, never()).findByUsername(any());
+        verify(searchIndex).index(1L, task);
+        verify(listVersions).changed(1L);
+    }
+
+    @Test
+    void shouldIgnoreClientSuppliedIdOnCreate() {
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        taskService.createTaskForUser(task, 1L);
+
+        assertNull(task.getId());
+    }
+
+    @Test
+    void shouldInsertValidTasksOfBatchAndReportInvalidOnes() {
+        Task blank = new Task();
+        blank.setTitle(" ");
+        Task valid = new Task();
+        valid.setId(99L);
+        valid.setTitle("Imported");
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+
+        TaskBatchResult result = taskService.createTasksForUser(Arrays.asList(blank, valid, null), 1L);
+
+        assertEquals(1, result.created());
+        assertEquals(2, result.rejected());
+        assertEquals(List.of("title: Title is required"), result.items().get(0).errors());
+        assertSame(valid, result.items().get(1).task());
+        assertEquals(List.of("Task must not be null"), result.items().get(2).errors());
+        assertNull(valid.getId(), "Client-supplied ids must be dropped");
+        assertEquals(user, valid.getUser());
+        verify(taskRepository).saveAllAndFlush(List.of(valid));
+        verify(searchIndex).index(1L, valid);
+        verify(listVersions).changed(1L);
+    }
+
+    @Test
+    void shouldRejectEmptyOrOversizedBatch() {
+        taskProperties.getBatch().setMaxSize(2);
+        List<Task> three = List.of(taskWithId(1), taskWithId(2), taskWithId(3));
+
+        assertThrows(InvalidRequestException.class, () -> taskService.createTasksForUser(List.of(), 1L));
+        assertThrows(InvalidRequestException.class, () -> taskService.createTasksForUser(three, 1L));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void shouldWrapBatchInsertFailure() {
+        DataIntegrityViolationException cause = new DataIntegrityViolationException("boom");
+        when(taskRepository.saveAllAndFlush(anyList())).thenThrow(cause);
+
+        TaskOperationException ex = assertThrows(TaskOperationException.class,
+                () -> taskService.createTasksForUser(List.of(taskWithId(1)), 1L));
+        assertSame(cause, ex.getCause());
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void shouldBulkUpdateListedIdsWithOneStatement() {
+        when(taskRepository.updateCompletedByIds(1L, List.of(3L, 4L, 5L), true)).thenReturn(2);
+
+        TaskBulkUpdateResult result = taskService.updateTasksForUser(
+                new TaskBulkUpdate(List.of(3L, 4L, 5L), null, true), 1L, false);
+
+        assertEquals(2, result.updated());
+        assertNull(result.tasks());
+        verify(taskRepository, never()).findByUserIdAndIdIn(any(), any());
+        verify(listVersions).changed(1L);
+    }
+
+    @Test
+    void shouldBulkUpdateByFilter() {
+        when(taskRepository.updateCompletedWhere(1L, false, true)).thenReturn(7);
+
+        TaskBulkUpdateResult result = taskService.updateTasksForUser(
+                new TaskBulkUpdate(null, new TaskBulkUpdate.Filter(false), true), 1L, false);
+
+        assertEquals(7, result.updated());
+        verify(taskRepository, never()).findIdsWhere(any(), any());
+    }
+
+    @Test
+    void shouldResolveFilterToIdsWhenTasksAreReturned() {
+        when(taskRepository.findIdsWhere(1L, false)).thenReturn(List.of(4L, 2L));
+        when(taskRepository.updateCompletedByIds(1L, List.of(4L, 2L), true)).thenReturn(2);
+        when(taskRepository.findByUserIdAndIdIn(1L, List.of(4L, 2L))).thenReturn(List.of(taskWithId(4), taskWithId(2)));
+
+        TaskBulkUpdateResult result = taskService.updateTasksForUser(
+                new TaskBulkUpdate(null, new TaskBulkUpdate.Filter(false), true), 1L, true);
+
+        assertEquals(2, result.updated());
+        assertEquals(List.of(2L, 4L), result.tasks().stream().map(Task::getId).toList());
+        verify(taskRepository, never()).updateCompletedWhere(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void shouldRejectAmbiguousOrIncompleteBulkUpdate() {
+        TaskBulkUpdate.Filter all = new TaskBulkUpdate.Filter(null);
+
+        assertThrows(InvalidRequestException.class, () -> taskService.updateTasksForUser(
+                new TaskBulkUpdate(List.of(1L), all, true), 1L, false));
+        assertThrows(InvalidRequestException.class, () -> taskService.updateTasksForUser(
+                new TaskBulkUpdate(List.of(), null, true), 1L, false));
+        assertThrows(InvalidRequestException.class, () -> taskService.updateTasksForUser(
+                new TaskBulkUpdate(null, all, null), 1L, false));
+        verifyNoInteractions(taskRepository);
+    }
+
+    private static Task taskWithId(long id) {
+        Task t = new Task();
+        t.setId(id);
+        t.setTitle("Task " + id);
+        return t;
+    }
+
+    /**
+     * Answers the repository's fluent query with the given rows and returns the query mock,
+     * so tests can check the sort and row limit the service asked for.
+     */
+    @SuppressWarnings("unchecked")
+    private SpecificationFluentQuery<Task> stubPage(List<Task> rows) {
+        SpecificationFluentQuery<Task> query = mock(SpecificationFluentQuery.class, RETURNS_SELF);
+        doReturn(rows).when(query).all();
+        when(taskRepository.findBy(any(Specification.class), any())).thenAnswer(invocation ->
+                invocation.<Function<SpecificationFluentQuery<Task>, ?>>getArgument(1).apply(query));
+        return query;
     }
 
     @Test
     void shouldReturnTasksForUser() {
-        when(taskRepository.findByUserUsername("demoUser")).thenReturn(List.of(task));
+        SpecificationFluentQuery<Task> query = stubPage(List.of(task));
+
+        TaskPage page = taskService.getTasksForUser(1L, TaskQuery.DEFAULT, null, null);
+
+        assertEquals(1, page.tasks().size());
+        assertEquals("Mocked Task", page.tasks().get(0).getTitle());
+        assertNull(page.nextCursor());
+        verify(query).sortBy(Sort.by(Sort.Direction.ASC, "id"));
+        verify(query).limit(101);
+    }
+
+    @Test
+    void shouldReturnCursorOfLastTaskWhenMoreTasksExist() {
+        stubPage(List.of(taskWithId(4), taskWithId(7), taskWithId(9)));
+
+        TaskPage page = taskService.getTasksForUser(1L, TaskQuery.DEFAULT, null, 2);
+
+        assertEquals(2, page.tasks().size());
+        assertEquals(7L, TaskCursor.decode(page.nextCursor(), TaskQuery.DEFAULT).lastId());
+    }
+
+    @Test
+    void shouldSortByTitleThenIdInRequestedDirection() {
+        TaskQuery byTitle = TaskQuery.of(false, "title", "desc");
+        SpecificationFluentQuery<Task> query = stubPage(List.of(taskWithId(9), taskWithId(3)));
+
+        TaskPage page = taskService.getTasksForUser(1L, byTitle, null, 1);
+
+        verify(query).sortBy(Sort.by(Sort.Direction.DESC, "title").and(Sort.by(Sort.Direction.DESC, "id")));
+        assertEquals(new TaskCursor(9L, "Task 9"), TaskCursor.decode(page.nextCursor(), byTitle));
+    }
+
+    @Test
+    void shouldClampLimitToConfiguredMaximum() {
+        taskProperties.getPagination().setMaxLimit(50);
+        SpecificationFluentQuery<Task> query = stubPage(List.of());
+
+        taskService.getTasksForUser(1L, TaskQuery.DEFAULT, null, 10_000);
+
+        verify(query).limit(51);
+    }
+
+    @Test
+    void shouldRejectBadLimitAndCursor() {
+        String otherQueryCursor = TaskCursor.encode(TaskQuery.of(true, null, null), taskWithId(3));
+
+        assertThrows(InvalidRequestException.class,
+                () -> taskService.getTasksForUser(1L, TaskQuery.DEFAULT, null, 0));
+        assertThrows(InvalidRequestException.class,
+                () -> taskService.getTasksForUser(1L, TaskQuery.DEFAULT, "not-a-cursor", 10));
+        assertThrows(InvalidRequestException.class,
+                () -> taskService.getTasksForUser(1L, TaskQuery.DEFAULT, otherQueryCursor, 10));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void shouldLoadIndexHitsAndDropStaleOnes() {
+        Task stale = taskWithId(8);
+        stale.setTitle("Renamed since indexing");
+        Task hit = taskWithId(3);
+        hit.setTitle("Buy milk");
+        when(searchIndex.search(eq(1L), any(SearchQuery.class), eq(100))).thenReturn(new long[]{8, 3});
+        when(taskRepository.findByUserIdAndIdIn(1L, List.of(8L, 3L))).thenReturn(List.of(hit, stale));
 
-        List<Task> tasks = taskService.getTasksForUser("demoUser");
+        List<Task> found = taskService.searchTasksForUser(1L, "milk", null);
 
-        assertEquals(1, tasks.size());
-        assertEquals("Mocked Task", tasks.get(0).getTitle());
-        verify(taskRepository).findByUserUsername("demoUser");
+        assertEquals(List.of(hit), found);
+    }
+
+    @Test
+    void shouldSearchDatabaseUntilIndexIsReady() {
+        Task older = taskWithId(2);
+        older.setTitle("milk run");
+        Task newer = taskWithId(6);
+        newer.setDescription("Buy milk");
+        Task inWord = taskWithId(4);
+        inWord.setTitle("buttermilk");
+        when(searchIndex.search(eq(1L), any(SearchQuery.class), eq(10))).thenReturn(null);
+        SpecificationFluentQuery<Task> query = stubPage(List.of(older, inWord, newer));
+
+        List<Task> found = taskService.searchTasksForUser(1L, "milk", 10);
+
+        assertEquals(List.of(newer, older), found);
+        verify(query).limit(10);
+    }
+
+    @Test
+    void shouldRejectSearchWithoutWords() {
+        assertThrows(InvalidRequestException.class, () -> taskService.searchTasksForUser(1L, " - ", null));
+        verifyNoInteractions(taskRepository, searchIndex);
     }
 
     @Test
     void shouldReturnTaskByIdForUser() {
-        when(taskRepository.findByIdAndUserUsername(1L, "demoUser"))
+        when(taskRepository.findByIdAndUserId(1L, 1L))
                 .thenReturn(Optional.of(task));
 
-        Task found = taskService.getTaskByIdForUser(1L, "demoUser");
+        Task found = taskService.getTaskByIdForUser(1L, 1L);
 
         assertEquals("Mocked Task", found.getTitle());
         assertEquals(user, found.getUser());
-        verify(taskRepository).findByIdAndUserUsername(1L, "demoUser");
+        verify(taskRepository).findByIdAndUserId(1L, 1L);
     }
 
     @Test
     void shouldThrowWhenTaskNotFoundForUser() {
-        when(taskRepository.findByIdAndUserUsername(99L, "demoUser"))
+        when(taskRepository.findByIdAndUserId(99L, 1L))
                 .thenReturn(Optional.empty());
 
-        assertThrows(RuntimeException.class, () -> taskService.getTaskByIdForUser(99L, "demoUser"));
+        assertThrows(RuntimeException.class, () -> taskService.getTaskByIdForUser(99L, 1L));
     }
 
     @Test
@@ -94,45 +352,116 @@ class TaskServiceTest {
         updated.setDescription("Updated Desc");
         updated.setCompleted(true);
 
-        when(taskRepository.findByIdAndUserUsername(1L, "demoUser"))
-                .thenReturn(Optional.of(task));
-        when(taskRepository.save(any(Task.class))).thenReturn(task);
+        when(taskRepository.updateByIdAndUserId(1L, 1L, null, "Updated Title", "Updated Desc", true))
+                .thenReturn(1);
+        when(taskRepository.findVersionByIdAndUserId(1L, 1L)).thenReturn(Optional.of(4L));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
 
-        Task result = taskService.updateTaskForUser(1L, updated, "demoUser");
+        Task result = taskService.updateTaskForUser(1L, updated, 1L, null);
 
+        assertEquals(1L, result.getId());
+        assertEquals(4L, result.getVersion());
         assertEquals("Updated Title", result.getTitle());
         assertTrue(result.isCompleted());
-        verify(taskRepository).save(any(Task.class));
+        assertEquals(user, result.getUser());
+        verify(taskRepository, never()).findByIdAndUserId(any(), any());
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(searchIndex).index(1L, result);
     }
 
     @Test
     void shouldThrowWhenUpdatingTaskNotFoundForUser() {
-        when(taskRepository.findByIdAndUserUsername(2L, "demoUser"))
-                .thenReturn(Optional.empty());
+        when(taskRepository.updateByIdAndUserId(2L, 1L, null, "Nonexistent", null, false))
+                .thenReturn(0);
 
         Task updated = new Task();
         updated.setTitle("Nonexistent");
 
-        assertThrows(RuntimeException.class, () -> taskService.updateTaskForUser(2L, updated, "demoUser"));
-        verify(taskRepository, never()).save(any(Task.class));
+        assertThrows(TaskNotFoundException.class, () -> taskService.updateTaskForUser(2L, updated, 1L, null));
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void shouldValidateUpdateBeforeWriting() {
+        Task updated = new Task();
+        updated.setTitle("");
+
+        assertThrows(ConstraintViolationException.class,
+                () -> taskService.updateTaskForUser(1L, updated, 1L, null));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void shouldKnowNewVersionOfConditionalUpdateWithoutReadingIt() {
+        Task updated = new Task();
+        updated.setTitle("Updated Title");
+        when(taskRepository.updateByIdAndUserId(1L, 1L, 3L, "Updated Title", null, false)).thenReturn(1);
+
+        assertEquals(4L, taskService.updateTaskForUser(1L, updated, 1L, 3L).getVersion());
+        verify(taskRepository, never()).findVersionByIdAndUserId(any(), any());
+        verify(taskRepository, never()).existsByIdAndUserId(any(), any());
+    }
+
+    @Test
+    void shouldTellStaleVersionFromMissingTask() {
+        when(taskRepository.deleteByIdAndUserId(anyLong(), eq(1L), eq(3L))).thenReturn(0);
+        when(taskRepository.existsByIdAndUserId(1L, 1L)).thenReturn(true);
+        when(taskRepository.existsByIdAndUserId(2L, 1L)).thenReturn(false);
+
+        assertThrows(TaskVersionMismatchException.class, () -> taskService.deleteTaskForUser(1L, 1L, 3L));
+        assertThrows(TaskNotFoundException.class, () -> taskService.deleteTaskForUser(2L, 1L, 3L));
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void shouldPatchCompletedWithoutReadingBackOrReindexing() {
+        TaskPatch patch = new TaskPatch(Map.of(TaskPatch.COMPLETED, true));
+        when(taskRepository.patchByIdAndUserId(1L, 1L, null, patch)).thenReturn(1);
+
+        assertNull(taskService.patchTaskForUser(1L, patch, 1L, null, false));
+        verify(taskRepository, never()).findByIdAndUserId(any(), any());
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void shouldReadBackAndReindexWhenPatchChangesText() {
+        TaskPatch patch = new TaskPatch(Map.of(TaskPatch.TITLE, "Renamed"));
+        task.setTitle("Renamed");
+        when(taskRepository.patchByIdAndUserId(1L, 1L, null, patch)).thenReturn(1);
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(task));
+
+        assertEquals(task, taskService.patchTaskForUser(1L, patch, 1L, null, true));
+        verify(searchIndex).index(1L, task);
+    }
+
+    @Test
+    void shouldRejectInvalidOrMissingPatchTarget() {
+        TaskPatch blankTitle = new TaskPatch(Map.of(TaskPatch.TITLE, " "));
+        assertThrows(ConstraintViolationException.class,
+                () -> taskService.patchTaskForUser(1L, blankTitle, 1L, null, true));
+        verifyNoInteractions(taskRepository);
+
+        TaskPatch patch = new TaskPatch(Map.of(TaskPatch.COMPLETED, false));
+        when(taskRepository.patchByIdAndUserId(2L, 1L, null, patch)).thenReturn(0);
+        assertThrows(TaskNotFoundException.class, () -> taskService.patchTaskForUser(2L, patch, 1L, null, true));
+        verifyNoInteractions(searchIndex);
     }
 
     @Test
     void shouldDeleteTaskForUserSuccessfully() {
-        when(taskRepository.findByIdAndUserUsername(1L, "demoUser"))
-                .thenReturn(Optional.of(task));
-        doNothing().when(taskRepository).delete(any(Task.class));
+        when(taskRepository.deleteByIdAndUserId(1L, 1L, null)).thenReturn(1);
 
-        assertDoesNotThrow(() -> taskService.deleteTaskForUser(1L, "demoUser"));
-        verify(taskRepository).delete(any(Task.class));
+        assertDoesNotThrow(() -> taskService.deleteTaskForUser(1L, 1L, null));
+        verify(taskRepository, never()).findByIdAndUserId(any(), any());
+        verify(searchIndex).remove(1L, 1L);
+        verify(listVersions).changed(1L);
     }
 
     @Test
     void shouldThrowWhenDeletingNonExistingTaskForUser() {
-        when(taskRepository.findByIdAndUserUsername(999L, "demoUser"))
-                .thenReturn(Optional.empty());
+        when(taskRepository.deleteByIdAndUserId(999L, 1L, null)).thenReturn(0);
 
-        assertThrows(RuntimeException.class, () -> taskService.deleteTaskForUser(999L, "demoUser"));
-        verify(taskRepository, never()).delete(any(Task.class));
+        assertThrows(TaskNotFoundException.class, () -> taskService.deleteTaskForUser(999L, 1L, null));
+        verifyNoInteractions(searchIndex, listVersions);
     }
 }
@@ -0,0 +1,80 @@
+package com.example.taskManager.unit.services;
+
+import com.example.taskManager.repository.UserRepository;
+import com.example.taskManager.services.UsernameFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UsernameFilterTest {
+
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+    }
+
+    private UsernameFilter filter(boolean enabled) {
+        return new UsernameFilter(userRepository, TransactionOperations.withoutTransaction(), enabled, 10_000, 0.01);
+    }
+
+    @Test
+    void shouldReportEveryNameAsPossiblyTakenUntilWarmed() {
+        UsernameFilter filter = filter(true);
+
+        assertFalse(filter.isReady());
+        assertFalse(filter.isDefinitelyFree("anyone"));
+    }
+
+    @Test
+    void shouldRuleOutUnknownNamesAfterStreamingScan() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userRepository.streamAllUsernames()).thenReturn(
+                IntStream.range(0, 5_000).mapToObj(i -> "user" + i).onClose(() -> closed.set(true)));
+        UsernameFilter filter = filter(true);
+
+        filter.warm();
+
+        assertTrue(filter.isReady());
+        assertTrue(closed.get(), "Scan stream should be closed");
+        for (int i = 0; i < 5_000; i++) {
+            assertFalse(filter.isDefinitelyFree("user" + i));
+        }
+        long free = IntStream.range(0, 1_000).filter(i -> filter.isDefinitelyFree("newcomer" + i)).count();
+        assertTrue(free > 950, "Too many false positives: " + (1_000 - free));
+    }
+
+    @Test
+    void shouldStayColdWhenDisabled() {
+        UsernameFilter filter = filter(false);
+
+        filter.warm();
+
+        verify(userRepository, never()).streamAllUsernames();
+        assertFalse(filter.isDefinitelyFree("anyone"));
+    }
+
+    @Test
+    void shouldCountChecks() {
+        when(userRepository.streamAllUsernames()).thenReturn(Stream.of("alice"));
+        UsernameFilter filter = filter(true);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+        filter.warm();
+
+        filter.isDefinitelyFree("alice");
+
+        assertEquals(1.0, registry.get("auth.username-filter.size").gauge().value());
+        assertEquals(1.0, registry.get("auth.username-filter.checks").tag("result", "maybe-taken")
+                .functionCounter().count());
+    }
+}
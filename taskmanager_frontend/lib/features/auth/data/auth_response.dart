@@ -1,7 +1,13 @@
 class LoginResponse {
   factory LoginResponse.fromMap(Map<String, dynamic> map) {
-    return LoginResponse(token: map['token'] ?? '');
+    return LoginResponse(
+      token: map['token'] ?? '',
+      refreshToken: map['refreshToken'] as String?,
+    );
   }
-  LoginResponse({required this.token});
+  LoginResponse({required this.token, this.refreshToken});
   final String token;
+
+  /// Single-use token for /api/auth/refresh; null from servers that do not issue one.
+  final String? refreshToken;
 }
@@ -14,6 +14,10 @@ class AuthService {
   final String _baseUrl;
   final http.Client _client;
 
+  // Refresh tokens are single use: a second exchange of the same one revokes
+  // the whole family, so concurrent callers share one in-flight refresh
+  static Future<String?>? _refreshing;
+
   Future<LoginResponse> login(String username, String password) async {
     final url = Uri.parse('$_baseUrl/api/auth/login');
 
@@ -26,10 +30,7 @@ class AuthService {
     if (res.statusCode == 200) {
       final data = json.decode(res.body);
       final lr = LoginResponse.fromMap(data);
-
-      final prefs = await SharedPreferences.getInstance();
-      await prefs.setString(Constants.tokenKey, lr.token);
-
+      await _saveTokens(lr);
       return lr;
     } else {
       final msg = res.body.isNotEmpty ? res.body : 'Login failed';
@@ -51,6 +52,53 @@ class AuthService {
     }
   }
 
+  /// Exchanges the stored refresh token for a new access and refresh token
+  /// and returns the new access token. Returns null, and forgets both tokens,
+  /// when there is no refresh token or the server no longer accepts it.
+  Future<String?> refresh() {
+    return _refreshing ??= _refresh().whenComplete(() => _refreshing = null);
+  }
+
+  Future<String?> _refresh() async {
+    final prefs = await SharedPreferences.getInstance();
+    final refreshToken = prefs.getString(Constants.refreshTokenKey);
+    if (refreshToken == null || refreshToken.isEmpty) {
+      return null;
+    }
+
+    final res = await _client.post(
+      Uri.parse('$_baseUrl/api/auth/refresh'),
+      headers: {'Content-Type': 'application/json'},
+      body: json.encode({'refreshToken': refreshToken}),
+    );
+
+    if (res.statusCode != 200) {
+      await clearToken();
+      return null;
+    }
+    final lr = LoginResponse.fromMap(json.decode(res.body));
+    await _saveTokens(lr);
+    return lr.token;
+  }
+
+  static Future<void> _saveTokens(LoginResponse lr) async {
+    final prefs = await SharedPreferences.getInstance();
+    await prefs.setString(Constants.tokenKey, lr.token);
+    if (lr.refreshToken != null) {
+      await prefs.setString(Constants.refreshTokenKey, lr.refreshToken!);
+    }
+  }
+
+  /// Stores the fresh access token the server attaches (X-Renewed-Token) to
+  /// responses once the current one is past most of its lifetime.
+  static Future<void> keepRenewedToken(http.BaseResponse res) async {
+    final renewed = res.headers['x-renewed-token'];
+    if (renewed != null && renewed.isNotEmpty) {
+      final prefs = await SharedPreferences.getInstance();
+      await prefs.setString(Constants.tokenKey, renewed);
+    }
+  }
+
   static Future<String?> getToken() async {
     final prefs = await SharedPreferences.getInstance();
     return prefs.getString(Constants.tokenKey);
@@ -59,5 +107,6 @@ class AuthService {
   static Future<void> clearToken() async {
     final prefs = await SharedPreferences.getInstance();
     await prefs.remove(Constants.tokenKey);
+    await prefs.remove(Constants.refreshTokenKey);
   }
 }
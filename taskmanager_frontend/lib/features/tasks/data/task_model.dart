@@ -5,6 +5,7 @@ class TaskModel {
       title: map['title'] ?? '',
       description: map['description'] ?? '',
       completed: map['completed'] ?? false,
+      version: map['version'] != null ? (map['version'] as num).toInt() : null,
     );
   }
 
@@ -13,12 +14,16 @@ class TaskModel {
     required this.title,
     required this.description,
     this.completed = false,
+    this.version,
   });
   final int? id;
   final String title;
   final String description;
   final bool completed;
 
+  /// Server-side version, sent back as If-Match so a stale edit is refused.
+  final int? version;
+
   Map<String, dynamic> toMap() {
     final map = <String, dynamic>{
       'title': title,
@@ -7,33 +7,65 @@ import 'package:task_manager_app/src/core/utils/constants.dart';
 
 class TaskService {
   /// Uses provided baseUrl or falls back to Constants.baseUrl
-  TaskService({String? baseUrl}) : _baseUrl = baseUrl ?? Constants.baseUrl;
+  TaskService({String? baseUrl, AuthService? auth})
+      : _baseUrl = baseUrl ?? Constants.baseUrl,
+        _auth = auth ?? AuthService(baseUrl: baseUrl);
 
   final String _baseUrl;
+  final AuthService _auth;
 
+  // Last full list and its ETag, replayed when the server answers 304
+  String? _listToken;
+  String? _listTag;
+  List<TaskModel>? _listCache;
+
+  /// Fetches every task, following the X-Next-Cursor header page by page.
+  /// The first page is requested with If-None-Match; a 304 returns the
+  /// previous list without downloading it again.
   Future<List<TaskModel>> fetchTasks() async {
     final token = await AuthService.getToken();
-    final url = Uri.parse('$_baseUrl/api/tasks');
-
-    final res = await http.get(url, headers: _authHeaders(token));
-
-    if (res.statusCode == 200) {
+    final cached = token == _listToken ? _listCache : null;
+    final tasks = <TaskModel>[];
+    String? cursor;
+    String? tag;
+
+    do {
+      final url = Uri.parse('$_baseUrl/api/tasks').replace(
+        queryParameters: cursor == null ? null : {'after': cursor},
+      );
+      final firstPage = cursor == null;
+      final res = await _send((headers) => http.get(url, headers: {
+            ...headers,
+            if (firstPage && cached != null && _listTag != null)
+              'If-None-Match': _listTag!,
+          }));
+
+      if (res.statusCode == 304 && cached != null) {
+        return List.of(cached);
+      }
+      if (res.statusCode != 200) {
+        throw Exception('Failed to fetch tasks: ${res.statusCode} ${res.body}');
+      }
       final List list = json.decode(res.body) as List;
-      return list.map((e) => TaskModel.fromMap(e)).toList();
-    } else {
-      throw Exception('Failed to fetch tasks: ${res.statusCode} ${res.body}');
-    }
+      tasks.addAll(list.map((e) => TaskModel.fromMap(e)));
+      tag ??= res.headers['etag'];
+      cursor = res.headers['x-next-cursor'];
+    } while (cursor != null);
+
+    _listToken = await AuthService.getToken();
+    _listTag = tag;
+    _listCache = List.unmodifiable(tasks);
+    return tasks;
   }
 
   Future<TaskModel> addTask(String title, String description) async {
-    final token = await AuthService.getToken();
     final url = Uri.parse('$_baseUrl/api/tasks');
 
-    final res = await http.post(
-      url,
-      headers: _authHeaders(token),
-      body: json.encode({'title': title, 'description': description}),
-    );
+    final res = await _send((headers) => http.post(
+          url,
+          headers: headers,
+          body: json.encode({'title': title, 'description': description}),
+        ));
 
     if (res.statusCode == 200 || res.statusCode == 201) {
       return TaskModel.fromMap(json.decode(res.body));
@@ -43,10 +75,9 @@ class TaskService {
   }
 
   Future<void> deleteTask(int id) async {
-    final token = await AuthService.getToken();
     final url = Uri.parse('$_baseUrl/api/tasks/$id');
 
-    final res = await http.delete(url, headers: _authHeaders(token));
+    final res = await _send((headers) => http.delete(url, headers: headers));
 
     if (res.statusCode != 200 && res.statusCode != 204) {
       throw Exception('Failed to delete task: ${res.statusCode} ${res.body}');
@@ -54,14 +85,13 @@ class TaskService {
   }
 
   Future<TaskModel> updateTask(TaskModel t) async {
-    final token = await AuthService.getToken();
     final url = Uri.parse('$_baseUrl/api/tasks/${t.id}');
 
-    final res = await http.put(
-      url,
-      headers: _authHeaders(token),
-      body: json.encode(t.toMap()),
-    );
+    final res = await _send((headers) => http.put(
+          url,
+          headers: headers,
+          body: json.encode(t.toMap()),
+        ));
 
     if (res.statusCode == 200) {
       return TaskModel.fromMap(json.decode(res.body));
@@ -70,6 +100,55 @@ class TaskService {
     }
   }
 
+  /// Sends only the given fields as a JSON Merge Patch; fields left out keep
+  /// their stored values, so a toggle never re-sends the description.
+  /// With [ifMatchVersion] the server refuses the patch (412) if the task was
+  /// changed elsewhere since that version.
+  Future<TaskModel> patchTask(
+    int id,
+    Map<String, Object?> changes, {
+    int? ifMatchVersion,
+  }) async {
+    final url = Uri.parse('$_baseUrl/api/tasks/$id');
+
+    final res = await _send((headers) => http.patch(
+          url,
+          headers: {
+            ...headers,
+            'Content-Type': 'application/merge-patch+json',
+            if (ifMatchVersion != null) 'If-Match': '"$ifMatchVersion"',
+          },
+          body: json.encode(changes),
+        ));
+
+    if (res.statusCode == 200) {
+      return TaskModel.fromMap(json.decode(res.body));
+    } else if (res.statusCode == 412) {
+      throw Exception('Task was changed elsewhere; reload and try again');
+    } else {
+      throw Exception('Failed to update task: ${res.statusCode} ${res.body}');
+    }
+  }
+
+  /// Sends a request with the stored access token. An expired or revoked
+  /// token (401) is exchanged once through the refresh token and the request
+  /// repeated, so users are not sent back to the login screen every time the
+  /// short-lived access token runs out. A renewed token in the response
+  /// replaces the stored one before it expires.
+  Future<http.Response> _send(
+    Future<http.Response> Function(Map<String, String> headers) request,
+  ) async {
+    var res = await request(_authHeaders(await AuthService.getToken()));
+    if (res.statusCode == 401) {
+      final refreshed = await _auth.refresh();
+      if (refreshed != null) {
+        res = await request(_authHeaders(refreshed));
+      }
+    }
+    await AuthService.keepRenewedToken(res);
+    return res;
+  }
+
   Map<String, String> _authHeaders(String? token) {
     final headers = {'Content-Type': 'application/json'};
     if (token != null && token.isNotEmpty) {
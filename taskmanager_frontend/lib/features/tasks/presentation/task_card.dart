@@ -222,16 +222,20 @@ class TaskCard extends StatelessWidget {
               ),
               onPressed: () async {
                 final service = TaskService();
-                final updatedTask = TaskModel(
-                  id: task.id,
-                  title: titleController.text.trim(),
-                  description: descController.text.trim(),
-                );
+                final changes = {
+                  'title': titleController.text.trim(),
+                  'description': descController.text.trim(),
+                };
 
                 Navigator.pop(ctx);
 
                 try {
-                  await service.updateTask(updatedTask);
+                  // PATCH keeps the completed flag the dialog does not show
+                  await service.patchTask(
+                    task.id!,
+                    changes,
+                    ifMatchVersion: task.version,
+                  );
 
                   if (context.mounted) {
                     onEdit?.call();
@@ -24,4 +24,5 @@ class Constants {
   }
 
   static const String tokenKey = 'auth_token';
+  static const String refreshTokenKey = 'refresh_token';
 }
@@ -80,5 +80,123 @@ void main() {
         throwsA(isA<Exception>()),
       );
     });
+
+    test('login saves the refresh token next to the access token', () async {
+      when(() => mockClient.post(
+            Uri.parse('http://test.com/api/auth/login'),
+            headers: any(named: 'headers'),
+            body: any(named: 'body'),
+          )).thenAnswer(
+        (_) async => http.Response(
+            jsonEncode({'token': 'access1', 'refreshToken': 'refresh1'}), 200),
+      );
+
+      final result = await service.login('user', 'pass');
+
+      expect(result.refreshToken, 'refresh1');
+      final prefs = await SharedPreferences.getInstance();
+      expect(prefs.getString(Constants.refreshTokenKey), 'refresh1');
+    });
+  });
+
+  group('AuthService.refresh', () {
+    final refreshUrl = Uri.parse('http://test.com/api/auth/refresh');
+
+    test('exchanges the stored refresh token and stores the rotated pair',
+        () async {
+      SharedPreferences.setMockInitialValues({
+        Constants.tokenKey: 'expired',
+        Constants.refreshTokenKey: 'refresh1',
+      });
+      when(() => mockClient.post(
+            refreshUrl,
+            headers: any(named: 'headers'),
+            body: jsonEncode({'refreshToken': 'refresh1'}),
+          )).thenAnswer(
+        (_) async => http.Response(
+            jsonEncode({'token': 'access2', 'refreshToken': 'refresh2'}), 200),
+      );
+
+      final token = await service.refresh();
+
+      expect(token, 'access2');
+      final prefs = await SharedPreferences.getInstance();
+      expect(prefs.getString(Constants.tokenKey), 'access2');
+      expect(prefs.getString(Constants.refreshTokenKey), 'refresh2');
+    });
+
+    test('forgets both tokens when the server rejects the refresh token',
+        () async {
+      SharedPreferences.setMockInitialValues({
+        Constants.tokenKey: 'expired',
+        Constants.refreshTokenKey: 'reused',
+      });
+      when(() => mockClient.post(
+            refreshUrl,
+            headers: any(named: 'headers'),
+            body: any(named: 'body'),
+          )).thenAnswer((_) async => http.Response('{}', 401));
+
+      expect(await service.refresh(), isNull);
+
+      final prefs = await SharedPreferences.getInstance();
+      expect(prefs.getString(Constants.tokenKey), isNull);
+      expect(prefs.getString(Constants.refreshTokenKey), isNull);
+    });
+
+    test('concurrent callers share one exchange of the single-use token',
+        () async {
+      SharedPreferences.setMockInitialValues({
+        Constants.refreshTokenKey: 'refresh1',
+      });
+      when(() => mockClient.post(
+            refreshUrl,
+            headers: any(named: 'headers'),
+            body: any(named: 'body'),
+          )).thenAnswer(
+        (_) async => http.Response(
+            jsonEncode({'token': 'access2', 'refreshToken': 'refresh2'}), 200),
+      );
+
+      final tokens = await Future.wait([service.refresh(), service.refresh()]);
+
+      expect(tokens, ['access2', 'access2']);
+      verify(() => mockClient.post(
+            refreshUrl,
+            headers: any(named: 'headers'),
+            body: any(named: 'body'),
+          )).called(1);
+    });
+
+    test('returns null without a request when no refresh token is stored',
+        () async {
+      expect(await service.refresh(), isNull);
+      verifyNever(() => mockClient.post(
+            refreshUrl,
+            headers: any(named: 'headers'),
+            body: any(named: 'body'),
+          ));
+    });
+  });
+
+  group('AuthService.keepRenewedToken', () {
+    test('replaces the stored token with the renewed one', () async {
+      SharedPreferences.setMockInitialValues({Constants.tokenKey: 'aging'});
+
+      await AuthService.keepRenewedToken(
+          http.Response('', 200, headers: {'x-renewed-token': 'renewed'}));
+
+      final prefs = await SharedPreferences.getInstance();
+      expect(prefs.getString(Constants.tokenKey), 'renewed');
+    });
+
+    test('keeps the stored token when the response carries none', () async {
+      SharedPreferences.setMockInitialValues({Constants.tokenKey: 'fresh'});
+
+      await AuthService.keepRenewedToken(http.Response('', 200));
+
+      final prefs = await SharedPreferences.getInstance();
+      expect(prefs.getString(Constants.tokenKey), 'fresh');
+    });
   });
 }